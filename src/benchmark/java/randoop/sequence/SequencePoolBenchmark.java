@@ -0,0 +1,192 @@
+package randoop.sequence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import randoop.operation.TypedOperation;
+import randoop.types.ClassOrInterfaceType;
+import randoop.types.JavaTypes;
+import randoop.types.Type;
+import randoop.util.SimpleList;
+
+/**
+ * Microbenchmarks for the {@link SequencePool} implementations: the time to
+ * query a pool for the sequences of a type and select one, as the generator
+ * does for each input, and the throughput of a {@link ConcurrentSequenceCollection}
+ * that is queried and added to by several threads at once.
+ * <p>
+ * Run with <code>gradle benchmark</code>, or
+ * <code>gradle benchmark -PjmhArgs="SequencePoolBenchmark.query"</code> for
+ * one benchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequencePoolBenchmark {
+
+  // The number of sequences in a pool.
+  private static final int POOL_SIZE = 10000;
+
+  // The sequences are constructor calls of these classes, which are all
+  // non-generic, so that queries for Object and CharSequence match several
+  // types.
+  private static final Class<?>[] CLASSES = {
+    Object.class, StringBuilder.class, StringBuffer.class, Random.class, java.util.Date.class
+  };
+
+  // The types queried, in turn. Object and CharSequence are queried for the
+  // compatible types, StringBuilder for itself only.
+  private static final Type[] QUERY_TYPES = {
+    JavaTypes.OBJECT_TYPE,
+    ClassOrInterfaceType.forClass(CharSequence.class),
+    ClassOrInterfaceType.forClass(StringBuilder.class)
+  };
+
+  private static final boolean[] EXACT = {false, false, true};
+
+  /**
+   * Returns distinct sequences that each create an object of one of
+   * {@link #CLASSES}.
+   *
+   * @param count  the number of sequences
+   * @return the sequences
+   */
+  private static List<Sequence> createSequences(int count) {
+    List<TypedOperation> constructors = new ArrayList<>();
+    for (Class<?> c : CLASSES) {
+      try {
+        constructors.add(TypedOperation.forConstructor(c.getConstructor()));
+      } catch (NoSuchMethodException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    List<Sequence> sequences = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      // The integer declaration makes the sequences distinct.
+      sequences.add(
+          new Sequence()
+              .extend(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, i))
+              .extend(constructors.get(i % constructors.size())));
+    }
+    return sequences;
+  }
+
+  /** A pool of either kind, with {@link #POOL_SIZE} sequences. */
+  @State(Scope.Benchmark)
+  public static class PoolState {
+
+    @Param({"SEQUENTIAL", "CONCURRENT"})
+    String kind;
+
+    SequencePool pool;
+
+    @Setup
+    public void setup() {
+      List<Sequence> sequences = createSequences(POOL_SIZE);
+      pool =
+          kind.equals("SEQUENTIAL")
+              ? new SequenceCollection(sequences)
+              : new ConcurrentSequenceCollection(sequences);
+    }
+  }
+
+  /** A concurrent pool, which the threads of a group share. */
+  @State(Scope.Group)
+  public static class ConcurrentState {
+
+    List<Sequence> sequences;
+
+    ConcurrentSequenceCollection pool;
+
+    @Setup
+    public void setup() {
+      sequences = createSequences(POOL_SIZE);
+      pool = new ConcurrentSequenceCollection(sequences);
+    }
+  }
+
+  /** The position of one thread in the query types and the sequences. */
+  @State(Scope.Thread)
+  public static class Cursor {
+
+    int query = 0;
+
+    int selection = 0;
+
+    int addition = 0;
+  }
+
+  /**
+   * Queries the pool for the next type and selects one of its sequences.
+   *
+   * @param state  the pool
+   * @param cursor  the position of this thread
+   * @return the selected sequence
+   */
+  @Benchmark
+  public Sequence query(PoolState state, Cursor cursor) {
+    return select(state.pool, cursor);
+  }
+
+  /**
+   * Queries a concurrent pool that the writer thread adds to.
+   *
+   * @param state  the pool
+   * @param cursor  the position of this thread
+   * @return the selected sequence
+   */
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(3)
+  public Sequence read(ConcurrentState state, Cursor cursor) {
+    return select(state.pool, cursor);
+  }
+
+  /**
+   * Adds the next sequence to a concurrent pool that the reader threads query.
+   * The pool is cleared and refilled when it doubles in size, so that the
+   * queries do not slow down as the benchmark runs.
+   *
+   * @param state  the pool
+   * @param cursor  the position of this thread
+   */
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(1)
+  public void write(ConcurrentState state, Cursor cursor) {
+    if (state.pool.size() >= 2 * POOL_SIZE) {
+      state.pool.clear();
+    }
+    state.pool.add(state.sequences.get(cursor.addition));
+    cursor.addition = (cursor.addition + 1) % POOL_SIZE;
+  }
+
+  private static Sequence select(SequencePool pool, Cursor cursor) {
+    int query = cursor.query;
+    cursor.query = (query + 1) % QUERY_TYPES.length;
+    SimpleList<Sequence> candidates = pool.getSequencesForType(QUERY_TYPES[query], EXACT[query]);
+    if (candidates.isEmpty()) {
+      return null;
+    }
+    cursor.selection = (cursor.selection + 7919) & Integer.MAX_VALUE;
+    return candidates.get(cursor.selection % candidates.size());
+  }
+}
@@ -13,7 +13,7 @@ public abstract class ExecutionOutcome {
   /**
    * How long the associated statement took to execute.
    *
-   * @return the execution time for the statement
+   * @return the execution time for the statement, in nanoseconds
    */
   public abstract long getExecutionTime();
 
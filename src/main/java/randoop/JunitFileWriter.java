@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Map;
 
 import randoop.sequence.ExecutableSequence;
+import randoop.util.IndentingAppendable;
 import randoop.util.Log;
 
 /**
@@ -35,6 +36,9 @@ public class JunitFileWriter {
 
   private static boolean includeParsableString = false;
 
+  // The indentation of the statements in a test method.
+  private static final String INDENT = "    ";
+
   /**
    * testClassCount indicates the number of test classes written for the code
    * partitions received by writeJUnitTestFiles. It is used to generate the list
@@ -196,7 +200,14 @@ public class JunitFileWriter {
                 + methodName
                 + "\"); }"));
     out.println();
-    out.println(indent(s.toCodeString()));
+    IndentingAppendable body = new IndentingAppendable(out, INDENT);
+    try {
+      s.appendCode(body);
+      body.finish();
+    } catch (IOException e) {
+      throw new BugInRandoopException(e); // PrintStream does not throw IOException
+    }
+    out.println();
     out.println("  }");
   }
 
@@ -407,12 +418,21 @@ public class JunitFileWriter {
     return dir;
   }
 
-  // TODO document and move to util directory.
+  /**
+   * Indents each line of the given code to the level of a test method body.
+   *
+   * @param codeString  the code to indent
+   * @return the code with each line indented
+   * @see IndentingAppendable
+   */
   private static String indent(String codeString) {
     StringBuilder indented = new StringBuilder();
-    String[] lines = codeString.split(Globals.lineSep);
-    for (String line : lines) {
-      indented.append("    ").append(line).append(Globals.lineSep);
+    IndentingAppendable appendable = new IndentingAppendable(indented, INDENT);
+    try {
+      appendable.append(codeString);
+      appendable.finish();
+    } catch (IOException e) {
+      throw new BugInRandoopException(e); // StringBuilder does not throw IOException
     }
     return indented.toString();
   }
@@ -0,0 +1,119 @@
+package randoop;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import randoop.operation.TypedOperation;
+import randoop.types.Type;
+import randoop.types.TypeTuple;
+
+/**
+ * An index of the can-be-used-as relation between types. Each type is given a
+ * dense integer id the first time it is seen, and the index records, for each
+ * type, the {@link BitSet} of the ids of the types that are assignable to it.
+ * The relation is computed once per pair of types, so that a
+ * {@link SubTypeSet} can answer queries with bit operations instead of calls
+ * to {@link Type#isAssignableFrom(Type)}.
+ * <p>
+ * The types of the operations under test can be added up front with
+ * {@link #addOperationTypes(List)}; other types are added when first used.
+ * Each collection of components has its own index, which is not thread-safe.
+ */
+public final class SubTypeIndex {
+
+  // The types in the index, by id.
+  private final List<Type> types = new ArrayList<>();
+
+  private final Map<Type, Integer> ids = new HashMap<>();
+
+  // For each type id, the ids of the types that are assignable to the type.
+  private final List<BitSet> assignableFrom = new ArrayList<>();
+
+  /**
+   * Adds the input and output types of the given operations to this index.
+   *
+   * @param operations  the operations whose types are added
+   */
+  public void addOperationTypes(List<TypedOperation> operations) {
+    for (TypedOperation operation : operations) {
+      TypeTuple inputTypes = operation.getInputTypes();
+      for (int i = 0; i < inputTypes.size(); i++) {
+        getId(inputTypes.get(i));
+      }
+      if (!operation.getOutputType().isVoid()) {
+        getId(operation.getOutputType());
+      }
+    }
+  }
+
+  /**
+   * Returns the id of the given type, adding the type to the index if it is
+   * not already in it.
+   *
+   * @param type  the type
+   * @return the id of the type
+   */
+  public int getId(Type type) {
+    Integer id = ids.get(type);
+    if (id != null) {
+      return id;
+    }
+    int newId = types.size();
+    BitSet subtypes = new BitSet();
+    for (int i = 0; i < newId; i++) {
+      Type other = types.get(i);
+      if (other.isAssignableFrom(type)) {
+        assignableFrom.get(i).set(newId);
+      }
+      if (type.isAssignableFrom(other)) {
+        subtypes.set(i);
+      }
+    }
+    if (type.isAssignableFrom(type)) {
+      subtypes.set(newId);
+    }
+    types.add(type);
+    ids.put(type, newId);
+    assignableFrom.add(subtypes);
+    return newId;
+  }
+
+  /**
+   * Returns the type with the given id.
+   *
+   * @param id  the id of a type in this index
+   * @return the type with the id
+   */
+  public Type getType(int id) {
+    return types.get(id);
+  }
+
+  /**
+   * Returns true if the type with the second id can be used as the type with
+   * the first id.
+   *
+   * @param id  the id of the type assigned to
+   * @param otherId  the id of the type assigned from
+   * @return true if the second type is assignable to the first
+   */
+  public boolean isAssignableFrom(int id, int otherId) {
+    return assignableFrom.get(id).get(otherId);
+  }
+
+  /**
+   * Returns the ids of the given types that are assignable to the given type.
+   *
+   * @param type  the query type
+   * @param candidates  the ids of the candidate types; not modified
+   * @return a new set of the ids in {@code candidates} of the types that can be
+   *         used as {@code type}
+   */
+  public BitSet getMatches(Type type, BitSet candidates) {
+    BitSet matches = (BitSet) assignableFrom.get(getId(type)).clone();
+    matches.and(candidates);
+    return matches;
+  }
+}
@@ -1,20 +1,25 @@
 package randoop;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 import randoop.types.Type;
-import randoop.util.IMultiMap;
 import randoop.util.ISimpleSet;
-import randoop.util.MultiMap;
-import randoop.util.ReversibleMultiMap;
 import randoop.util.ReversibleSet;
 import randoop.util.SimpleSet;
 
 /**
  * A set of classes. This data structure additionally allows for efficient
- * answers to queries about can-be-used-as relationships.
+ * answers to queries about can-be-used-as relationships: the members of the set
+ * are kept as a {@link BitSet} of {@link SubTypeIndex} ids, so that the
+ * members that can be used as a given type are found by intersecting bit sets.
+ * The matches of a query are in the order in which the types were added to
+ * the set, whatever the order of their ids.
  */
 public class SubTypeSet {
 
@@ -23,21 +28,46 @@ public class SubTypeSet {
   // create a value of the member type.
   public ISimpleSet<Type> typesWithsequences;
 
-  // Maps a type to the list of subtypes that have sequences.
-  // The list for a given type can be empty, which means that there
-  // are no subtypes with sequences for the given type.
-  private IMultiMap<Type, Type> subTypesWithsequences;
+  private final SubTypeIndex index;
+
+  // The ids in the index of the types in typesWithsequences.
+  private final BitSet members = new BitSet();
+
+  // The ids of the types in typesWithsequences, in the order of addition.
+  private int[] memberOrder = new int[16];
+
+  private int memberCount = 0;
+
+  // Maps a type to the set of subtypes that have sequences.
+  // The set for a given type can be empty, which means that there
+  // are no subtypes with sequences for the given type. Updated when a
+  // type is added, and cleared when an addition is undone.
+  private final Map<Type, Matches> subTypesWithsequences = new HashMap<>();
 
   private boolean reversible;
 
+  /**
+   * Creates an empty set with its own subtype index.
+   *
+   * @param reversible  true if additions to the set can be undone
+   */
   public SubTypeSet(boolean reversible) {
+    this(reversible, new SubTypeIndex());
+  }
+
+  /**
+   * Creates an empty set whose members are kept as ids in the given index.
+   *
+   * @param reversible  true if additions to the set can be undone
+   * @param index  the index of the subtype relation
+   */
+  public SubTypeSet(boolean reversible, SubTypeIndex index) {
+    this.index = index;
     if (reversible) {
       this.reversible = true;
-      this.subTypesWithsequences = new ReversibleMultiMap<>();
       this.typesWithsequences = new ReversibleSet<>();
     } else {
       this.reversible = false;
-      this.subTypesWithsequences = new MultiMap<>();
       this.typesWithsequences = new SimpleSet<>();
     }
   }
@@ -46,7 +76,6 @@ public class SubTypeSet {
     if (!reversible) {
       throw new RuntimeException("Operation not supported.");
     }
-    ((ReversibleMultiMap<Type, Type>) subTypesWithsequences).mark();
     ((ReversibleSet<Type>) typesWithsequences).mark();
   }
 
@@ -54,39 +83,37 @@ public class SubTypeSet {
     if (!reversible) {
       throw new RuntimeException("Operation not supported.");
     }
-    ((ReversibleMultiMap<Type, Type>) subTypesWithsequences).undoToLastMark();
     ((ReversibleSet<Type>) typesWithsequences).undoToLastMark();
+    members.clear();
+    memberCount = 0;
+    for (Type t : typesWithsequences.getElements()) {
+      addMember(index.getId(t));
+    }
+    subTypesWithsequences.clear();
   }
 
   public void add(Type c) {
     if (c == null) throw new IllegalArgumentException("c cannot be null.");
-    if (typesWithsequences.contains(c)) return;
+    int id = index.getId(c);
+    if (members.get(id)) return;
     typesWithsequences.add(c);
+    addMember(id);
 
-    // Update existing entries.
-    for (Type cls : subTypesWithsequences.keySet()) {
-      if (cls.isAssignableFrom(c)) {
-        if (!subTypesWithsequences.getValues(cls).contains(c)) subTypesWithsequences.add(cls, c);
+    // Update existing entries. The new type is the last one added, so it
+    // goes at the end of the matches.
+    for (Matches matches : subTypesWithsequences.values()) {
+      if (index.isAssignableFrom(matches.id, id)) {
+        matches.types.add(c);
       }
     }
   }
 
-  private void addQueryType(Type type) {
-    if (type == null) throw new IllegalArgumentException("c cannot be null.");
-    Set<Type> keySet = subTypesWithsequences.keySet();
-    if (keySet.contains(type)) {
-      return;
-    }
-
-    Set<Type> compatibleTypesWithSequences = new LinkedHashSet<>();
-    for (Type t : typesWithsequences.getElements()) {
-      if (type.isAssignableFrom(t)) {
-        compatibleTypesWithSequences.add(t);
-      }
-    }
-    for (Type cls : compatibleTypesWithSequences) {
-      subTypesWithsequences.add(type, cls);
+  private void addMember(int id) {
+    members.set(id);
+    if (memberCount == memberOrder.length) {
+      memberOrder = Arrays.copyOf(memberOrder, 2 * memberCount);
     }
+    memberOrder[memberCount++] = id;
   }
 
   /**
@@ -97,10 +124,36 @@ public class SubTypeSet {
    * @return the set of types that can be used in place of the query type
    */
   public Set<Type> getMatches(Type type) {
-    if (!subTypesWithsequences.keySet().contains(type)) {
-      addQueryType(type);
+    if (type == null) throw new IllegalArgumentException("c cannot be null.");
+    Matches matches = subTypesWithsequences.get(type);
+    if (matches == null) {
+      matches = new Matches(index.getId(type));
+      BitSet ids = index.getMatches(type, members);
+      if (!ids.isEmpty()) {
+        for (int i = 0; i < memberCount; i++) {
+          if (ids.get(memberOrder[i])) {
+            matches.types.add(index.getType(memberOrder[i]));
+          }
+        }
+      }
+      subTypesWithsequences.put(type, matches);
+    }
+    return matches.view;
+  }
+
+  /** The types with sequences that can be used as a query type. */
+  private static final class Matches {
+
+    // The id of the query type.
+    final int id;
+
+    final Set<Type> types = new LinkedHashSet<>();
+
+    final Set<Type> view = Collections.unmodifiableSet(types);
+
+    Matches(int id) {
+      this.id = id;
     }
-    return Collections.unmodifiableSet(subTypesWithsequences.getValues(type));
   }
 
   // TODO create tests for this method.
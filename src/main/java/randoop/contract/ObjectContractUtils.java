@@ -6,7 +6,6 @@ import randoop.NormalExecution;
 import randoop.sequence.Variable;
 import randoop.util.ReflectionCode;
 import randoop.util.ReflectionExecutor;
-import randoop.util.Timer;
 
 /**
  * Utility methods for safely executing and printing {@link ObjectContract}
@@ -58,18 +57,17 @@ public class ObjectContractUtils {
             }
           }
         };
-    Timer timer = new Timer();
-    timer.startTiming();
+    long startTime = System.nanoTime();
     Throwable t = ReflectionExecutor.executeReflectionCode(refl, System.out);
-    timer.stopTiming();
+    long totalTime = System.nanoTime() - startTime;
 
     if (refl.getExceptionThrown() != null) {
-      return new ExceptionalExecution(refl.getExceptionThrown(), timer.getTimeElapsedMillis());
+      return new ExceptionalExecution(refl.getExceptionThrown(), totalTime);
     }
     if (t != null) {
-      return new ExceptionalExecution(t, timer.getTimeElapsedMillis());
+      return new ExceptionalExecution(t, totalTime);
     }
-    return new NormalExecution(refl.getReturnVariable(), timer.getTimeElapsedMillis());
+    return new NormalExecution(refl.getReturnVariable(), totalTime);
   }
 
   /**
@@ -239,8 +239,9 @@ public abstract class AbstractGenerator {
    * milliseconds,
    * <li>the number of output sequences is equal to the maximum output,
    * <li>the number of generated sequences is equal to the maximum generated
-   * sequence count, or
-   * <li>if there is a stopper, {@link IStopper#stop()} returns true.
+   * sequence count,
+   * <li>if there is a stopper, {@link IStopper#stop()} returns true, or
+   * <li>the generating thread has been interrupted.
    * </ul>
    *
    * @return true if any of stopping criteria are met, otherwise false
@@ -250,7 +251,8 @@ public abstract class AbstractGenerator {
         || (timer.getTimeElapsedMillis() >= maxTimeMillis)
         || (numOutputSequences() >= maxOutputSequences)
         || (numGeneratedSequences() >= maxGeneratedSequences)
-        || (stopper != null && stopper.stop());
+        || (stopper != null && stopper.stop())
+        || Thread.currentThread().isInterrupted();
   }
 
   /**
@@ -260,6 +262,16 @@ public abstract class AbstractGenerator {
    */
   public abstract ExecutableSequence step();
 
+  /**
+   * Finishes the sequences that earlier steps started but did not return, once
+   * generation stops. The default implementation returns none.
+   *
+   * @return the finished sequences, in the order in which they were started
+   */
+  protected List<ExecutableSequence> drain() {
+    return new ArrayList<>();
+  }
+
   /**
    * Returns the count of generated sequence currently for output.
    *
@@ -332,31 +344,16 @@ public abstract class AbstractGenerator {
         continue;
       }
 
-      num_sequences_generated++;
-
-      if (eSeq.hasFailure()) {
-        num_failing_sequences++;
-      }
-
-      if (outputTest.test(eSeq)) {
-        if (!eSeq.hasInvalidBehavior()) {
-          if (eSeq.hasFailure()) {
-            outErrorSeqs.add(eSeq);
-          } else {
-            outRegressionSeqs.add(eSeq);
-          }
-        }
-      }
-
-      if (dump_sequences) {
-        System.out.printf("Sequence after execution:%n%s%n", eSeq.toString());
-        System.out.printf("allSequences.size() = %d%n", numGeneratedSequences());
-      }
+      recordGeneratedSequence(eSeq);
+    }
 
-      if (Log.isLoggingOn()) {
-        Log.logLine("Sequence after execution: " + Globals.lineSep + eSeq.toString());
-        Log.logLine("allSequences.size()=" + numGeneratedSequences());
+    // Sequences that were started but not returned by a step, such as those
+    // still in a generation pipeline, are kept too, up to the output limit.
+    for (ExecutableSequence eSeq : drain()) {
+      if (numOutputSequences() >= maxOutputSequences) {
+        break;
       }
+      recordGeneratedSequence(eSeq);
     }
 
     if (!GenInputsAbstract.noprogressdisplay && progressDisplay != null) {
@@ -383,6 +380,40 @@ public abstract class AbstractGenerator {
     }
   }
 
+  /**
+   * Counts a generated sequence, and adds it to the output sequences if it is
+   * a test to output.
+   *
+   * @param eSeq  the executed sequence
+   */
+  private void recordGeneratedSequence(ExecutableSequence eSeq) {
+    num_sequences_generated++;
+
+    if (eSeq.hasFailure()) {
+      num_failing_sequences++;
+    }
+
+    if (outputTest.test(eSeq)) {
+      if (!eSeq.hasInvalidBehavior()) {
+        if (eSeq.hasFailure()) {
+          outErrorSeqs.add(eSeq);
+        } else {
+          outRegressionSeqs.add(eSeq);
+        }
+      }
+    }
+
+    if (dump_sequences) {
+      System.out.printf("Sequence after execution:%n%s%n", eSeq.toString());
+      System.out.printf("allSequences.size() = %d%n", numGeneratedSequences());
+    }
+
+    if (Log.isLoggingOn()) {
+      Log.logLine("Sequence after execution: " + Globals.lineSep + eSeq.toString());
+      Log.logLine("allSequences.size()=" + numGeneratedSequences());
+    }
+  }
+
   /**
    * Return all sequences generated by this object.
    *
@@ -391,28 +422,28 @@ public abstract class AbstractGenerator {
   public abstract Set<Sequence> getAllSequences();
 
   /**
-   * Returns the set of sequences that are used as inputs in other sequences
-   * (and can thus be thought of as subsumed by another sequence). This should
-   * only be called for subclasses that support this.
+   * Indicates whether the given sequence was used as an input in another
+   * sequence (and can thus be thought of as subsumed by another sequence).
+   * This should only be called for subclasses that support this.
    *
-   * @return the set of sequences subsumed by other sequences
+   * @param sequence  the sequence
+   * @return true if the sequence is subsumed by another sequence, false otherwise
    */
-  public Set<Sequence> getSubsumedSequences() {
+  public boolean isSubsumed(Sequence sequence) {
     throw new Error("subsumed_sequences not supported for " + this.getClass());
   }
 
   /**
    * Returns the generated regression test sequences for output. Filters out
-   * subsequences, which can be retrieved using {@link #getSubsumedSequences()}
+   * subsequences, as identified by {@link #isSubsumed(Sequence)}.
    *
    * @return regression test sequences that do not occur in a longer sequence
    */
   // TODO replace this with filtering during generation
   public List<ExecutableSequence> getRegressionSequences() {
     List<ExecutableSequence> unique_seqs = new ArrayList<>();
-    Set<Sequence> subsumed_seqs = this.getSubsumedSequences();
     for (ExecutableSequence es : outRegressionSeqs) {
-      if (!subsumed_seqs.contains(es.sequence)) {
+      if (!isSubsumed(es.sequence)) {
         unique_seqs.add(es);
       }
     }
@@ -0,0 +1,116 @@
+package randoop.generation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import randoop.operation.TypedOperation;
+
+/**
+ * An operation selector that keeps the statistics of each operation.
+ * Subclasses define {@link #selectOperation()}, and should record each
+ * selection with {@link OperationStatistics#recordSelection()}.
+ */
+public abstract class AbstractOperationSelector implements OperationSelector {
+
+  /** The operations to select from */
+  protected final List<TypedOperation> operations;
+
+  private final Map<TypedOperation, OperationStatistics> statistics = new HashMap<>();
+
+  // The statistics of the operation at each position of the operations, so
+  // that a selection that visits every operation does not hash them.
+  private final List<OperationStatistics> positionStatistics = new ArrayList<>();
+
+  private int totalOutcomes = 0;
+
+  private long totalStatements = 0;
+
+  private long totalNanos = 0;
+
+  /**
+   * Creates a selector over the given operations. The selector removes
+   * operations from the list, and adds them back, itself.
+   *
+   * @param operations  the operations to select from
+   */
+  protected AbstractOperationSelector(List<TypedOperation> operations) {
+    this.operations = operations;
+    for (TypedOperation operation : operations) {
+      positionStatistics.add(getStatistics(operation));
+    }
+  }
+
+  @Override
+  public void removeOperation(TypedOperation operation) {
+    int position = operations.indexOf(operation);
+    if (position >= 0) {
+      operations.remove(position);
+      positionStatistics.remove(position);
+    }
+  }
+
+  @Override
+  public void addOperation(TypedOperation operation) {
+    operations.add(operation);
+    positionStatistics.add(getStatistics(operation));
+  }
+
+  @Override
+  public void recordOutcome(
+      TypedOperation operation, double reward, int statements, long nanos) {
+    getStatistics(operation).recordOutcome(reward, statements, nanos);
+    totalOutcomes++;
+    totalStatements += statements;
+    totalNanos += nanos;
+  }
+
+  @Override
+  public void recordExecution(TypedOperation operation, long nanos) {
+    getStatistics(operation).recordExecution(nanos);
+  }
+
+  @Override
+  public OperationStatistics getStatistics(TypedOperation operation) {
+    OperationStatistics stats = statistics.get(operation);
+    if (stats == null) {
+      stats = new OperationStatistics();
+      statistics.put(operation, stats);
+    }
+    return stats;
+  }
+
+  /**
+   * Returns the statistics of the operation at the given position of the
+   * operations, without looking the operation up.
+   *
+   * @param position  the position of the operation in the operations
+   * @return the statistics of the steps for the operation
+   */
+  protected OperationStatistics getStatisticsAt(int position) {
+    return positionStatistics.get(position);
+  }
+
+  /**
+   * Returns the mean number of statements executed by the steps whose outcome
+   * has been recorded, for any operation.
+   *
+   * @return the mean number of statements of a step, or 0 if no outcome has
+   *         been recorded
+   */
+  protected double getMeanStepStatements() {
+    return (totalOutcomes == 0) ? 0 : (double) totalStatements / totalOutcomes;
+  }
+
+  /**
+   * Returns the mean time of the steps whose outcome has been recorded, for
+   * any operation.
+   *
+   * @return the mean time of a step, in nanoseconds, or 0 if no outcome has
+   *         been recorded
+   */
+  protected double getMeanStepNanos() {
+    return (totalOutcomes == 0) ? 0 : (double) totalNanos / totalOutcomes;
+  }
+}
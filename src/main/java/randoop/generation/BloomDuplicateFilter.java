@@ -0,0 +1,143 @@
+package randoop.generation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import randoop.sequence.Sequence;
+
+/**
+ * A {@link DuplicateFilter} that records sequences in a scalable Bloom filter
+ * (Almeida et al., "Scalable Bloom Filters", 2007). The filter uses a fixed
+ * amount of memory per sequence and never misses a duplicate. It may report
+ * that a new sequence is a duplicate, with probability at most the false
+ * positive rate given at construction.
+ * <p>
+ * The filter is a series of Bloom filters. When the last one is full, a new
+ * one with twice the capacity and half the false positive rate is added, so
+ * that the false positive rate of the series stays below the given bound
+ * however many sequences are recorded. The bit positions of a sequence are
+ * derived from its 128-bit fingerprint by double hashing.
+ */
+public class BloomDuplicateFilter implements DuplicateFilter {
+
+  private static final int INITIAL_CAPACITY = 1 << 12;
+
+  // The ratio between the false positive rates of consecutive filters.
+  private static final double TIGHTENING_RATIO = 0.5;
+
+  private final List<Filter> filters = new ArrayList<>();
+
+  private int size = 0;
+
+  /**
+   * Creates an empty filter with the given bound on the false positive rate.
+   *
+   * @param falsePositiveRate  the probability of reporting a new sequence as a
+   *          duplicate, strictly between 0 and 1
+   */
+  public BloomDuplicateFilter(double falsePositiveRate) {
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+      throw new IllegalArgumentException(
+          "false positive rate must be between 0 and 1, was " + falsePositiveRate);
+    }
+    filters.add(new Filter(INITIAL_CAPACITY, falsePositiveRate * (1 - TIGHTENING_RATIO)));
+  }
+
+  @Override
+  public boolean add(Sequence sequence) {
+    long hash1 = sequence.longHashCode();
+    long hash2 = sequence.fingerprint();
+    if (contains(hash1, hash2)) {
+      return false;
+    }
+    Filter last = filters.get(filters.size() - 1);
+    if (last.count == last.capacity) {
+      last = new Filter(2 * last.capacity, last.falsePositiveRate * TIGHTENING_RATIO);
+      filters.add(last);
+    }
+    last.add(hash1, hash2);
+    size++;
+    return true;
+  }
+
+  @Override
+  public boolean contains(Sequence sequence) {
+    return contains(sequence.longHashCode(), sequence.fingerprint());
+  }
+
+  private boolean contains(long hash1, long hash2) {
+    for (Filter filter : filters) {
+      if (filter.contains(hash1, hash2)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the empty set, since this filter does not retain sequences.
+   */
+  @Override
+  public Set<Sequence> getSequences() {
+    return Collections.emptySet();
+  }
+
+  /**
+   * A Bloom filter sized for a given number of elements and false positive
+   * rate.
+   */
+  private static final class Filter {
+
+    final int capacity;
+
+    final double falsePositiveRate;
+
+    int count = 0;
+
+    private final long[] bits;
+
+    private final long numBits;
+
+    private final int numHashes;
+
+    Filter(int capacity, double falsePositiveRate) {
+      this.capacity = capacity;
+      this.falsePositiveRate = falsePositiveRate;
+      double ln2 = Math.log(2);
+      long m = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+      this.bits = new long[(int) ((m + 63) / 64)];
+      this.numBits = 64L * bits.length;
+      this.numHashes = Math.max(1, (int) Math.ceil(-Math.log(falsePositiveRate) / ln2));
+    }
+
+    void add(long hash1, long hash2) {
+      for (int i = 0; i < numHashes; i++) {
+        long bit = index(hash1, hash2, i);
+        bits[(int) (bit >>> 6)] |= 1L << bit;
+      }
+      count++;
+    }
+
+    boolean contains(long hash1, long hash2) {
+      for (int i = 0; i < numHashes; i++) {
+        long bit = index(hash1, hash2, i);
+        if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    // The i-th bit position of an element, by double hashing.
+    private long index(long hash1, long hash2, int i) {
+      return ((hash1 + i * hash2) >>> 1) % numBits;
+    }
+  }
+}
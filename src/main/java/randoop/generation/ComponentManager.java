@@ -1,21 +1,33 @@
 package randoop.generation;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import randoop.SubTypeIndex;
+import randoop.main.GenInputsAbstract;
 import randoop.operation.TypedClassOperation;
 import randoop.operation.TypedOperation;
-import randoop.sequence.ClassLiterals;
-import randoop.sequence.PackageLiterals;
+import randoop.sequence.ConcurrentSequenceCollection;
+import randoop.sequence.EvictionPolicy;
+import randoop.sequence.LargestEvictionPolicy;
+import randoop.sequence.LfuEvictionPolicy;
+import randoop.sequence.LiteralIndex;
+import randoop.sequence.LruEvictionPolicy;
+import randoop.sequence.ReservoirEvictionPolicy;
 import randoop.sequence.Sequence;
 import randoop.sequence.SequenceCollection;
+import randoop.sequence.SequencePool;
 import randoop.types.ClassOrInterfaceType;
-import randoop.types.JavaTypes;
-import randoop.types.PrimitiveType;
 import randoop.types.Type;
-import randoop.util.ListOfLists;
+import randoop.util.GrowingListOfLists;
 import randoop.util.SimpleList;
 
 /**
@@ -38,6 +50,24 @@ import randoop.util.SimpleList;
  * only different treatment of seed sequences is during calls to the
  * clearGeneratedSequences() method, which removes only general, non-seed
  * components from the collection.
+ *
+ * If <code>--pool-type-capacity</code> is set, the general components hold at
+ * most that many generated sequences per type, and evict sequences according
+ * to <code>--pool-eviction</code>. Seed sequences are never evicted, and
+ * neither are class and package literals, which are kept in their own
+ * collections.
+ *
+ * General components that declare a primitive or String value are kept as
+ * values in a {@link PrimitiveValuePool} rather than as sequences, and are
+ * never evicted.
+ *
+ * THREADS. The methods of a component manager synchronize on it, so that
+ * several generator threads can query it at once. A concurrent manager keeps
+ * its general components in a {@link ConcurrentSequenceCollection}, whose
+ * queries return views that do not change as sequences are added; it cannot
+ * be bounded. The candidate lists for primitive values and literals are
+ * views that reflect values added later, so a generator that uses several
+ * threads adds components only while no thread selects inputs.
  */
 public class ComponentManager {
 
@@ -47,7 +77,16 @@ public class ComponentManager {
    */
   // Is never null. Contains both general components
   // and seed sequences.
-  private SequenceCollection gralComponents;
+  private SequencePool gralComponents;
+
+  // True if the general components are a ConcurrentSequenceCollection.
+  private final boolean concurrent;
+
+  /**
+   * The index of the subtype relation between the types of the general
+   * components, kept when the generated sequences are cleared.
+   */
+  private final SubTypeIndex typeIndex = new SubTypeIndex();
 
   /**
    * The subset of the sequences that were given pre-generation to the component
@@ -59,25 +98,58 @@ public class ComponentManager {
   private final Collection<Sequence> gralSeeds;
 
   /**
-   * A set of additional components representing literals that should only be
-   * used as input to specific classes.
+   * The primitive and String values of the general components, including
+   * seeds. The sequences of these values are not in gralComponents.
+   */
+  private PrimitiveValuePool primitiveValues;
+
+  /**
+   * The primitive and String values of the class and package literals, which
+   * are not added to the general components.
    */
-  // May be null, which represents no class literals present.
-  private ClassLiterals classLiterals = null;
+  private final PrimitiveValuePool literalValues = new PrimitiveValuePool();
 
   /**
    * A set of additional components representing literals that should only be
-   * used as input to specific packages.
+   * used as input to specific classes or packages.
    */
-  // May be null, which represents no package literals present.
-  private PackageLiterals packageLiterals = null;
+  // May be null, which represents no class or package literals present.
+  private LiteralIndex literals = null;
+
+  // The types of the values of the class and package literals.
+  private final Set<Type> literalTypes = new HashSet<>();
+
+  /**
+   * The candidate lists of the inputs of operations, by operation and input
+   * index, for inputs that can take primitive values or have class or package
+   * literals. Each list merges the general components with the primitive
+   * values and the literals, and is updated rather than rebuilt as general
+   * components are added.
+   */
+  // Cleared when a literal is added. Keyed by identity, since the generator
+  // selects operations from a fixed list, and operation hash codes are not
+  // cached.
+  private final Map<TypedOperation, CandidateList[]> candidateLists = new IdentityHashMap<>();
+
+  /**
+   * The candidate lists of query types that can take primitive values, for
+   * queries that are not for the input of an operation.
+   */
+  private final Map<Type, CandidateList> typeCandidateLists = new HashMap<>();
+
+  /**
+   * Incremented each time the general components change, so that a merged
+   * candidate list can tell whether it is up to date.
+   */
+  private int componentsVersion = 0;
 
   /**
    * Create an empty component manager, with an empty seed sequence set.
    */
   public ComponentManager() {
-    gralComponents = new SequenceCollection();
     gralSeeds = Collections.unmodifiableSet(Collections.<Sequence>emptySet());
+    concurrent = false;
+    createGeneralComponents();
   }
 
   /**
@@ -89,10 +161,105 @@ public class ComponentManager {
    *          is considered empty.
    */
   public ComponentManager(Collection<Sequence> generalSeeds) {
+    this(generalSeeds, false);
+  }
+
+  /**
+   * Create a component manager, initially populated with the given sequences,
+   * which are considered seed sequences. A concurrent manager keeps the
+   * general components in a {@link ConcurrentSequenceCollection}, for
+   * generators that select inputs on several threads at once.
+   *
+   * @param generalSeeds
+   *          seed sequences. Can be null, in which case the seed sequences set
+   *          is considered empty.
+   * @param concurrent
+   *          true for a concurrent manager, false otherwise
+   * @throws IllegalArgumentException
+   *           if the manager is concurrent and
+   *           <code>--pool-type-capacity</code> is set
+   */
+  public ComponentManager(Collection<Sequence> generalSeeds, boolean concurrent) {
+    if (concurrent && GenInputsAbstract.pool_type_capacity != 0) {
+      throw new IllegalArgumentException("a concurrent component manager cannot be bounded");
+    }
     Set<Sequence> seedSet = new LinkedHashSet<>(generalSeeds.size());
     seedSet.addAll(generalSeeds);
     this.gralSeeds = Collections.unmodifiableSet(seedSet);
-    gralComponents = new SequenceCollection(seedSet);
+    this.concurrent = concurrent;
+    createGeneralComponents();
+  }
+
+  /**
+   * Creates the collection of general components, bounded as given by
+   * <code>--pool-type-capacity</code>, and the pool of primitive values, and
+   * adds the seed sequences to them.
+   */
+  private void createGeneralComponents() {
+    primitiveValues = new PrimitiveValuePool();
+    List<Sequence> seeds = new ArrayList<>();
+    for (Sequence seed : gralSeeds) {
+      if (!addPrimitiveSequence(seed)) {
+        seeds.add(seed);
+      }
+    }
+    if (concurrent) {
+      gralComponents = new ConcurrentSequenceCollection(seeds);
+    } else if (GenInputsAbstract.pool_type_capacity == 0) {
+      gralComponents = new SequenceCollection(seeds, 0, null, typeIndex);
+    } else {
+      gralComponents =
+          new SequenceCollection(
+              seeds, GenInputsAbstract.pool_type_capacity, createEvictionPolicy(), typeIndex);
+    }
+  }
+
+  /**
+   * Adds the value of the given sequence to the primitive values, if the
+   * sequence declares a non-null primitive or String value.
+   *
+   * @param sequence  the sequence
+   * @return true if the sequence declares a primitive value, false otherwise
+   */
+  private boolean addPrimitiveSequence(Sequence sequence) {
+    if (!sequence.isPrimitive()) {
+      return false;
+    }
+    Object value = sequence.getStatement(0).getValue();
+    if (value == null) {
+      return false;
+    }
+    primitiveValues.add(value);
+    return true;
+  }
+
+  /**
+   * Creates the eviction policy selected by <code>--pool-eviction</code>.
+   *
+   * @return the eviction policy
+   */
+  private static EvictionPolicy createEvictionPolicy() {
+    switch (GenInputsAbstract.pool_eviction) {
+      case LFU:
+        return new LfuEvictionPolicy();
+      case LARGEST:
+        return new LargestEvictionPolicy();
+      case RANDOM:
+        return new ReservoirEvictionPolicy();
+      default:
+        return new LruEvictionPolicy();
+    }
+  }
+
+  /**
+   * Indicates whether several generator threads can select inputs from this
+   * manager at once.
+   *
+   * @return true if this manager keeps its general components in a
+   *         {@link ConcurrentSequenceCollection}, false otherwise
+   */
+  boolean isConcurrent() {
+    return concurrent;
   }
 
   /**
@@ -101,8 +268,32 @@ public class ComponentManager {
    * @return count of generated sequences in this {@link ComponentManager}.
    */
   // FIXME subtract size of seeds!
-  public int numGeneratedSequences() {
-    return gralComponents.size();
+  public synchronized int numGeneratedSequences() {
+    return gralComponents.size() + primitiveValues.size();
+  }
+
+  /**
+   * Adds the input and output types of the given operations to the index of
+   * the subtype relation between the types of the components, so that the
+   * relation is computed once rather than as each type is first used during
+   * generation.
+   *
+   * @param operations  the operations under test
+   */
+  public synchronized void addOperationTypes(List<TypedOperation> operations) {
+    typeIndex.addOperationTypes(operations);
+  }
+
+  /**
+   * Returns the number of types of the values created by the components: the
+   * general components, their primitive and String values, and the class and
+   * package literals. The number grows whenever a component creates a value
+   * of a type that no component created.
+   *
+   * @return the number of types with components
+   */
+  synchronized int numComponentTypes() {
+    return gralComponents.numTypes() + primitiveValues.numTypes() + literalTypes.size();
   }
 
   /**
@@ -112,11 +303,13 @@ public class ComponentManager {
    * @param type  the class literal to add for the sequence
    * @param seq  the sequence
    */
-  public void addClassLevelLiteral(ClassOrInterfaceType type, Sequence seq) {
-    if (classLiterals == null) {
-      classLiterals = new ClassLiterals();
+  public synchronized void addClassLevelLiteral(ClassOrInterfaceType type, Sequence seq) {
+    if (literals == null) {
+      literals = new LiteralIndex();
     }
-    classLiterals.addSequence(type, seq);
+    literals.addClassLiteral(type, seq);
+    recordLiteral(seq);
+    candidateLists.clear();
   }
 
   /**
@@ -126,11 +319,22 @@ public class ComponentManager {
    * @param pkg the package to add for the sequence
    * @param seq the sequence
    */
-  public void addPackageLevelLiteral(Package pkg, Sequence seq) {
-    if (packageLiterals == null) {
-      packageLiterals = new PackageLiterals();
+  public synchronized void addPackageLevelLiteral(Package pkg, Sequence seq) {
+    if (literals == null) {
+      literals = new LiteralIndex();
+    }
+    literals.addPackageLiteral(pkg, seq);
+    recordLiteral(seq);
+    candidateLists.clear();
+  }
+
+  // Records the type of the given literal, and its value if it is a
+  // primitive value.
+  private void recordLiteral(Sequence seq) {
+    literalTypes.add(seq.getStatement(seq.size() - 1).getOutputType());
+    if (seq.isPrimitive() && seq.getStatement(0).getValue() != null) {
+      literalValues.add(seq.getStatement(0).getValue());
     }
-    packageLiterals.addSequence(pkg, seq);
   }
 
   /**
@@ -138,23 +342,61 @@ public class ComponentManager {
    *
    * @param sequence the sequence
    */
-  public void addGeneratedSequence(Sequence sequence) {
-    gralComponents.add(sequence);
+  public synchronized void addGeneratedSequence(Sequence sequence) {
+    if (!addPrimitiveSequence(sequence)) {
+      gralComponents.add(sequence);
+    }
+    componentsVersion++;
+  }
+
+  /**
+   * Records that the given component sequences were used as the inputs of a
+   * new sequence, for the eviction policy of <code>--pool-type-capacity</code>.
+   *
+   * @param inputs  the input sequences
+   */
+  synchronized void recordInputUse(List<Sequence> inputs) {
+    // A concurrent manager is never bounded, so it has no eviction policy.
+    if (!concurrent) {
+      ((SequenceCollection) gralComponents).recordUse(inputs);
+    }
+  }
+
+  /**
+   * Adds a primitive or String value observed during generation to the
+   * general components, unless it is already a general component or a class
+   * or package literal.
+   *
+   * @param value  the boxed primitive or String value
+   * @return true if the value was added, false otherwise
+   */
+  synchronized boolean addPrimitiveValue(Object value) {
+    if (literalValues.contains(value) || !primitiveValues.add(value)) {
+      return false;
+    }
+    componentsVersion++;
+    return true;
   }
 
   /**
    * Removes any components sequences added so far, except for seed sequences,
    * which are preserved.
    */
-  void clearGeneratedSequences() {
-    gralComponents = new SequenceCollection(this.gralSeeds);
+  synchronized void clearGeneratedSequences() {
+    createGeneralComponents();
+    componentsVersion++;
   }
 
-  /*
-   * @return the set of generated sequences
+  /**
+   * Returns the general component sequences, including the seed sequences.
+   * Class and package literals are not included.
+   *
+   * @return the set of general component sequences
    */
-  Set<Sequence> getAllGeneratedSequences() {
-    return gralComponents.getAllSequences();
+  public synchronized Set<Sequence> getAllGeneratedSequences() {
+    Set<Sequence> result = new LinkedHashSet<>(primitiveValues.getAllSequences());
+    result.addAll(gralComponents.getAllSequences());
+    return result;
   }
 
   /**
@@ -167,72 +409,139 @@ public class ComponentManager {
    * @param cls  the query type
    *@return the sequences that create values of the given type
    */
-  SimpleList<Sequence> getSequencesForType(Type cls) {
-    return gralComponents.getSequencesForType(cls, false);
+  synchronized SimpleList<Sequence> getSequencesForType(Type cls) {
+    SimpleList<Sequence> general = gralComponents.getSequencesForType(cls, false);
+    SimpleList<Sequence> values = primitiveValues.getSequences(cls);
+    if (values == null) {
+      return general;
+    }
+    CandidateList list = typeCandidateLists.get(cls);
+    if (list == null) {
+      list = new CandidateList(Collections.<SimpleList<Sequence>>emptyList());
+      typeCandidateLists.put(cls, list);
+    }
+    return list.merge(general, values, componentsVersion);
   }
 
   /**
    * Returns component sequences that create values of the type required by the
    * i-th input value of the given statement. Any applicable class- or
    * package-level literals, those are added to the collection as well.
+   * <p>
+   * The literals for each input are looked up once, and the list that merges
+   * them with the general components and primitive values is kept, so that
+   * later calls do not allocate.
    *
    * @param operation  the statement
    * @param i  the input value index of statement
    * @return the sequences that create values of the given type
    */
-  @SuppressWarnings("unchecked")
-  SimpleList<Sequence> getSequencesForType(TypedOperation operation, int i) {
+  synchronized SimpleList<Sequence> getSequencesForType(TypedOperation operation, int i) {
 
     Type neededType = operation.getInputTypes().get(i);
 
-    SimpleList<Sequence> ret = gralComponents.getSequencesForType(neededType, false);
-    if (operation instanceof TypedClassOperation) {
-      if (classLiterals != null || packageLiterals != null) {
-
-        ClassOrInterfaceType declaringCls = ((TypedClassOperation) operation).getDeclaringType();
-        if (declaringCls != null) {
-          if (classLiterals != null) {
-            SimpleList<Sequence> sl = classLiterals.getSequences(declaringCls, neededType);
-            if (!sl.isEmpty()) {
-              ret = new ListOfLists<>(ret, sl);
-            }
-          }
-
-          if (packageLiterals != null) {
-            Package pkg = declaringCls.getPackage();
-            if (pkg != null) {
-              SimpleList<Sequence> sl = packageLiterals.getSequences(pkg, neededType);
-              if (!sl.isEmpty()) {
-                ret = new ListOfLists<>(ret, sl);
-              }
-            }
-          }
-        }
+    SimpleList<Sequence> general = gralComponents.getSequencesForType(neededType, false);
+    SimpleList<Sequence> values = primitiveValues.getSequences(neededType);
+    boolean hasLiterals = operation instanceof TypedClassOperation && literals != null;
+    if (values == null && !hasLiterals) {
+      return general;
+    }
+
+    CandidateList[] lists = candidateLists.get(operation);
+    if (lists == null) {
+      lists = new CandidateList[operation.getInputTypes().size()];
+      candidateLists.put(operation, lists);
+    }
+    if (lists[i] == null) {
+      List<SimpleList<Sequence>> applicable;
+      if (hasLiterals) {
+        applicable = getLiterals((TypedClassOperation) operation, neededType);
+      } else {
+        applicable = Collections.emptyList();
       }
+      lists[i] = new CandidateList(applicable);
     }
-    return ret;
+    return lists[i].merge(general, values, componentsVersion);
   }
 
   /**
-   * Returns all sequences that represent primitive values (e.g. sequences like
-   * "Foo var0 = null" or "int var0 = 1"), including general components, class
-   * literals and package literals.
+   * Returns the class- and package-level literals that can be used as inputs of
+   * the given type to the given operation.
    *
-   * @return the sequences for primitive values
+   * @param operation  the operation
+   * @param neededType  the input type
+   * @return the non-empty lists of applicable literals
    */
-  Set<Sequence> getAllPrimitiveSequences() {
-
-    Set<Sequence> ret = new LinkedHashSet<>();
-    if (classLiterals != null) {
-      ret.addAll(classLiterals.getAllSequences());
+  private List<SimpleList<Sequence>> getLiterals(TypedClassOperation operation, Type neededType) {
+    ClassOrInterfaceType declaringCls = operation.getDeclaringType();
+    if (declaringCls != null) {
+      SimpleList<Sequence> sl = literals.getLiterals(declaringCls, neededType);
+      if (!sl.isEmpty()) {
+        return Collections.singletonList(sl);
+      }
     }
-    if (packageLiterals != null) {
-      ret.addAll(packageLiterals.getAllSequences());
+    return Collections.emptyList();
+  }
+
+  /**
+   * The candidates for one input of an operation: the general components,
+   * followed by the primitive values and the class- and package-level literals
+   * for the input.
+   */
+  private static final class CandidateList {
+
+    // The applicable literals, which do not change.
+    private final List<SimpleList<Sequence>> literals;
+
+    // The general components merged into the list, or null if none yet.
+    private SimpleList<Sequence> general = null;
+
+    // The primitive values merged into the list, or null if none.
+    private SimpleList<Sequence> values = null;
+
+    private GrowingListOfLists<Sequence> merged = null;
+
+    // The version of the general components that the list reflects.
+    private int version;
+
+    CandidateList(List<SimpleList<Sequence>> literals) {
+      this.literals = literals;
     }
-    for (PrimitiveType type : JavaTypes.getPrimitiveTypes()) {
-      ret.addAll(gralComponents.getSequencesForType(type, true).toJDKList());
+
+    /**
+     * Returns the given general components followed by the primitive values
+     * and the literals, reusing the list built by the last call if the general
+     * components and primitive values are the same lists.
+     *
+     * @param general  the general components for the input
+     * @param values  the primitive values for the input, or null if none
+     * @param version  the version of the general components
+     * @return the candidates for the input
+     */
+    SimpleList<Sequence> merge(
+        SimpleList<Sequence> general, SimpleList<Sequence> values, int version) {
+      if (values == null && literals.isEmpty()) {
+        return general;
+      }
+      if (general != this.general || values != this.values) {
+        merged = new GrowingListOfLists<>();
+        merged.addList(general);
+        if (values != null) {
+          merged.addList(values);
+        }
+        for (SimpleList<Sequence> l : literals) {
+          merged.addList(l);
+        }
+        this.general = general;
+        this.values = values;
+      } else if (version != this.version) {
+        merged.update(general);
+        if (values != null) {
+          merged.update(values);
+        }
+      }
+      this.version = version;
+      return merged;
     }
-    ret.addAll(gralComponents.getSequencesForType(JavaTypes.STRING_TYPE, true).toJDKList());
-    return ret;
   }
 }
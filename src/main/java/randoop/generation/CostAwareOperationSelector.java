@@ -0,0 +1,169 @@
+package randoop.generation;
+
+import java.util.Arrays;
+import java.util.List;
+
+import randoop.operation.TypedOperation;
+import randoop.util.IndexedSimpleList;
+import randoop.util.Randomness;
+import randoop.util.WeightedElement;
+import randoop.util.WeightedSelection;
+
+/**
+ * Selects operations at random, with probability inversely proportional to the
+ * expected time of a step for the operation, so that cheap operations are
+ * selected more often than expensive ones.
+ * <p>
+ * The expected time of a step for an operation is the mean time of its
+ * recorded steps, or the mean time of all recorded steps if it has none. An
+ * operation is slow if the tail estimate of the execution time of its calls
+ * exceeds the mean time of all steps. A slow operation whose steps have taken
+ * more than a given share of the wall-clock time since the first selection is
+ * not selected, unless every operation is in that case, until its share drops
+ * below the limit.
+ */
+public final class CostAwareOperationSelector extends AbstractOperationSelector {
+
+  private final double maxSlowShare;
+
+  // The time of the first selection, or -1 before it.
+  private long startNanos = -1;
+
+  private final Candidates candidates = new Candidates();
+
+  /**
+   * Creates a selector over the given operations. The selector removes
+   * operations from the list itself.
+   *
+   * @param operations  the operations to select from
+   * @param maxSlowShare  the share of the wall-clock time that the steps for a
+   *          slow operation may take, between 0 and 1
+   */
+  public CostAwareOperationSelector(List<TypedOperation> operations, double maxSlowShare) {
+    super(operations);
+    if (maxSlowShare <= 0 || maxSlowShare > 1) {
+      throw new IllegalArgumentException("share must be in (0, 1] but was " + maxSlowShare);
+    }
+    this.maxSlowShare = maxSlowShare;
+  }
+
+  @Override
+  public TypedOperation selectOperation() {
+    if (operations.isEmpty()) {
+      return null;
+    }
+    long now = System.nanoTime();
+    if (startNanos < 0) {
+      startNanos = now;
+    }
+    double meanNanos = getMeanStepNanos();
+    double budget = maxSlowShare * (now - startNanos);
+
+    candidates.clear();
+    for (int i = 0; i < operations.size(); i++) {
+      OperationStatistics stats = getStatisticsAt(i);
+      if (stats.getTotalNanos() > budget && stats.getTailExecutionNanos() > meanNanos) {
+        continue;
+      }
+      candidates.add(i, weight(stats, meanNanos));
+    }
+    if (candidates.isEmpty()) {
+      for (int i = 0; i < operations.size(); i++) {
+        candidates.add(i, weight(getStatisticsAt(i), meanNanos));
+      }
+    }
+
+    int position = Randomness.randomMemberWeighted(candidates).position;
+    getStatisticsAt(position).recordSelection();
+    return operations.get(position);
+  }
+
+  // Returns the weight of an operation: the mean time of all steps divided by
+  // the expected time of a step for the operation.
+  private static double weight(OperationStatistics stats, double meanNanos) {
+    if (stats.getOutcomes() == 0 || meanNanos == 0) {
+      return 1;
+    }
+    double expectedNanos = Math.max((double) stats.getTotalNanos() / stats.getOutcomes(), 1);
+    return meanNanos / expectedNanos;
+  }
+
+  /**
+   * The position of an operation and its weight in the current selection. The
+   * objects are reused from one selection to the next.
+   */
+  private static final class WeightedOperation implements WeightedElement {
+
+    int position;
+
+    double weight;
+
+    @Override
+    public double getWeight() {
+      return weight;
+    }
+  }
+
+  /**
+   * The operations of the current selection, with the cumulative sums of their
+   * weights, from which an operation is selected by binary search.
+   */
+  private static final class Candidates extends IndexedSimpleList<WeightedOperation>
+      implements WeightedSelection<WeightedOperation> {
+
+    private WeightedOperation[] elements = new WeightedOperation[16];
+
+    // The sum of the weights of the elements up to and including each index.
+    private double[] cumulative = new double[16];
+
+    private int size = 0;
+
+    void clear() {
+      size = 0;
+    }
+
+    void add(int position, double weight) {
+      if (size == elements.length) {
+        elements = Arrays.copyOf(elements, 2 * size);
+        cumulative = Arrays.copyOf(cumulative, 2 * size);
+      }
+      if (elements[size] == null) {
+        elements[size] = new WeightedOperation();
+      }
+      elements[size].position = position;
+      elements[size].weight = weight;
+      cumulative[size] = (size == 0) ? weight : cumulative[size - 1] + weight;
+      size++;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public WeightedOperation get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IllegalArgumentException("index must be between 0 and size()-1");
+      }
+      return elements[index];
+    }
+
+    @Override
+    public double getTotalWeight() {
+      return cumulative[size - 1];
+    }
+
+    @Override
+    public WeightedOperation getByWeight(double point) {
+      int index = Arrays.binarySearch(cumulative, 0, size, point);
+      if (index < 0) {
+        index = -index - 1;
+      } else {
+        // The interval of an element excludes its upper end.
+        index++;
+      }
+      return elements[Math.min(index, size - 1)];
+    }
+  }
+}
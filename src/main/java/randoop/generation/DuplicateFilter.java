@@ -0,0 +1,47 @@
+package randoop.generation;
+
+import java.util.Set;
+
+import randoop.sequence.Sequence;
+
+/**
+ * Remembers the sequences generated so far, so that the generator can discard
+ * a sequence that it has already generated.
+ *
+ * @see randoop.main.GenInputsAbstract.DuplicateFilterMode
+ */
+public interface DuplicateFilter {
+
+  /**
+   * Records the given sequence.
+   *
+   * @param sequence  the sequence to record
+   * @return true if the sequence had not been recorded before, false if it is
+   *         (or, for inexact filters, probably is) a duplicate
+   */
+  boolean add(Sequence sequence);
+
+  /**
+   * Indicates whether the given sequence has been recorded.
+   *
+   * @param sequence  the sequence to look for
+   * @return true if the sequence is (or, for inexact filters, probably is)
+   *         recorded, false otherwise
+   */
+  boolean contains(Sequence sequence);
+
+  /**
+   * Returns the number of sequences recorded by {@link #add(Sequence)}.
+   *
+   * @return the number of distinct sequences recorded
+   */
+  int size();
+
+  /**
+   * Returns the recorded sequences, in the order they were recorded. Filters
+   * that do not retain sequences return the empty set.
+   *
+   * @return the recorded sequences, or the empty set if they are not retained
+   */
+  Set<Sequence> getSequences();
+}
@@ -0,0 +1,36 @@
+package randoop.generation;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import randoop.sequence.Sequence;
+
+/**
+ * A {@link DuplicateFilter} that keeps every recorded sequence, and detects
+ * duplicates using {@link Sequence#equals(Object)}.
+ */
+public class ExactDuplicateFilter implements DuplicateFilter {
+
+  private final Set<Sequence> sequences = new LinkedHashSet<>();
+
+  @Override
+  public boolean add(Sequence sequence) {
+    return sequences.add(sequence);
+  }
+
+  @Override
+  public boolean contains(Sequence sequence) {
+    return sequences.contains(sequence);
+  }
+
+  @Override
+  public int size() {
+    return sequences.size();
+  }
+
+  @Override
+  public Set<Sequence> getSequences() {
+    return Collections.unmodifiableSet(sequences);
+  }
+}
@@ -0,0 +1,117 @@
+package randoop.generation;
+
+import java.util.Collections;
+import java.util.Set;
+
+import randoop.sequence.Sequence;
+
+/**
+ * A {@link DuplicateFilter} that keeps only the 128-bit fingerprint of each
+ * recorded sequence, formed by {@link Sequence#longHashCode()} and
+ * {@link Sequence#fingerprint()}. Two different sequences are treated as
+ * duplicates only if their fingerprints collide, which is very unlikely.
+ * <p>
+ * The fingerprints are stored in an open-addressing hash table of longs
+ * with linear probing, so each recorded sequence costs 16 to 32 bytes
+ * and no objects are allocated per sequence.
+ */
+public class FingerprintDuplicateFilter implements DuplicateFilter {
+
+  private static final int INITIAL_CAPACITY = 1 << 10;
+
+  // The table holds the two halves of each fingerprint in adjacent slots.
+  // A pair of zeroes marks an empty entry; the all-zero fingerprint is
+  // recorded separately in containsZero.
+  private long[] table = new long[2 * INITIAL_CAPACITY];
+
+  // The number of entries in the table, minus one.
+  private int mask = INITIAL_CAPACITY - 1;
+
+  private boolean containsZero = false;
+
+  private int size = 0;
+
+  @Override
+  public boolean add(Sequence sequence) {
+    long high = sequence.longHashCode();
+    long low = sequence.fingerprint();
+    if (high == 0 && low == 0) {
+      if (containsZero) {
+        return false;
+      }
+      containsZero = true;
+      size++;
+      return true;
+    }
+    int entry = find(high, low);
+    if (table[2 * entry] != 0 || table[2 * entry + 1] != 0) {
+      return false;
+    }
+    table[2 * entry] = high;
+    table[2 * entry + 1] = low;
+    size++;
+    if (2 * size > mask) {
+      grow();
+    }
+    return true;
+  }
+
+  @Override
+  public boolean contains(Sequence sequence) {
+    long high = sequence.longHashCode();
+    long low = sequence.fingerprint();
+    if (high == 0 && low == 0) {
+      return containsZero;
+    }
+    int entry = find(high, low);
+    return table[2 * entry] != 0 || table[2 * entry + 1] != 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the empty set, since this filter does not retain sequences.
+   */
+  @Override
+  public Set<Sequence> getSequences() {
+    return Collections.emptySet();
+  }
+
+  // Returns the entry that holds the given fingerprint, or the empty entry
+  // where it would be inserted.
+  private int find(long high, long low) {
+    int entry = mix(high ^ low) & mask;
+    while (table[2 * entry] != 0 || table[2 * entry + 1] != 0) {
+      if (table[2 * entry] == high && table[2 * entry + 1] == low) {
+        return entry;
+      }
+      entry = (entry + 1) & mask;
+    }
+    return entry;
+  }
+
+  // Doubles the number of entries and reinserts the recorded fingerprints.
+  private void grow() {
+    long[] oldTable = table;
+    table = new long[2 * oldTable.length];
+    mask = 2 * mask + 1;
+    for (int i = 0; i < oldTable.length; i += 2) {
+      if (oldTable[i] != 0 || oldTable[i + 1] != 0) {
+        int entry = find(oldTable[i], oldTable[i + 1]);
+        table[2 * entry] = oldTable[i];
+        table[2 * entry + 1] = oldTable[i + 1];
+      }
+    }
+  }
+
+  // Spreads the bits of a hash, so that nearby hashes do not cluster.
+  private static int mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    return (int) hash;
+  }
+}
@@ -1,17 +1,32 @@
 package randoop.generation;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Queue;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import randoop.BugInRandoopException;
-import randoop.DummyVisitor;
+import randoop.ExecutionOutcome;
 import randoop.Globals;
 import randoop.NormalExecution;
+import randoop.NotExecuted;
+import randoop.RandoopStat;
 import randoop.SubTypeSet;
 import randoop.main.GenInputsAbstract;
+import randoop.main.GenInputsAbstract.DuplicateFilterMode;
+import randoop.main.GenInputsAbstract.OperationSelectionMode;
 import randoop.operation.NonreceiverTerm;
 import randoop.operation.Operation;
 import randoop.operation.TypedOperation;
@@ -19,8 +34,6 @@ import randoop.sequence.ExecutableSequence;
 import randoop.sequence.Sequence;
 import randoop.sequence.Statement;
 import randoop.sequence.Value;
-import randoop.sequence.Variable;
-import randoop.test.DummyCheckGenerator;
 import randoop.types.JavaTypes;
 import randoop.types.InstantiatedType;
 import randoop.types.JDKTypes;
@@ -35,18 +48,67 @@ import randoop.util.SimpleList;
 
 /**
  * Randoop's forward, component-based generator.
+ * <p>
+ * With <code>--threads</code> greater than 1, the generator works in rounds.
+ * In each round, every worker thread takes a fixed number of steps, each of
+ * which constructs and executes a new sequence, with its own operation
+ * selector and random generator and with the components as of the start of
+ * the round. The generator then adds the new sequences to the components, and
+ * returns them from its steps, in worker order. So the sequences depend only on
+ * the random seed and the number of threads.
  */
 public class ForwardGenerator extends AbstractGenerator {
 
   /**
-   * The set of ALL sequences ever generated, including sequences that were
+   * Records ALL sequences ever generated, including sequences that were
    * executed and then discarded.
    */
-  private final Set<Sequence> allSequences;
+  private final DuplicateFilter allSequences;
+
+  /**
+   * The number of times a sequence of the right type, but too large to fit
+   * within {@link GenInputsAbstract#maxsize}, is drawn as an input before the
+   * input selection gives up.
+   */
+  private static final int MAX_SIZE_REDRAWS = 10;
+
+  @RandoopStat("Number of sequences constructed and then discarded as too large or duplicates")
+  public int num_discarded_sequences = 0;
+
+  @RandoopStat("Number of sequences not constructed because they would exceed the size limit")
+  public int num_oversize_selections = 0;
+
+  @RandoopStat("Number of sequences loaded from a pool snapshot")
+  public int num_loaded_sequences = 0;
+
   private final Set<TypedOperation> observers;
 
   /** Sequences that are used in other sequences (and are thus redundant) **/
-  private Set<Sequence> subsumed_sequences = new LinkedHashSet<>();
+  private final DuplicateFilter subsumed_sequences;
+
+  /**
+   * The number of steps that each worker takes in a round, with
+   * <code>--threads</code> greater than 1.
+   */
+  private static final int STEPS_PER_ROUND = 8;
+
+  /**
+   * The workers that construct sequences: one per thread with
+   * <code>--threads</code>, and otherwise one that the steps of this
+   * generator use directly.
+   */
+  private final List<Worker> workers;
+
+  // With --threads greater than 1, the threads of the workers; created by the
+  // first round.
+  private ExecutorService workerThreads = null;
+
+  // With --threads greater than 1, the sequences of the last round that were
+  // added to the components but not yet returned by a step.
+  private final Queue<ExecutableSequence> finished = new ArrayDeque<>();
+
+  /** The classes of the values created by the last statements of sequences */
+  private final Set<Class<?>> runtimeClasses = new HashSet<>();
 
   // For testing purposes only. If Globals.randooptestrun==false then the array
   // is never populated or queried. This set contains the same set of
@@ -57,10 +119,9 @@ public class ForwardGenerator extends AbstractGenerator {
   // For testing purposes only.
   private final List<Sequence> allsequencesAsList = new ArrayList<>();
 
-  // The set of all primitive values seen during generation and execution
-  // of sequences. This set is used to tell if a new primitive value has
-  // been generated, to add the value to the components.
-  private Set<Object> runtimePrimitivesSeen = new LinkedHashSet<>();
+  // With --pipeline-depth greater than 0, the stages that execute and check
+  // the constructed sequences; created by the first step.
+  private SequencePipeline pipeline = null;
 
   public ForwardGenerator(
       List<TypedOperation> operations,
@@ -101,38 +162,165 @@ public class ForwardGenerator extends AbstractGenerator {
         listenerManager);
 
     this.observers = observers;
-    this.allSequences = new LinkedHashSet<>();
+    this.subsumed_sequences = createDuplicateFilter(GenInputsAbstract.subsumed_filter);
+    this.workers = new ArrayList<>(GenInputsAbstract.threads);
+    if (GenInputsAbstract.threads == 1) {
+      this.allSequences = createDuplicateFilter(GenInputsAbstract.duplicate_filter);
+      workers.add(new Worker(operations, null));
+    } else {
+      if (!componentManager.isConcurrent()) {
+        throw new IllegalArgumentException("--threads requires a concurrent component manager");
+      }
+      this.allSequences =
+          new SynchronizedDuplicateFilter(
+              createDuplicateFilter(GenInputsAbstract.duplicate_filter));
+      for (int i = 0; i < GenInputsAbstract.threads; i++) {
+        // Each worker removes operations from its own list.
+        workers.add(
+            new Worker(
+                new ArrayList<>(operations),
+                new Random(Randomness.splitSeed(GenInputsAbstract.randomseed, i))));
+      }
+    }
+  }
 
-    initializeRuntimePrimitivesSeen();
+  /**
+   * Creates a filter that records sequences, as selected by
+   * {@link GenInputsAbstract#duplicate_filter} or
+   * {@link GenInputsAbstract#subsumed_filter}.
+   *
+   * @param mode  the kind of filter
+   * @return the filter that records sequences
+   */
+  private static DuplicateFilter createDuplicateFilter(DuplicateFilterMode mode) {
+    switch (mode) {
+      case FINGERPRINT:
+        return new FingerprintDuplicateFilter();
+      case BLOOM:
+        return new BloomDuplicateFilter(GenInputsAbstract.bloom_false_positive_rate);
+      default:
+        return new ExactDuplicateFilter();
+    }
   }
 
   /**
-   * The runtimePrimitivesSeen set contains primitive values seen during
-   * generation/execution and is used to determine new values that should be
-   * added to the component set. The component set initially contains a set of
-   * primitive sequences; this method puts those primitives in this set.
+   * Creates the selector of the operations of new sequences, as selected by
+   * {@link GenInputsAbstract#operation_selection}.
+   *
+   * @param mode  the kind of selector
+   * @param operations  the operations to select from, which the selector
+   *          removes operations from
+   * @return the selector over the given operations
    */
-  // XXX this is goofy - these values are available in other ways
-  private void initializeRuntimePrimitivesSeen() {
-    for (Sequence s : componentManager.getAllPrimitiveSequences()) {
-      ExecutableSequence es = new ExecutableSequence(s);
-      es.execute(new DummyVisitor(), new DummyCheckGenerator());
-      NormalExecution e = (NormalExecution) es.getResult(0);
-      Object runtimeValue = e.getRuntimeValue();
-      runtimePrimitivesSeen.add(runtimeValue);
+  private static OperationSelector createOperationSelector(
+      OperationSelectionMode mode, List<TypedOperation> operations) {
+    switch (mode) {
+      case UCB:
+        return new UcbOperationSelector(operations);
+      case COST:
+        return new CostAwareOperationSelector(
+            operations, GenInputsAbstract.slow_operation_share);
+      default:
+        return new UniformOperationSelector(operations);
+    }
+  }
+
+  /**
+   * Adds the given sequences, such as those of a pool snapshot, to the
+   * components as sequences generated earlier. The duplicate filter records
+   * them, so they are not generated again, and they can be evicted or cleared
+   * like the sequences this generator creates. They do not count towards the
+   * limit on the number of generated sequences.
+   *
+   * @param sequences  the sequences to add
+   */
+  public void addLoadedSequences(Collection<Sequence> sequences) {
+    for (Sequence sequence : sequences) {
+      if (allSequences.add(sequence)) {
+        randoopConsistencyTest2(sequence);
+        componentManager.addGeneratedSequence(sequence);
+        num_loaded_sequences++;
+      }
+    }
+  }
+
+  /**
+   * Returns the selector of the operations of new sequences. With
+   * <code>--threads</code> greater than 1, each thread has its own selector,
+   * and this is the selector of the first thread.
+   *
+   * @return the operation selector of this generator
+   */
+  public OperationSelector getOperationSelector() {
+    return workers.get(0).operationSelector;
+  }
+
+  /**
+   * Returns the operations for which no inputs were ever found, with
+   * <code>--operation-backoff</code>. With <code>--threads</code> greater than
+   * 1, these are the operations for which some thread never found inputs.
+   *
+   * @return the operations whose every input selection failed, in the order of
+   *         their first failure, or the empty list without
+   *         <code>--operation-backoff</code>
+   */
+  public List<TypedOperation> getUnsatisfiableOperations() {
+    if (!GenInputsAbstract.operation_backoff) {
+      return Collections.emptyList();
+    }
+    Set<TypedOperation> unsatisfiable = new LinkedHashSet<>();
+    for (Worker worker : workers) {
+      unsatisfiable.addAll(worker.backoff.getUnsatisfiableOperations());
+    }
+    return new ArrayList<>(unsatisfiable);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Stops the threads that execute sequences, if <code>--pipeline-depth</code>
+   * is positive, and the threads that generate them, if
+   * <code>--threads</code> is greater than 1.
+   */
+  @Override
+  public void explore() {
+    try {
+      super.explore();
+    } finally {
+      if (pipeline != null) {
+        pipeline.shutdown();
+        pipeline = null;
+      }
+      if (workerThreads != null) {
+        workerThreads.shutdownNow();
+        workerThreads = null;
+      }
     }
   }
 
   @Override
   public ExecutableSequence step() {
 
+    if (workers.size() > 1) {
+      if (finished.isEmpty()) {
+        runRound();
+      }
+      return finished.poll();
+    }
+
+    if (GenInputsAbstract.pipeline_depth > 0 && !GenInputsAbstract.dontexecute) {
+      return pipelineStep();
+    }
+
     long startTime = System.nanoTime();
 
     if (componentManager.numGeneratedSequences() % GenInputsAbstract.clear == 0) {
       componentManager.clearGeneratedSequences();
     }
 
-    ExecutableSequence eSeq = createNewUniqueSequence();
+    Worker worker = workers.get(0);
+    ExecutableSequence eSeq = createNewUniqueSequence(worker);
+    collectCounts(worker);
 
     if (eSeq == null) {
       return null;
@@ -166,12 +354,252 @@ public class ForwardGenerator extends AbstractGenerator {
     gentime += endTime - startTime;
     eSeq.gentime = gentime;
 
+    recordOutcome(worker, eSeq);
+
     return eSeq;
   }
 
+  /**
+   * Runs a round of generation with <code>--threads</code> greater than 1: each
+   * worker takes its steps on its own thread, and the sequences they created
+   * are then processed, added to the components and queued, in worker order.
+   * If the current thread is interrupted while it waits for the workers, the
+   * round is abandoned, and the interrupt status of the thread is set again,
+   * so that the generator stops.
+   */
+  private void runRound() {
+    if (workerThreads == null) {
+      workerThreads =
+          Executors.newFixedThreadPool(
+              workers.size(),
+              new ThreadFactory() {
+                private int count = 0;
+
+                @Override
+                public Thread newThread(Runnable r) {
+                  Thread thread = new Thread(r, "randoop-generation-" + count++);
+                  thread.setDaemon(true);
+                  return thread;
+                }
+              });
+    }
+
+    if (componentManager.numGeneratedSequences() % GenInputsAbstract.clear == 0) {
+      componentManager.clearGeneratedSequences();
+    }
+
+    for (Worker worker : workers) {
+      worker.created.clear();
+      worker.createdInputs.clear();
+      worker.createdSequences.clear();
+    }
+    try {
+      for (Future<Void> result : workerThreads.invokeAll(workers)) {
+        result.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    } catch (ExecutionException e) {
+      throw new BugInRandoopException(e.getCause());
+    }
+
+    for (Worker worker : workers) {
+      collectCounts(worker);
+      for (int i = 0; i < worker.created.size(); i++) {
+        finishCreated(worker, worker.created.get(i), worker.createdInputs.get(i));
+      }
+    }
+  }
+
+  /**
+   * Adds a sequence that a worker created and executed in the last round to
+   * the sequences of this generator, unless another worker created the same
+   * sequence earlier in worker order, and processes it, adds it to the
+   * components and queues it.
+   *
+   * @param worker  the worker that created the sequence
+   * @param eSeq  the executed sequence
+   * @param inputs  the input sequences of the sequence
+   */
+  private void finishCreated(Worker worker, ExecutableSequence eSeq, List<Sequence> inputs) {
+    long startTime = System.nanoTime();
+    Sequence sequence = eSeq.sequence;
+    if (!addNewSequence(sequence, inputs)) {
+      num_discarded_sequences++;
+      worker.operationSelector.recordOutcome(
+          sequence.getStatement(sequence.size() - 1).getOperation(),
+          0,
+          1,
+          eSeq.gentime + eSeq.exectime);
+      return;
+    }
+    if (GenInputsAbstract.dontexecute) {
+      componentManager.addGeneratedSequence(sequence);
+      return;
+    }
+    setCurrentSequence(sequence);
+    processSequence(eSeq);
+    if (sequence.hasActiveFlags()) {
+      componentManager.addGeneratedSequence(sequence);
+    }
+    eSeq.gentime += System.nanoTime() - startTime;
+    recordOutcome(worker, eSeq);
+    finished.add(eSeq);
+  }
+
+  /**
+   * Adds the counts of discarded sequences and oversize selections of the
+   * given worker to the statistics of this generator.
+   *
+   * @param worker  the worker
+   */
+  private void collectCounts(Worker worker) {
+    num_discarded_sequences += worker.discarded;
+    num_oversize_selections += worker.oversize;
+    worker.discarded = 0;
+    worker.oversize = 0;
+  }
+
+  /**
+   * Constructs a new sequence and submits it to the pipeline. If the pipeline
+   * is full, first takes the earliest sequence from it, which has been
+   * executed and checked meanwhile, and adds it to the components. The
+   * construction of a sequence thus overlaps with the execution and checking
+   * of the sequences submitted before it, which it cannot use as inputs.
+   *
+   * @return the sequence taken from the pipeline, or null if none was taken
+   */
+  private ExecutableSequence pipelineStep() {
+    if (pipeline == null) {
+      pipeline =
+          new SequencePipeline(
+              GenInputsAbstract.pipeline_depth,
+              GenInputsAbstract.randomseed,
+              executionVisitor,
+              checkGenerator);
+    }
+
+    long startTime = System.nanoTime();
+
+    if (componentManager.numGeneratedSequences() % GenInputsAbstract.clear == 0) {
+      componentManager.clearGeneratedSequences();
+    }
+
+    Worker worker = workers.get(0);
+    ExecutableSequence eSeq = createNewUniqueSequence(worker);
+    collectCounts(worker);
+    if (eSeq != null) {
+      setCurrentSequence(eSeq.sequence);
+    }
+    long gentime = System.nanoTime() - startTime;
+
+    ExecutableSequence done = null;
+    if (pipeline.isFull()) {
+      done = pipeline.take();
+      if (done == null) {
+        // The thread was interrupted, and generation stops.
+        return null;
+      }
+    }
+    if (eSeq != null) {
+      eSeq.gentime = gentime;
+      pipeline.submit(eSeq);
+    }
+    if (done == null) {
+      return null;
+    }
+    finishPipelined(done);
+    return done;
+  }
+
+  /**
+   * Processes a sequence taken from the pipeline, and adds it to the
+   * components.
+   *
+   * @param done  the executed and checked sequence
+   */
+  private void finishPipelined(ExecutableSequence done) {
+    long startTime = System.nanoTime();
+    processSequence(done);
+    if (done.sequence.hasActiveFlags()) {
+      componentManager.addGeneratedSequence(done.sequence);
+    }
+    done.gentime += System.nanoTime() - startTime;
+    recordOutcome(workers.get(0), done);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Takes the sequences still in the pipeline, if
+   * <code>--pipeline-depth</code> is positive, waiting until they have been
+   * executed and checked, and processes them. With <code>--threads</code>
+   * greater than 1, returns the sequences of the last round that no step
+   * returned, which are already in the components.
+   */
+  @Override
+  protected List<ExecutableSequence> drain() {
+    List<ExecutableSequence> drained = new ArrayList<>(finished);
+    finished.clear();
+    if (pipeline == null) {
+      return drained;
+    }
+    for (ExecutableSequence done = pipeline.take(); done != null; done = pipeline.take()) {
+      finishPipelined(done);
+      drained.add(done);
+    }
+    return drained;
+  }
+
+  /**
+   * Records with the operation selector the outcome of the step that created
+   * the given sequence, and the execution time of its last statement. Half of
+   * the reward is for a sequence that can be extended, and half for a value of
+   * a class that no earlier sequence created. The cost of the step is the
+   * number of statements of the sequence that were executed.
+   *
+   * @param worker  the worker that created the sequence
+   * @param eSeq  the executed and processed sequence
+   */
+  private void recordOutcome(Worker worker, ExecutableSequence eSeq) {
+    OperationSelector operationSelector = worker.operationSelector;
+    Sequence sequence = eSeq.sequence;
+    int last = sequence.size() - 1;
+    TypedOperation operation = sequence.getStatement(last).getOperation();
+    ExecutionOutcome result = eSeq.getResult(last);
+    if (!(result instanceof NotExecuted)) {
+      operationSelector.recordExecution(operation, result.getExecutionTime());
+    }
+    double reward = 0;
+    if (sequence.hasActiveFlags()) {
+      reward += 0.5;
+    }
+    if (eSeq.isNormalExecution()) {
+      Object value = ((NormalExecution) result).getRuntimeValue();
+      if (value != null && runtimeClasses.add(value.getClass())) {
+        reward += 0.5;
+      }
+    }
+    int executed = 0;
+    for (int i = 0; i < sequence.size(); i++) {
+      if (!(eSeq.getResult(i) instanceof NotExecuted)) {
+        executed++;
+      }
+    }
+    operationSelector.recordOutcome(
+        operation, reward, Math.max(executed, 1), eSeq.gentime + eSeq.exectime);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Sequences are retained only with {@code --duplicate-filter=EXACT};
+   * otherwise the set is empty.
+   */
   @Override
   public Set<Sequence> getAllSequences() {
-    return Collections.unmodifiableSet(this.allSequences);
+    return this.allSequences.getSequences();
   }
 
   /**
@@ -257,8 +685,7 @@ public class ForwardGenerator extends AbstractGenerator {
       Sequence stmts = seq.sequence;
       Statement stmt = stmts.statements.get(i);
       if (stmt.isMethodCall() && observers.contains(stmt.getOperation())) {
-        List<Integer> inputVars = stmts.getInputsAsAbsoluteIndices(i);
-        int receiver = inputVars.get(0);
+        int receiver = stmts.getInputIndex(i, 0);
         seq.sequence.clearActiveFlag(receiver);
       }
 
@@ -276,15 +703,9 @@ public class ForwardGenerator extends AbstractGenerator {
                 && Value.looksLikeObjectToString((String) runtimeValue);
         boolean tooLongString =
             (runtimeValue instanceof String) && !Value.stringLengthOK((String) runtimeValue);
-        if (runtimeValue instanceof Double && Double.isNaN((double) runtimeValue)) {
-          runtimeValue = Double.NaN; // canonicalize NaN value
-        }
-        if (runtimeValue instanceof Float && Float.isNaN((float) runtimeValue)) {
-          runtimeValue = Float.NaN; // canonicalize NaN value
-        }
-        if (!looksLikeObjToString && !tooLongString && runtimePrimitivesSeen.add(runtimeValue)) {
-          // Have not seen this value before; add it to the component set.
-          componentManager.addGeneratedSequence(Sequence.createSequenceForPrimitive(runtimeValue));
+        if (!looksLikeObjToString && !tooLongString) {
+          // Adds the value to the component set, if it has not been seen before.
+          componentManager.addPrimitiveValue(runtimeValue);
         }
       } else {
         if (Log.isLoggingOn()) {
@@ -295,60 +716,116 @@ public class ForwardGenerator extends AbstractGenerator {
   }
 
   /**
-   * Tries to create and execute a new sequence. If the sequence is new (not
-   * already in the specified component manager), then it is executed and added
-   * to the manager's sequences. If the sequence created is already in the
+   * Tries to create a new sequence. If the sequence is new (not already in the
+   * specified component manager), then it is returned, to be executed and
+   * added to the manager's sequences. If the sequence created is already in the
    * manager's sequences, this method has no effect, and returns null.
+   * <p>
+   * The worker of a thread does not add the new sequence to the sequences of
+   * this generator, but records it with its inputs, and the sequence is added
+   * at the end of the round.
    *
+   * @param worker  the worker that creates the sequence
    * @return a new sequence, or null
    */
-  private ExecutableSequence createNewUniqueSequence() {
+  private ExecutableSequence createNewUniqueSequence(Worker worker) {
 
     if (Log.isLoggingOn()) {
       Log.logLine("-------------------------------------------");
     }
 
-    if (this.operations.isEmpty()) {
-      return null;
+    long startTime = System.nanoTime();
+
+    OperationSelector operationSelector = worker.operationSelector;
+    OperationBackoff backoff = worker.backoff;
+    if (backoff != null) {
+      backoff.step();
     }
 
     // Select a StatementInfo
-    TypedOperation operation = Randomness.randomMember(this.operations);
+    TypedOperation operation = operationSelector.selectOperation();
+    if (operation == null && backoff != null && backoff.releaseEarliest()) {
+      operation = operationSelector.selectOperation();
+    }
+    if (operation == null) {
+      return null;
+    }
     if (Log.isLoggingOn()) {
       Log.logLine("Selected operation: " + operation.toString());
     }
 
+    ExecutableSequence eSeq = createNewUniqueSequence(worker, operation);
+    if (eSeq == null) {
+      operationSelector.recordOutcome(operation, 0, 1, System.nanoTime() - startTime);
+    }
+    return eSeq;
+  }
+
+  /**
+   * Tries to create a new sequence that ends with a call to the given
+   * operation.
+   *
+   * @param worker  the worker that creates the sequence
+   * @param operation  the operation of the new sequence
+   * @return a new sequence, or null if none was created
+   */
+  private ExecutableSequence createNewUniqueSequence(Worker worker, TypedOperation operation) {
+
     // jhp: add flags here
-    InputsAndSuccessFlag sequences = selectInputs(operation);
+    InputsAndSuccessFlag sequences = selectInputs(worker, operation);
 
+    OperationBackoff backoff = worker.backoff;
     if (!sequences.success) {
       if (Log.isLoggingOn()) Log.logLine("Failed to find inputs for statement.");
+      if (backoff != null) {
+        backoff.recordFailure(operation, sequences.missingType);
+      }
       return null;
     }
+    if (backoff != null) {
+      backoff.recordSuccess(operation);
+    }
 
     Sequence concatSeq = Sequence.concatenate(sequences.sequences);
 
     // Figure out input variables.
-    List<Variable> inputs = new ArrayList<>();
-    for (Integer oneinput : sequences.indices) {
-      Variable v = concatSeq.getVariable(oneinput);
-      inputs.add(v);
+    int[] inputs = new int[sequences.indices.size()];
+    for (int i = 0; i < inputs.length; i++) {
+      inputs[i] = sequences.indices.get(i);
     }
 
     Sequence newSequence = concatSeq.extend(operation, inputs);
 
     // With .5 probability, do a primitive value heuristic.
+    int times = 0;
     if (GenInputsAbstract.repeat_heuristic && Randomness.nextRandomInt(10) == 0) {
-      int times = Randomness.nextRandomInt(100);
-      newSequence = repeat(newSequence, operation, times);
-      if (Log.isLoggingOn()) Log.log(">>>" + times + newSequence.toCodeString());
+      times = Randomness.nextRandomInt(100);
     }
 
     // If parameterless statement, subsequence inputs
     // will all be redundant, so just remove it from list of statements.
     // XXX does this make sense? especially in presence of side-effects
     if (operation.getInputTypes().isEmpty()) {
-      operations.remove(operation);
+      worker.operationSelector.removeOperation(operation);
+    }
+
+    // Discard the repetitions before building them if they would make the
+    // sequence larger than the size limit.
+    if (times > 0) {
+      long repeatedSize = newSequence.size() + (long) times * repeatedStatementCount(newSequence);
+      if (repeatedSize > GenInputsAbstract.maxsize) {
+        if (Log.isLoggingOn()) {
+          Log.logLine(
+              "Repetition discarded because size "
+                  + repeatedSize
+                  + " exceeds maximum allowed size "
+                  + GenInputsAbstract.maxsize);
+        }
+        worker.oversize++;
+        return null;
+      }
+      newSequence = repeat(newSequence, operation, times);
+      if (Log.isLoggingOn()) Log.log(">>>" + times + newSequence.toCodeString());
     }
 
     // Discard if sequence is larger than size limit
@@ -360,24 +837,54 @@ public class ForwardGenerator extends AbstractGenerator {
                 + " exceeds maximum allowed size "
                 + GenInputsAbstract.maxsize);
       }
+      worker.discarded++;
       return null;
     }
 
-    randoopConsistencyTests(newSequence);
+    if (worker.random == null) {
+      if (!addNewSequence(newSequence, sequences.sequences)) {
+        worker.discarded++;
+        return null;
+      }
+      return new ExecutableSequence(newSequence);
+    }
 
-    if (this.allSequences.contains(newSequence)) {
+    // A worker of a thread discards the sequences created earlier, by any
+    // worker, or in this round, by itself.
+    if (allSequences.contains(newSequence) || !worker.createdSequences.add(newSequence)) {
       if (Log.isLoggingOn()) {
         Log.logLine("Sequence discarded because the same sequence was previously created.");
       }
+      worker.discarded++;
       return null;
     }
+    ExecutableSequence eSeq = new ExecutableSequence(newSequence);
+    worker.created.add(eSeq);
+    worker.createdInputs.add(sequences.sequences);
+    return eSeq;
+  }
 
-    this.allSequences.add(newSequence);
+  /**
+   * Adds a new sequence to the sequences of this generator, unless it was
+   * created before, and records the use of its inputs.
+   *
+   * @param newSequence  the new sequence
+   * @param inputs  the input sequences of the new sequence
+   * @return true if the sequence was added, false if it was created before
+   */
+  private boolean addNewSequence(Sequence newSequence, List<Sequence> inputs) {
+
+    randoopConsistencyTests(newSequence);
 
-    for (Sequence s : sequences.sequences) {
-      s.lastTimeUsed = java.lang.System.currentTimeMillis();
+    if (!this.allSequences.add(newSequence)) {
+      if (Log.isLoggingOn()) {
+        Log.logLine("Sequence discarded because the same sequence was previously created.");
+      }
+      return false;
     }
 
+    componentManager.recordInputUse(inputs);
+
     randoopConsistencyTest2(newSequence);
 
     if (Log.isLoggingOn()) {
@@ -389,11 +896,11 @@ public class ForwardGenerator extends AbstractGenerator {
 
     // Keep track of any input sequences that are used in this sequence.
     // Tests that contain only these sequences are probably redundant.
-    for (Sequence is : sequences.sequences) {
+    for (Sequence is : inputs) {
       subsumed_sequences.add(is);
     }
 
-    return new ExecutableSequence(newSequence);
+    return true;
   }
 
   /**
@@ -411,27 +918,56 @@ public class ForwardGenerator extends AbstractGenerator {
   private Sequence repeat(Sequence seq, TypedOperation operation, int times) {
     Sequence retval = new Sequence(seq.statements);
     for (int i = 0; i < times; i++) {
-      List<Integer> vil = new ArrayList<>();
-      for (Variable v : retval.getInputs(retval.size() - 1)) {
-        if (v.getType().equals(JavaTypes.INT_TYPE)) {
+      int lastIndex = retval.size() - 1;
+      int[] inputs = new int[retval.getInputCount(lastIndex)];
+      for (int k = 0; k < inputs.length; k++) {
+        int input = retval.getInputIndex(lastIndex, k);
+        if (retval.getOutputType(input).equals(JavaTypes.INT_TYPE)) {
           int randint = Randomness.nextRandomInt(100);
           retval =
               retval.extend(
                   TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, randint));
-          vil.add(retval.size() - 1);
+          inputs[k] = retval.size() - 1;
         } else {
-          vil.add(v.getDeclIndex());
+          inputs[k] = input;
         }
       }
-      List<Variable> vl = new ArrayList<>();
-      for (Integer vi : vil) {
-        vl.add(retval.getVariable(vi));
-      }
-      retval = retval.extend(operation, vl);
+      retval = retval.extend(operation, inputs);
     }
     return retval;
   }
 
+  /**
+   * Returns the number of statements that each repetition of the last
+   * statement of the given sequence adds in
+   * {@link #repeat(Sequence, TypedOperation, int)}: the statement itself, and
+   * a new value for each of its {@code int} inputs.
+   *
+   * @param seq  the sequence whose last statement is repeated
+   * @return the number of statements added by each repetition
+   */
+  private static int repeatedStatementCount(Sequence seq) {
+    int lastIndex = seq.size() - 1;
+    int count = 1;
+    for (int k = 0; k < seq.getInputCount(lastIndex); k++) {
+      if (seq.getOutputType(seq.getInputIndex(lastIndex, k)).equals(JavaTypes.INT_TYPE)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns true if a sequence with the given number of statements, extended
+   * by one more statement, would be larger than {@link GenInputsAbstract#maxsize}.
+   *
+   * @param statements  the number of statements before the extension
+   * @return true if the extended sequence would exceed the size limit
+   */
+  private static boolean exceedsMaxSize(int statements) {
+    return statements >= GenInputsAbstract.maxsize;
+  }
+
   // Adds the string corresponding to the given newSequences to the
   // set allSequencesAsCode. The latter set is intended to mirror
   // the set allSequences, but stores strings instead of Sequences.
@@ -444,10 +980,12 @@ public class ForwardGenerator extends AbstractGenerator {
   }
 
   // Checks that the set allSequencesAsCode contains a set of strings
-  // equivalent to the sequences in allSequences.
+  // equivalent to the sequences in allSequences. Only exact duplicate
+  // detection is checked, since the other filters may report false positives.
   private void randoopConsistencyTests(Sequence newSequence) {
     // Testing code.
-    if (GenInputsAbstract.debug_checks) {
+    if (GenInputsAbstract.debug_checks
+        && GenInputsAbstract.duplicate_filter == GenInputsAbstract.DuplicateFilterMode.EXACT) {
       String code = newSequence.toCodeString();
       if (this.allSequences.contains(newSequence)) {
         if (!this.allsequencesAsCode.contains(code)) {
@@ -501,7 +1039,7 @@ public class ForwardGenerator extends AbstractGenerator {
   // flag
   // of the returned object is false.
   @SuppressWarnings("unchecked")
-  private InputsAndSuccessFlag selectInputs(TypedOperation operation) {
+  private InputsAndSuccessFlag selectInputs(Worker worker, TypedOperation operation) {
 
     // Variable inputTypes contains the values required as input to the
     // statement given as a parameter to the selectInputs method.
@@ -659,11 +1197,10 @@ public class ForwardGenerator extends AbstractGenerator {
           if (Log.isLoggingOn()) {
             Log.logLine("forbid-null option is true. Failed to create new sequence.");
           }
-          return new InputsAndSuccessFlag(false, null, null);
+          return new InputsAndSuccessFlag(inputType);
         } else {
           if (Log.isLoggingOn()) Log.logLine("Will use null as " + i + "-th input");
-          TypedOperation st = TypedOperation.createNullOrZeroInitializationForType(inputType);
-          Sequence seq = new Sequence().extend(st, new ArrayList<Variable>());
+          Sequence seq = Sequence.zero(inputType);
           variables.add(totStatements);
           sequences.add(seq);
           assert seq.size() == 1;
@@ -685,8 +1222,7 @@ public class ForwardGenerator extends AbstractGenerator {
         if (Log.isLoggingOn()) {
           Log.logLine("null-ratio option given. Randomly decided to use null as input.");
         }
-        TypedOperation st = TypedOperation.createNullOrZeroInitializationForType(inputType);
-        Sequence seq = new Sequence().extend(st, new ArrayList<Variable>());
+        Sequence seq = Sequence.zero(inputType);
         variables.add(totStatements);
         sequences.add(seq);
         assert seq.size() == 1;
@@ -697,15 +1233,22 @@ public class ForwardGenerator extends AbstractGenerator {
       // At this point, we have a list of candidate sequences and need to select
       // a
       // randomly-chosen sequence from the list.
-      Sequence chosenSeq;
-      if (GenInputsAbstract.small_tests) {
-        chosenSeq = Randomness.randomMemberWeighted(l);
-      } else {
-        chosenSeq = Randomness.randomMember(l);
+      // A sequence that would make S too large is drawn again, a bounded
+      // number of times, before giving up.
+      Sequence chosenSeq = randomCandidate(l);
+      for (int redraws = 0; exceedsMaxSize(totStatements + chosenSeq.size()); redraws++) {
+        if (redraws == MAX_SIZE_REDRAWS) {
+          if (Log.isLoggingOn()) {
+            Log.logLine("No input sequence small enough for the size limit was found.");
+          }
+          worker.oversize++;
+          return new InputsAndSuccessFlag(false, null, null);
+        }
+        chosenSeq = randomCandidate(l);
       }
 
       // Now, find values that satisfy the constraint set.
-      Variable randomVariable = chosenSeq.randomVariableForTypeLastStatement(inputType);
+      int randomIndex = chosenSeq.randomIndexForTypeLastStatement(inputType);
 
       // We are not done yet: we have chosen a sequence that yields a value of
       // the required
@@ -713,7 +1256,7 @@ public class ForwardGenerator extends AbstractGenerator {
       // random
       // selection step is to select from among all possible values.
       // if (i == 0 && statement.isInstanceMethod()) m = Match.EXACT_TYPE;
-      if (randomVariable == null) {
+      if (randomIndex < 0) {
         throw new BugInRandoopException("type: " + inputType + ", sequence: " + chosenSeq);
       }
 
@@ -722,8 +1265,8 @@ public class ForwardGenerator extends AbstractGenerator {
       if (i == 0
           && operation.isMessage()
           && !(operation.isStatic())
-          && (chosenSeq.getCreatingStatement(randomVariable).isPrimitiveInitialization()
-              || randomVariable.getType().isPrimitive())) {
+          && (chosenSeq.getStatement(randomIndex).isPrimitiveInitialization()
+              || chosenSeq.getOutputType(randomIndex).isPrimitive())) {
 
         return new InputsAndSuccessFlag(false, null, null);
       }
@@ -744,25 +1287,119 @@ public class ForwardGenerator extends AbstractGenerator {
         }
       }
 
-      variables.add(totStatements + randomVariable.index);
+      variables.add(totStatements + randomIndex);
       sequences.add(chosenSeq);
       totStatements += chosenSeq.size();
     }
 
+    // Null inputs may also have made S too large.
+    if (exceedsMaxSize(totStatements)) {
+      worker.oversize++;
+      return new InputsAndSuccessFlag(false, null, null);
+    }
+
     return new InputsAndSuccessFlag(true, sequences, variables);
   }
 
   /**
-   * Returns the set of sequences that are included in other sequences to
-   * generate inputs (and, so, are subsumed by another sequence).
+   * Selects a sequence at random from the given candidates, favoring smaller
+   * sequences if {@link GenInputsAbstract#small_tests} is set.
+   *
+   * @param candidates  the non-empty list of candidate sequences
+   * @return the selected sequence
+   */
+  private static Sequence randomCandidate(SimpleList<Sequence> candidates) {
+    if (GenInputsAbstract.small_tests) {
+      return Randomness.randomMemberWeighted(candidates);
+    } else {
+      return Randomness.randomMember(candidates);
+    }
+  }
+
+  /**
+   * Indicates whether the given sequence was included in another sequence to
+   * generate inputs (and, so, is subsumed by another sequence).
    */
   @Override
-  public Set<Sequence> getSubsumedSequences() {
-    return subsumed_sequences;
+  public boolean isSubsumed(Sequence sequence) {
+    return subsumed_sequences.contains(sequence);
   }
 
   @Override
   public int numGeneratedSequences() {
-    return allSequences.size();
+    return allSequences.size() - num_loaded_sequences;
+  }
+
+  /**
+   * The state of one thread that constructs sequences: the operation selector
+   * and backoff that choose the operations of its sequences, and the random
+   * generator it makes its choices with. A worker of a thread, with
+   * <code>--threads</code> greater than 1, also records the sequences it
+   * created in the current round. Running it takes the steps of a round.
+   */
+  private final class Worker implements Callable<Void> {
+
+    final OperationSelector operationSelector;
+
+    // With --operation-backoff, withholds the operations for which no inputs
+    // were found; null otherwise.
+    final OperationBackoff backoff;
+
+    // The random generator of the thread, or null for the worker that the
+    // steps of the generator use directly, which uses the shared generator.
+    final Random random;
+
+    // The counts for the statistics of the generator, since they were last
+    // collected.
+    int discarded = 0;
+
+    int oversize = 0;
+
+    // The sequences created in the current round, in order, and their inputs.
+    final List<ExecutableSequence> created = new ArrayList<>();
+
+    final List<List<Sequence>> createdInputs = new ArrayList<>();
+
+    final Set<Sequence> createdSequences = new HashSet<>();
+
+    Worker(List<TypedOperation> operations, Random random) {
+      this.operationSelector =
+          createOperationSelector(GenInputsAbstract.operation_selection, operations);
+      this.backoff =
+          GenInputsAbstract.operation_backoff
+              ? new OperationBackoff(operationSelector, componentManager)
+              : null;
+      this.random = random;
+    }
+
+    /**
+     * Takes the steps of a round, each of which creates and executes a new
+     * sequence, unless the time limit is reached or the thread is interrupted
+     * first.
+     */
+    @Override
+    public Void call() {
+      Randomness.setThreadRandom(random);
+      try {
+        for (int i = 0; i < STEPS_PER_ROUND; i++) {
+          if (timer.getTimeElapsedMillis() >= maxTimeMillis
+              || Thread.currentThread().isInterrupted()) {
+            break;
+          }
+          long startTime = System.nanoTime();
+          ExecutableSequence eSeq = createNewUniqueSequence(this);
+          if (eSeq == null || GenInputsAbstract.dontexecute) {
+            continue;
+          }
+          eSeq.gentime = System.nanoTime() - startTime;
+          startTime = System.nanoTime();
+          eSeq.execute(executionVisitor, checkGenerator);
+          eSeq.exectime = System.nanoTime() - startTime;
+        }
+      } finally {
+        Randomness.setThreadRandom(null);
+      }
+      return null;
+    }
   }
 }
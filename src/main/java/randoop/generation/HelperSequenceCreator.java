@@ -81,9 +81,7 @@ class HelperSequenceCreator {
       ArrayListSimpleList<Sequence> seqList = new ArrayListSimpleList<>();
       if (!GenInputsAbstract.forbid_null) {
         if (!Randomness.weighedCoinFlip(0.5)) {
-          seqList.add(
-              new Sequence()
-                  .extend(TypedOperation.createNullOrZeroInitializationForType(elementType)));
+          seqList.add(Sequence.zero(elementType));
         }
       }
       length = seqList.size();
@@ -129,7 +127,7 @@ class HelperSequenceCreator {
       return null;
     }
     inputSequences.add(creationSequence);
-    int creationIndex = totStatements + creationSequence.getLastVariable().index;
+    int creationIndex = totStatements + creationSequence.size() - 1;
     variableIndices.add(creationIndex);
     totStatements += creationSequence.size();
 
@@ -144,7 +142,7 @@ class HelperSequenceCreator {
       // build sequence to create array of element type
       Sequence inputSequence = createAnArray(candidates, elementType, length);
       inputSequences.add(inputSequence);
-      variableIndices.add(totStatements + inputSequence.getLastVariable().index);
+      variableIndices.add(totStatements + inputSequence.size() - 1);
       // call Collections.addAll(c, inputArray)
       TypedOperation addOperation = getCollectionAddAllOperation(elementType);
       return Sequence.createSequence(addOperation, inputSequences, variableIndices);
@@ -224,7 +222,7 @@ class HelperSequenceCreator {
       TypedOperation arrayElementAssignment =
           TypedOperation.createArrayElementAssignment(arrayType);
       Sequence addSequence = Sequence.concatenate(inputSequences);
-      int creationIndex = addSequence.getLastVariable().index;
+      int creationIndex = addSequence.size() - 1;
       int i = 0;
       for (Integer index : variables) {
         addSequence =
@@ -338,9 +336,9 @@ class HelperSequenceCreator {
     for (int i = 0; i < length; i++) {
       Sequence inputSeq = candidates.get(Randomness.nextRandomInt(candidates.size()));
       inputSequences.add(inputSeq);
-      Variable inputVar = inputSeq.randomVariableForTypeLastStatement(elementType);
-      assert inputVar != null;
-      variables.add(totStatements + inputVar.index);
+      int inputIndex = inputSeq.randomIndexForTypeLastStatement(elementType);
+      assert inputIndex >= 0;
+      variables.add(totStatements + inputIndex);
       totStatements += inputSeq.size();
     }
   }
@@ -3,6 +3,7 @@ package randoop.generation;
 import java.util.List;
 
 import randoop.sequence.Sequence;
+import randoop.types.Type;
 
 /**
  * Return type for ForwardGenerator's private selectInputs method, which is responsible
@@ -22,9 +23,25 @@ class InputsAndSuccessFlag {
   public List<Sequence> sequences;
   public List<Integer> indices;
 
+  /**
+   * The input type for which the components had no value, if that is why the
+   * selection failed; null otherwise.
+   */
+  public Type missingType;
+
   public InputsAndSuccessFlag(boolean success, List<Sequence> sequences, List<Integer> vars) {
     this.success = success;
     this.sequences = sequences;
     this.indices = vars;
   }
+
+  /**
+   * Creates a failed selection, for want of a value of the given input type.
+   *
+   * @param missingType  the input type for which there was no value
+   */
+  public InputsAndSuccessFlag(Type missingType) {
+    this(false, null, null);
+    this.missingType = missingType;
+  }
 }
@@ -0,0 +1,233 @@
+package randoop.generation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import randoop.operation.TypedOperation;
+import randoop.types.Type;
+import randoop.types.TypeTuple;
+
+/**
+ * Withholds from selection the operations for which no inputs were found,
+ * because the components had no value of one of their input types. The number
+ * of steps for which an operation is withheld doubles with each consecutive
+ * such failure, up to a limit, and a success resets it. A withheld operation
+ * also waits for the missing type: it returns to selection as soon as the
+ * components, including primitive values and literals, have a value that it
+ * can use as that type.
+ * <p>
+ * An operation whose input selection failed for another reason, such as a
+ * randomly drawn null or primitive receiver, or inputs too large for the size
+ * limit, is not withheld, since it may well succeed on its next selection.
+ * The failure still counts in its statistics.
+ * <p>
+ * Withheld operations are removed from the operation selector, and are added
+ * back to it in the order in which they were withheld, so that the steps are
+ * reproducible for a given random seed.
+ */
+final class OperationBackoff {
+
+  /** The largest number of steps for which an operation is withheld */
+  static final int MAX_BACKOFF_STEPS = 1 << 12;
+
+  private final OperationSelector selector;
+
+  private final ComponentManager componentManager;
+
+  // The number of steps so far.
+  private long step = 0;
+
+  // The number of consecutive failures of the input selection for want of a
+  // type, for each operation that has failed since its last success.
+  private final Map<TypedOperation, Integer> failures = new HashMap<>();
+
+  // The withheld operations, by the step at which they return to selection.
+  private final TreeMap<Long, List<TypedOperation>> returning = new TreeMap<>();
+
+  // The withheld operations that wait for a type, by that type.
+  private final Map<Type, List<TypedOperation>> waiting = new LinkedHashMap<>();
+
+  // The step at which each withheld operation returns, and the type it waits for.
+  private final Map<TypedOperation, Withholding> withheld = new HashMap<>();
+
+  // The operations for which input selection failed, in order of first failure.
+  private final Set<TypedOperation> failed = new LinkedHashSet<>();
+
+  // The number of types of the components when the waiting operations were
+  // last checked.
+  private int componentTypes;
+
+  /**
+   * Creates a backoff for the operations of the given selector.
+   *
+   * @param selector  the selector from which operations are withheld
+   * @param componentManager  the components in which waiting operations look
+   *          for the types they need
+   */
+  OperationBackoff(OperationSelector selector, ComponentManager componentManager) {
+    this.selector = selector;
+    this.componentManager = componentManager;
+    this.componentTypes = componentManager.numComponentTypes();
+  }
+
+  /**
+   * Starts a step. Returns to selection the operations whose backoff has
+   * elapsed, and, if the types of the components have changed, the operations
+   * that wait for a type the components now have.
+   */
+  void step() {
+    step++;
+    while (!returning.isEmpty() && returning.firstKey() <= step) {
+      releaseAll(returning.firstEntry().getValue());
+    }
+    int types = componentManager.numComponentTypes();
+    if (types != componentTypes) {
+      componentTypes = types;
+      List<TypedOperation> satisfied = new ArrayList<>();
+      for (Map.Entry<Type, List<TypedOperation>> entry : waiting.entrySet()) {
+        for (TypedOperation operation : entry.getValue()) {
+          if (hasInputs(operation, entry.getKey())) {
+            satisfied.add(operation);
+          }
+        }
+      }
+      for (TypedOperation operation : satisfied) {
+        // The operation may now succeed, so its backoff starts over.
+        failures.remove(operation);
+        release(operation);
+      }
+    }
+  }
+
+  // Returns true if the components have a value that the given operation can
+  // use as an input of the given type, including its literals.
+  private boolean hasInputs(TypedOperation operation, Type type) {
+    TypeTuple inputTypes = operation.getInputTypes();
+    for (int i = 0; i < inputTypes.size(); i++) {
+      if (inputTypes.get(i).equals(type)) {
+        return !componentManager.getSequencesForType(operation, i).isEmpty();
+      }
+    }
+    return !componentManager.getSequencesForType(type).isEmpty();
+  }
+
+  /**
+   * Returns to selection the operations that would return first, for when no
+   * other operation can be selected.
+   *
+   * @return true if any operation was returned, false if none is withheld
+   */
+  boolean releaseEarliest() {
+    if (returning.isEmpty()) {
+      return false;
+    }
+    releaseAll(returning.firstEntry().getValue());
+    return true;
+  }
+
+  /**
+   * Records that inputs were found for the given operation.
+   *
+   * @param operation  the operation
+   */
+  void recordSuccess(TypedOperation operation) {
+    selector.getStatistics(operation).recordInputSelection(true);
+    failures.remove(operation);
+  }
+
+  /**
+   * Records that no inputs were found for the given operation, and withholds
+   * it from selection if the components had no value of one of its input
+   * types.
+   *
+   * @param operation  the operation
+   * @param missingType  the input type for which the components had no value,
+   *          or null if the selection failed for another reason
+   */
+  void recordFailure(TypedOperation operation, Type missingType) {
+    selector.getStatistics(operation).recordInputSelection(false);
+    failed.add(operation);
+    if (missingType == null) {
+      return;
+    }
+    Integer count = failures.get(operation);
+    int consecutive = (count == null) ? 1 : count + 1;
+    failures.put(operation, consecutive);
+
+    long backoff = Math.min(1L << Math.min(consecutive - 1, 30), MAX_BACKOFF_STEPS);
+    Withholding withholding = new Withholding(step + backoff, missingType);
+    withheld.put(operation, withholding);
+    add(returning, withholding.returnStep, operation);
+    add(waiting, missingType, operation);
+    selector.removeOperation(operation);
+  }
+
+  /**
+   * Returns the operations for which input selection failed every time.
+   *
+   * @return the operations for which no inputs were ever found, in the order
+   *         of their first failure
+   */
+  List<TypedOperation> getUnsatisfiableOperations() {
+    List<TypedOperation> unsatisfiable = new ArrayList<>();
+    for (TypedOperation operation : failed) {
+      if (selector.getStatistics(operation).getInputSuccesses() == 0) {
+        unsatisfiable.add(operation);
+      }
+    }
+    return unsatisfiable;
+  }
+
+  private void releaseAll(List<TypedOperation> operations) {
+    for (TypedOperation operation : new ArrayList<>(operations)) {
+      release(operation);
+    }
+  }
+
+  private void release(TypedOperation operation) {
+    Withholding withholding = withheld.remove(operation);
+    remove(returning, withholding.returnStep, operation);
+    remove(waiting, withholding.missingType, operation);
+    selector.addOperation(operation);
+  }
+
+  private static <K> void add(Map<K, List<TypedOperation>> map, K key, TypedOperation operation) {
+    List<TypedOperation> operations = map.get(key);
+    if (operations == null) {
+      operations = new ArrayList<>();
+      map.put(key, operations);
+    }
+    operations.add(operation);
+  }
+
+  private static <K> void remove(
+      Map<K, List<TypedOperation>> map, K key, TypedOperation operation) {
+    List<TypedOperation> operations = map.get(key);
+    if (operations == null) {
+      return;
+    }
+    operations.remove(operation);
+    if (operations.isEmpty()) {
+      map.remove(key);
+    }
+  }
+
+  /** When a withheld operation returns to selection, and what it waits for. */
+  private static final class Withholding {
+
+    final long returnStep;
+
+    final Type missingType;
+
+    Withholding(long returnStep, Type missingType) {
+      this.returnStep = returnStep;
+      this.missingType = missingType;
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package randoop.generation;
+
+import randoop.operation.TypedOperation;
+
+/**
+ * Chooses the operation with which each step of generation extends a
+ * sequence, and learns from the outcomes of the steps.
+ */
+public interface OperationSelector {
+
+  /**
+   * Returns the operation for the next step of generation.
+   *
+   * @return the selected operation, or null if there are no operations
+   */
+  TypedOperation selectOperation();
+
+  /**
+   * Removes the given operation, so that it is not selected again.
+   *
+   * @param operation  the operation to remove
+   */
+  void removeOperation(TypedOperation operation);
+
+  /**
+   * Adds an operation, such as one that was removed, so that it can be
+   * selected.
+   *
+   * @param operation  the operation to add
+   */
+  void addOperation(TypedOperation operation);
+
+  /**
+   * Records the outcome of a step for which the given operation was selected.
+   * The outcome of a step may be recorded after later steps have selected
+   * their operations.
+   *
+   * @param operation  the operation selected for the step
+   * @param reward  how productive the step was, between 0 and 1
+   * @param statements  the number of statements that the step executed, at
+   *        least 1 even for a step that executed none
+   * @param nanos  the time the step took, in nanoseconds
+   */
+  void recordOutcome(TypedOperation operation, double reward, int statements, long nanos);
+
+  /**
+   * Records how long one call to the given operation took to execute.
+   *
+   * @param operation  the operation
+   * @param nanos  the execution time of the call, in nanoseconds
+   */
+  void recordExecution(TypedOperation operation, long nanos);
+
+  /**
+   * Returns the statistics of the given operation.
+   *
+   * @param operation  the operation
+   * @return the statistics of the steps for the operation
+   */
+  OperationStatistics getStatistics(TypedOperation operation);
+}
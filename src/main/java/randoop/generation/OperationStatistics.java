@@ -0,0 +1,196 @@
+package randoop.generation;
+
+/**
+ * The outcomes of the steps of generation for which one operation was
+ * selected, the successes and failures of the input selection for the
+ * operation, and the execution times of the calls to the operation.
+ * <p>
+ * The execution times are summarized by their running mean and variance
+ * (Welford's method) and their maximum, from which a tail estimate is
+ * derived.
+ */
+public final class OperationStatistics {
+
+  private int selections = 0;
+
+  private int outcomes = 0;
+
+  private double totalReward = 0;
+
+  private long totalStatements = 0;
+
+  private long totalNanos = 0;
+
+  private int executions = 0;
+
+  private double meanExecutionNanos = 0;
+
+  // The sum of the squared differences of the execution times from their mean.
+  private double squaredDeviations = 0;
+
+  private long maxExecutionNanos = 0;
+
+  private int inputSuccesses = 0;
+
+  private int inputFailures = 0;
+
+  /** Records that the operation was selected. */
+  void recordSelection() {
+    selections++;
+  }
+
+  /**
+   * Records the outcome of a step for which the operation was selected.
+   *
+   * @param reward  how productive the step was, between 0 and 1
+   * @param statements  the number of statements that the step executed
+   * @param nanos  the time the step took, in nanoseconds
+   */
+  void recordOutcome(double reward, int statements, long nanos) {
+    outcomes++;
+    totalReward += reward;
+    totalStatements += statements;
+    totalNanos += nanos;
+  }
+
+  /**
+   * Records the execution time of a call to the operation.
+   *
+   * @param nanos  the execution time, in nanoseconds
+   */
+  void recordExecution(long nanos) {
+    executions++;
+    double delta = nanos - meanExecutionNanos;
+    meanExecutionNanos += delta / executions;
+    squaredDeviations += delta * (nanos - meanExecutionNanos);
+    maxExecutionNanos = Math.max(maxExecutionNanos, nanos);
+  }
+
+  /**
+   * Records whether inputs were found for the operation in a step.
+   *
+   * @param success  true if inputs were found, false otherwise
+   */
+  void recordInputSelection(boolean success) {
+    if (success) {
+      inputSuccesses++;
+    } else {
+      inputFailures++;
+    }
+  }
+
+  /**
+   * Returns the number of times the operation was selected.
+   *
+   * @return the number of selections of the operation
+   */
+  public int getSelections() {
+    return selections;
+  }
+
+  /**
+   * Returns the number of steps whose outcome has been recorded.
+   *
+   * @return the number of recorded outcomes
+   */
+  public int getOutcomes() {
+    return outcomes;
+  }
+
+  /**
+   * Returns the total reward of the recorded steps.
+   *
+   * @return the total reward
+   */
+  public double getTotalReward() {
+    return totalReward;
+  }
+
+  /**
+   * Returns the total number of statements that the recorded steps executed.
+   *
+   * @return the total number of statements
+   */
+  public long getTotalStatements() {
+    return totalStatements;
+  }
+
+  /**
+   * Returns the total time of the recorded steps.
+   *
+   * @return the total time, in nanoseconds
+   */
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+
+  /**
+   * Returns the number of recorded steps in which inputs were found for the
+   * operation.
+   *
+   * @return the number of successful input selections
+   */
+  public int getInputSuccesses() {
+    return inputSuccesses;
+  }
+
+  /**
+   * Returns the number of recorded steps in which no inputs were found for the
+   * operation.
+   *
+   * @return the number of failed input selections
+   */
+  public int getInputFailures() {
+    return inputFailures;
+  }
+
+  /**
+   * Returns the number of calls to the operation whose execution time has been
+   * recorded.
+   *
+   * @return the number of recorded executions
+   */
+  public int getExecutions() {
+    return executions;
+  }
+
+  /**
+   * Returns the mean execution time of a call to the operation.
+   *
+   * @return the mean execution time, in nanoseconds, or 0 if no execution has
+   *         been recorded
+   */
+  public double getMeanExecutionNanos() {
+    return meanExecutionNanos;
+  }
+
+  /**
+   * Returns an estimate of the execution time that few calls to the operation
+   * exceed: the mean plus two standard deviations, but no more than the
+   * longest recorded execution time.
+   *
+   * @return the tail estimate of the execution time, in nanoseconds
+   */
+  public double getTailExecutionNanos() {
+    if (executions < 2) {
+      return maxExecutionNanos;
+    }
+    double deviation = Math.sqrt(squaredDeviations / (executions - 1));
+    return Math.min(meanExecutionNanos + 2 * deviation, maxExecutionNanos);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "selections=%d, outcomes=%d, input failures=%d, reward=%.2f, statements=%d,"
+            + " time=%dms, mean=%.3fms, tail=%.3fms",
+        selections,
+        outcomes,
+        inputFailures,
+        totalReward,
+        totalStatements,
+        totalNanos / 1000000,
+        meanExecutionNanos / 1e6,
+        getTailExecutionNanos() / 1e6);
+  }
+}
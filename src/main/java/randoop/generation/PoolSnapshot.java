@@ -0,0 +1,156 @@
+package randoop.generation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import randoop.BugInRandoopException;
+import randoop.main.GenInputsAbstract;
+import randoop.operation.OperationParser;
+import randoop.operation.TypedOperation;
+import randoop.sequence.Sequence;
+import randoop.sequence.SequenceReader;
+import randoop.sequence.SequenceWriter;
+
+/**
+ * Saves the component sequences of a run to a file, and loads them in a later
+ * run, so that the later run can start from the objects that the earlier run
+ * built rather than rebuild them.
+ * <p>
+ * A snapshot file consists of a key, which is a hash of the classpath and the
+ * operations under test of the run that wrote it, followed by the sequences
+ * in the format of {@link SequenceWriter}. The key does not prevent loading:
+ * a snapshot can be loaded by a run with a different key, and its sequences
+ * that use an operation that no longer exists are dropped.
+ */
+public final class PoolSnapshot {
+  private PoolSnapshot() {
+    throw new IllegalStateException("no instance");
+  }
+
+  /**
+   * Returns the key of a run with the given classpath and operations under
+   * test. The key does not depend on the order of the operations.
+   *
+   * @param classpath  the classpath of the run
+   * @param operations  the operations under test
+   * @return the key of the run
+   */
+  public static long computeKey(String classpath, Collection<TypedOperation> operations) {
+    List<String> descriptions = new ArrayList<>(operations.size());
+    for (TypedOperation operation : operations) {
+      descriptions.add(OperationParser.getId(operation) + " : " + operation.toParsableString());
+    }
+    Collections.sort(descriptions);
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new BugInRandoopException(e);
+    }
+    digest.update(classpath.getBytes(StandardCharsets.UTF_8));
+    for (String description : descriptions) {
+      digest.update((byte) '\n');
+      digest.update(description.getBytes(StandardCharsets.UTF_8));
+    }
+    return ByteBuffer.wrap(digest.digest()).getLong();
+  }
+
+  /**
+   * Writes the given sequences to the given file, with the given key.
+   * Sequences that use an operation without a textual form, such as the
+   * creation of an uninitialized array, are not written.
+   *
+   * @param file  the file to write
+   * @param key  the key of the run, as computed by {@link #computeKey}
+   * @param sequences  the sequences to write
+   * @throws IOException if the file cannot be written
+   */
+  public static void save(File file, long key, Collection<Sequence> sequences)
+      throws IOException {
+    FileChannel channel = new FileOutputStream(file).getChannel();
+    ByteBuffer header = ByteBuffer.allocate(8);
+    header.putLong(key).flip();
+    try {
+      while (header.hasRemaining()) {
+        channel.write(header);
+      }
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    try (SequenceWriter writer = new SequenceWriter(channel)) {
+      for (Sequence sequence : sequences) {
+        if (isWritable(sequence)) {
+          writer.write(sequence);
+        }
+      }
+    }
+  }
+
+  // Returns true if every operation of the given sequence has a textual form.
+  private static boolean isWritable(Sequence sequence) {
+    for (int i = 0; i < sequence.size(); i++) {
+      if (!OperationParser.isParsable(sequence.getStatement(i).getOperation())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the sequences from the given snapshot file. Sequences that use an
+   * operation that cannot be resolved are dropped.
+   *
+   * @param file  the file to read
+   * @param key  the key of the current run; a snapshot written with a
+   *          different key is loaded anyway, and the number of its dropped
+   *          sequences is reported unless <code>--noprogressdisplay</code> is
+   *          set
+   * @return the sequences in the snapshot that could be resolved
+   * @throws IOException if the file cannot be read or is malformed
+   */
+  public static List<Sequence> load(File file, long key) throws IOException {
+    FileChannel channel = new FileInputStream(file).getChannel();
+    ByteBuffer header = ByteBuffer.allocate(8);
+    SequenceReader reader;
+    try {
+      while (header.hasRemaining()) {
+        if (channel.read(header) < 0) {
+          throw new IOException("not a pool snapshot: " + file);
+        }
+      }
+      reader = new SequenceReader(channel, true);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    header.flip();
+    long snapshotKey = header.getLong();
+    List<Sequence> sequences = new ArrayList<>();
+    try {
+      for (Sequence sequence = reader.read(); sequence != null; sequence = reader.read()) {
+        sequences.add(sequence);
+      }
+      if (snapshotKey != key && !GenInputsAbstract.noprogressdisplay) {
+        System.out.printf(
+            "Pool snapshot %s was saved for a different classpath or set of operations;"
+                + " %d of its sequences could not be loaded.%n",
+            file, reader.getSkippedCount());
+      }
+    } finally {
+      reader.close();
+    }
+    return sequences;
+  }
+}
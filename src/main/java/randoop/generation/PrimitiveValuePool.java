@@ -0,0 +1,387 @@
+package randoop.generation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import randoop.sequence.Sequence;
+import randoop.types.JavaTypes;
+import randoop.types.Type;
+import randoop.util.IndexedSimpleList;
+import randoop.util.SimpleList;
+import randoop.util.WeightedSelection;
+
+/**
+ * The primitive and String values that the generator can use as inputs, in
+ * place of a collection of the one-statement sequences that declare them.
+ * <p>
+ * The values of each primitive kind are stored unboxed, as the bits of the
+ * value in a {@code long[]}, with an open-addressing hash table for
+ * duplicate detection; Strings are stored once each, in a table indexed by the
+ * string. The candidates for an input type are a view over the values of the
+ * kinds that can be used as that type, from which a value is selected in
+ * constant time. The one-statement sequence that declares a value is created
+ * when the value is first selected, and kept for later selections.
+ * <p>
+ * Values can be selected on several threads at once, but are added on one
+ * thread, while no other thread selects a value.
+ */
+public final class PrimitiveValuePool {
+
+  // The kinds of values; the order defines the order of the values in a
+  // list of candidates.
+  private static final Type[] KIND_TYPES = {
+    JavaTypes.BOOLEAN_TYPE,
+    JavaTypes.BYTE_TYPE,
+    JavaTypes.SHORT_TYPE,
+    JavaTypes.CHAR_TYPE,
+    JavaTypes.INT_TYPE,
+    JavaTypes.LONG_TYPE,
+    JavaTypes.FLOAT_TYPE,
+    JavaTypes.DOUBLE_TYPE,
+    JavaTypes.STRING_TYPE
+  };
+
+  private static final int BOOLEAN = 0;
+  private static final int BYTE = 1;
+  private static final int SHORT = 2;
+  private static final int CHAR = 3;
+  private static final int INT = 4;
+  private static final int LONG = 5;
+  private static final int FLOAT = 6;
+  private static final int DOUBLE = 7;
+  private static final int STRING = 8;
+
+  // The values of each primitive kind.
+  private final LongSet[] primitives = new LongSet[STRING];
+
+  private final List<String> strings = new ArrayList<>();
+
+  private final Map<String, Integer> stringIndices = new HashMap<>();
+
+  // The sequences created so far for the values of each kind, by position.
+  private final Sequence[][] sequences = new Sequence[KIND_TYPES.length][];
+
+  // The candidate lists created so far, by input type.
+  private final Map<Type, Candidates> candidates = new HashMap<>();
+
+  /**
+   * Creates an empty pool.
+   */
+  public PrimitiveValuePool() {
+    for (int kind = 0; kind < STRING; kind++) {
+      primitives[kind] = new LongSet();
+    }
+    for (int kind = 0; kind < KIND_TYPES.length; kind++) {
+      sequences[kind] = new Sequence[8];
+    }
+  }
+
+  /**
+   * Adds the given value to this pool, if it is not already in it.
+   *
+   * @param value  a boxed primitive or String value
+   * @return true if the value was added, false if it was already in this pool
+   *         or is not a primitive or String value
+   */
+  public boolean add(Object value) {
+    int kind = kindOf(value);
+    if (kind < 0) {
+      return false;
+    }
+    if (kind == STRING) {
+      String s = (String) value;
+      if (stringIndices.containsKey(s)) {
+        return false;
+      }
+      stringIndices.put(s, strings.size());
+      strings.add(s);
+      return true;
+    }
+    return primitives[kind].add(bits(kind, value));
+  }
+
+  /**
+   * Indicates whether the given value is in this pool.
+   *
+   * @param value  the value
+   * @return true if the value is in this pool, false otherwise
+   */
+  public boolean contains(Object value) {
+    int kind = kindOf(value);
+    if (kind < 0) {
+      return false;
+    }
+    if (kind == STRING) {
+      return stringIndices.containsKey(value);
+    }
+    return primitives[kind].contains(bits(kind, value));
+  }
+
+  /**
+   * Returns the number of values in this pool.
+   *
+   * @return the number of values in this pool
+   */
+  public int size() {
+    int size = strings.size();
+    for (LongSet values : primitives) {
+      size += values.size;
+    }
+    return size;
+  }
+
+  /**
+   * Returns the number of types of the values in this pool.
+   *
+   * @return the number of primitive types, and String, with values in this
+   *         pool
+   */
+  public int numTypes() {
+    int types = 0;
+    for (int kind = 0; kind < KIND_TYPES.length; kind++) {
+      if (count(kind) > 0) {
+        types++;
+      }
+    }
+    return types;
+  }
+
+  /**
+   * Returns the one-statement sequences that declare the values in this pool
+   * that can be used as the given type. The list is a view, which reflects
+   * values added later, and the same list is returned for each call with the
+   * same type. Its elements all have the same weight.
+   *
+   * @param type  the input type
+   * @return the sequences for the values that can be used as the type, or null
+   *         if no primitive or String value can be used as the type
+   */
+  public SimpleList<Sequence> getSequences(Type type) {
+    if (candidates.containsKey(type)) {
+      return candidates.get(type);
+    }
+    int[] kinds = new int[KIND_TYPES.length];
+    int count = 0;
+    for (int kind = 0; kind < KIND_TYPES.length; kind++) {
+      if (type.isAssignableFrom(KIND_TYPES[kind])) {
+        kinds[count++] = kind;
+      }
+    }
+    Candidates c = (count == 0) ? null : new Candidates(Arrays.copyOf(kinds, count));
+    candidates.put(type, c);
+    return c;
+  }
+
+  /**
+   * Returns the one-statement sequences that declare the values in this pool.
+   *
+   * @return the sequences for all values in this pool
+   */
+  public List<Sequence> getAllSequences() {
+    List<Sequence> result = new ArrayList<>(size());
+    for (int kind = 0; kind < KIND_TYPES.length; kind++) {
+      for (int position = 0; position < count(kind); position++) {
+        result.add(sequence(kind, position));
+      }
+    }
+    return result;
+  }
+
+  // Returns the number of values of the given kind.
+  private int count(int kind) {
+    return (kind == STRING) ? strings.size() : primitives[kind].size;
+  }
+
+  // Returns the sequence that declares the value at the given position among
+  // the values of the given kind, creating it on first use. Synchronized, since
+  // generator threads select values at once, each through a candidate list.
+  private synchronized Sequence sequence(int kind, int position) {
+    Sequence[] created = sequences[kind];
+    if (position >= created.length) {
+      created = Arrays.copyOf(created, Math.max(2 * created.length, position + 1));
+      sequences[kind] = created;
+    }
+    if (created[position] == null) {
+      created[position] = Sequence.createSequenceForPrimitive(value(kind, position));
+    }
+    return created[position];
+  }
+
+  // Returns the boxed value at the given position among the values of the
+  // given kind.
+  private Object value(int kind, int position) {
+    if (kind == STRING) {
+      return strings.get(position);
+    }
+    long bits = primitives[kind].values[position];
+    switch (kind) {
+      case BOOLEAN:
+        return bits != 0;
+      case BYTE:
+        return (byte) bits;
+      case SHORT:
+        return (short) bits;
+      case CHAR:
+        return (char) bits;
+      case INT:
+        return (int) bits;
+      case LONG:
+        return bits;
+      case FLOAT:
+        return Float.intBitsToFloat((int) bits);
+      case DOUBLE:
+        return Double.longBitsToDouble(bits);
+      default:
+        throw new IllegalArgumentException("unknown kind " + kind);
+    }
+  }
+
+  // Returns the kind of the given value, or -1 if it is not a primitive or
+  // String value.
+  private static int kindOf(Object value) {
+    if (value instanceof Integer) return INT;
+    if (value instanceof String) return STRING;
+    if (value instanceof Boolean) return BOOLEAN;
+    if (value instanceof Character) return CHAR;
+    if (value instanceof Long) return LONG;
+    if (value instanceof Double) return DOUBLE;
+    if (value instanceof Byte) return BYTE;
+    if (value instanceof Short) return SHORT;
+    if (value instanceof Float) return FLOAT;
+    return -1;
+  }
+
+  // Returns the bits of the given primitive value. Floating-point values are
+  // compared as by equals, so all NaN values are the same, and stored as the
+  // canonical NaN, while 0.0 and -0.0 differ.
+  private static long bits(int kind, Object value) {
+    switch (kind) {
+      case BOOLEAN:
+        return ((Boolean) value) ? 1 : 0;
+      case CHAR:
+        return (Character) value;
+      case FLOAT:
+        return Float.floatToIntBits((Float) value);
+      case DOUBLE:
+        return Double.doubleToLongBits((Double) value);
+      default:
+        return ((Number) value).longValue();
+    }
+  }
+
+  /**
+   * A set of {@code long} values in insertion order, with an open-addressing
+   * hash table of their positions.
+   */
+  private static final class LongSet {
+
+    long[] values = new long[8];
+
+    int size = 0;
+
+    // Positions plus one, or 0 for an empty slot; at most half full.
+    private int[] table = new int[16];
+
+    boolean add(long value) {
+      int slot = find(value);
+      if (table[slot] != 0) {
+        return false;
+      }
+      if (size == values.length) {
+        values = Arrays.copyOf(values, 2 * size);
+      }
+      values[size] = value;
+      size++;
+      table[slot] = size;
+      if (2 * size > table.length) {
+        rehash();
+      }
+      return true;
+    }
+
+    boolean contains(long value) {
+      return table[find(value)] != 0;
+    }
+
+    // Returns the slot that holds the given value, or the empty slot where it
+    // would be stored.
+    private int find(long value) {
+      int mask = table.length - 1;
+      int slot = hash(value) & mask;
+      while (table[slot] != 0 && values[table[slot] - 1] != value) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    private void rehash() {
+      table = new int[2 * table.length];
+      int mask = table.length - 1;
+      for (int i = 0; i < size; i++) {
+        int slot = hash(values[i]) & mask;
+        while (table[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = i + 1;
+      }
+    }
+
+    private static int hash(long value) {
+      long h = value * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ (h >>> 32));
+    }
+  }
+
+  /**
+   * The values of the kinds that can be used as some input type, as
+   * one-statement sequences.
+   */
+  private final class Candidates extends IndexedSimpleList<Sequence>
+      implements WeightedSelection<Sequence> {
+
+    private final int[] kinds;
+
+    Candidates(int[] kinds) {
+      this.kinds = kinds;
+    }
+
+    @Override
+    public int size() {
+      int size = 0;
+      for (int kind : kinds) {
+        size += count(kind);
+      }
+      return size;
+    }
+
+    @Override
+    public Sequence get(int index) {
+      if (index < 0) {
+        throw new IllegalArgumentException("index must be between 0 and size()-1");
+      }
+      int position = index;
+      for (int kind : kinds) {
+        int count = count(kind);
+        if (position < count) {
+          return sequence(kind, position);
+        }
+        position -= count;
+      }
+      throw new IllegalArgumentException("index must be between 0 and size()-1");
+    }
+
+    // Each sequence has one statement, and so weight 1.
+    @Override
+    public double getTotalWeight() {
+      return size();
+    }
+
+    @Override
+    public Sequence getByWeight(double point) {
+      return get(Math.min((int) point, size() - 1));
+    }
+  }
+}
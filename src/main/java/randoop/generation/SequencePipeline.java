@@ -0,0 +1,172 @@
+package randoop.generation;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import randoop.BugInRandoopException;
+import randoop.ExecutionVisitor;
+import randoop.sequence.ExecutableSequence;
+import randoop.test.TestCheckGenerator;
+import randoop.util.Randomness;
+
+/**
+ * The execution and check-generation stage of pipelined generation. A
+ * sequence submitted to the pipeline is executed, and its checks are then
+ * generated, by a single worker thread, while the generator constructs further
+ * sequences. The worker handles one sequence at a time, in submission order,
+ * so the code under test, the execution visitor and the check generator are
+ * only ever used by one thread, and the checks of a sequence are generated
+ * before the next sequence is executed.
+ * <p>
+ * The pipeline holds at most a fixed number of sequences. Each sequence is
+ * executed and checked with its own random generator, derived from the random
+ * seed and the position of the sequence in submission order, so that its
+ * checks do not depend on how far the generator has got meanwhile.
+ */
+final class SequencePipeline {
+
+  private final int depth;
+
+  private final long seed;
+
+  private final ExecutionVisitor visitor;
+
+  private final TestCheckGenerator checkGenerator;
+
+  private final ExecutorService worker;
+
+  // The sequences in the pipeline, in submission order.
+  private final Queue<Stage> stages = new ArrayDeque<>();
+
+  // The number of sequences submitted so far.
+  private int submitted = 0;
+
+  /**
+   * Creates a pipeline.
+   *
+   * @param depth  the maximum number of sequences in the pipeline
+   * @param seed  the seed from which the random generator of each sequence is
+   *          derived
+   * @param visitor  the visitor for execution
+   * @param checkGenerator  the generator of checks
+   */
+  SequencePipeline(
+      int depth, long seed, ExecutionVisitor visitor, TestCheckGenerator checkGenerator) {
+    if (depth < 1) throw new IllegalArgumentException("depth must be positive");
+    this.depth = depth;
+    this.seed = seed;
+    this.visitor = visitor;
+    this.checkGenerator = checkGenerator;
+    this.worker =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(depth),
+            new ThreadFactory() {
+              @Override
+              public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "randoop-execution");
+                thread.setDaemon(true);
+                return thread;
+              }
+            });
+  }
+
+  /**
+   * Indicates whether this pipeline holds as many sequences as it can.
+   *
+   * @return true if a sequence must be taken before another is submitted
+   */
+  boolean isFull() {
+    return stages.size() >= depth;
+  }
+
+  /**
+   * Submits a sequence, which this pipeline executes and then generates checks
+   * for.
+   *
+   * @param eSeq  the sequence
+   */
+  void submit(ExecutableSequence eSeq) {
+    if (isFull()) {
+      throw new IllegalStateException("pipeline is full");
+    }
+    Stage stage = new Stage(eSeq, new Random(Randomness.splitSeed(seed, submitted++)));
+    stage.result = worker.submit(stage);
+    stages.add(stage);
+  }
+
+  /**
+   * Waits until the earliest submitted sequence in this pipeline has been
+   * executed and checked, and removes it. If the current thread is
+   * interrupted while it waits, the sequence stays in the pipeline, the
+   * interrupt status of the thread is set again, and null is returned, so that
+   * the generator can stop.
+   *
+   * @return the earliest submitted sequence, or null if this pipeline is empty
+   *         or the wait was interrupted
+   */
+  ExecutableSequence take() {
+    Stage stage = stages.peek();
+    if (stage == null) {
+      return null;
+    }
+    try {
+      stage.result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException e) {
+      throw new BugInRandoopException(e.getCause());
+    }
+    stages.remove();
+    return stage.eSeq;
+  }
+
+  /**
+   * Stops the worker thread of this pipeline, abandoning any sequences still
+   * in it. To keep them, take them first.
+   */
+  void shutdown() {
+    worker.shutdownNow();
+    stages.clear();
+  }
+
+  /** A sequence in the pipeline. Running it executes and checks the sequence. */
+  private final class Stage implements Runnable {
+
+    final ExecutableSequence eSeq;
+
+    private final Random random;
+
+    Future<?> result;
+
+    Stage(ExecutableSequence eSeq, Random random) {
+      this.eSeq = eSeq;
+      this.random = random;
+    }
+
+    @Override
+    public void run() {
+      Randomness.setThreadRandom(random);
+      try {
+        long startTime = System.nanoTime();
+        eSeq.execute(visitor);
+        eSeq.generateChecks(checkGenerator);
+        eSeq.exectime = System.nanoTime() - startTime;
+      } finally {
+        Randomness.setThreadRandom(null);
+      }
+    }
+  }
+}
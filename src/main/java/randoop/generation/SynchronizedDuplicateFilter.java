@@ -0,0 +1,51 @@
+package randoop.generation;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import randoop.sequence.Sequence;
+
+/**
+ * A {@link DuplicateFilter} that several threads can use at once, by
+ * synchronizing each call to another filter on this filter.
+ */
+public class SynchronizedDuplicateFilter implements DuplicateFilter {
+
+  private final DuplicateFilter filter;
+
+  /**
+   * Creates a filter that records sequences in the given filter.
+   *
+   * @param filter  the filter to synchronize; not to be used directly after
+   */
+  public SynchronizedDuplicateFilter(DuplicateFilter filter) {
+    if (filter == null) throw new IllegalArgumentException("filter is null");
+    this.filter = filter;
+  }
+
+  @Override
+  public synchronized boolean add(Sequence sequence) {
+    return filter.add(sequence);
+  }
+
+  @Override
+  public synchronized boolean contains(Sequence sequence) {
+    return filter.contains(sequence);
+  }
+
+  @Override
+  public synchronized int size() {
+    return filter.size();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The set is a copy, which does not reflect later additions.
+   */
+  @Override
+  public synchronized Set<Sequence> getSequences() {
+    return Collections.unmodifiableSet(new LinkedHashSet<>(filter.getSequences()));
+  }
+}
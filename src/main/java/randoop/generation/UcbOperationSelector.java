@@ -0,0 +1,111 @@
+package randoop.generation;
+
+import java.util.List;
+
+import randoop.operation.TypedOperation;
+import randoop.util.Randomness;
+
+/**
+ * Selects operations by the upper confidence bound (UCB1) policy for the
+ * multi-armed bandit problem, where each operation is an arm and the payoff
+ * of a step is its reward per statement executed.
+ * <p>
+ * Each operation is first selected once. After that, the selected operation is
+ * one with the largest index
+ * <pre>
+ *   rate / maxRate + sqrt(2 ln N / n)
+ * </pre>
+ * where rate is the mean reward of the steps for the operation divided by
+ * their mean number of executed statements, in units of the mean of all
+ * steps; maxRate is the largest rate of any operation, so that the first term
+ * is between 0 and 1, like the payoffs for which UCB1 is defined; N is the
+ * number of selections of any operation; and n is the number of selections of
+ * the operation. Ties are broken at random, with {@link Randomness}.
+ * <p>
+ * The cost of a step is the number of statements it executed rather than its
+ * time, so that for a given random seed the selections are the same from run
+ * to run. Longer sequences take longer to execute, but an operation whose
+ * calls are slow is not penalized; {@link CostAwareOperationSelector} weighs
+ * the measured times instead.
+ */
+public final class UcbOperationSelector extends AbstractOperationSelector {
+
+  private int totalSelections = 0;
+
+  // The positions of the operations tied for selection, and the rate of the
+  // operation at each position; reused from one selection to the next.
+  private int[] best = new int[0];
+  private double[] rates = new double[0];
+
+  /**
+   * Creates a selector over the given operations. The selector removes
+   * operations from the list itself.
+   *
+   * @param operations  the operations to select from
+   */
+  public UcbOperationSelector(List<TypedOperation> operations) {
+    super(operations);
+  }
+
+  @Override
+  public TypedOperation selectOperation() {
+    if (operations.isEmpty()) {
+      return null;
+    }
+    double meanStatements = getMeanStepStatements();
+    double logSelections = Math.log(Math.max(totalSelections, 1));
+
+    // The rates, and their maximum, of the operations that have been tried.
+    if (rates.length < operations.size()) {
+      int length = Math.max(operations.size(), 2 * rates.length);
+      rates = new double[length];
+      best = new int[length];
+    }
+    double maxRate = 0;
+    int bestCount = 0;
+    for (int i = 0; i < operations.size(); i++) {
+      OperationStatistics stats = getStatisticsAt(i);
+      if (stats.getSelections() == 0) {
+        best[bestCount++] = i;
+        continue;
+      }
+      rates[i] = rate(stats, meanStatements);
+      maxRate = Math.max(maxRate, rates[i]);
+    }
+
+    if (bestCount == 0) {
+      double bestIndex = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < operations.size(); i++) {
+        OperationStatistics stats = getStatisticsAt(i);
+        double exploitation = (maxRate == 0) ? 0 : rates[i] / maxRate;
+        double index = exploitation + Math.sqrt(2 * logSelections / stats.getSelections());
+        if (index > bestIndex) {
+          bestIndex = index;
+          bestCount = 0;
+        }
+        if (index == bestIndex) {
+          best[bestCount++] = i;
+        }
+      }
+    }
+    int position = best[Randomness.nextRandomInt(bestCount)];
+    getStatisticsAt(position).recordSelection();
+    totalSelections++;
+    return operations.get(position);
+  }
+
+  // Returns the mean reward per executed statement of the steps for an
+  // operation, where the unit is the given mean number of statements of all
+  // steps. An operation with no recorded outcome is assumed to be as
+  // productive as a step of mean cost with the largest reward.
+  private static double rate(OperationStatistics stats, double meanStatements) {
+    if (stats.getOutcomes() == 0) {
+      return 1;
+    }
+    double reward = stats.getTotalReward() / stats.getOutcomes();
+    if (stats.getTotalStatements() == 0 || meanStatements == 0) {
+      return reward;
+    }
+    return reward * meanStatements * stats.getOutcomes() / stats.getTotalStatements();
+  }
+}
@@ -0,0 +1,33 @@
+package randoop.generation;
+
+import java.util.List;
+
+import randoop.operation.TypedOperation;
+import randoop.util.Randomness;
+
+/**
+ * Selects each operation with the same probability, regardless of the
+ * outcomes of earlier steps.
+ */
+public final class UniformOperationSelector extends AbstractOperationSelector {
+
+  /**
+   * Creates a selector over the given operations. The selector removes
+   * operations from the list itself.
+   *
+   * @param operations  the operations to select from
+   */
+  public UniformOperationSelector(List<TypedOperation> operations) {
+    super(operations);
+  }
+
+  @Override
+  public TypedOperation selectOperation() {
+    if (operations.isEmpty()) {
+      return null;
+    }
+    int position = Randomness.nextRandomInt(operations.size());
+    getStatisticsAt(position).recordSelection();
+    return operations.get(position);
+  }
+}
@@ -439,6 +439,27 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Maximum length of Strings in generated tests")
   public static int string_maxlen = 10000;
 
+  /**
+   * A pool snapshot written by <code>--save-pool</code> in an earlier run. Its
+   * sequences are added to the components as if this run had generated them,
+   * so that generation starts from the objects built by the earlier run: they
+   * are not generated again, and can be evicted or cleared. A snapshot saved
+   * for a different classpath or set of methods under test is loaded anyway,
+   * and its sequences that call methods or constructors that no longer exist
+   * are dropped.
+   */
+  @Option("Load component sequences from a pool snapshot written by --save-pool")
+  public static File load_pool = null;
+
+  /**
+   * Write the component sequences to the given file at the end of generation,
+   * as a pool snapshot that a later run can load with <code>--load-pool</code>.
+   * The snapshot records a hash of the classpath and of the methods under
+   * test.
+   */
+  @Option("Save the component sequences to a pool snapshot file")
+  public static File save_pool = null;
+
   ///////////////////////////////////////////////////////////////////
   /**
    * Try to reuse values from a sequence with the given frequency. If an alias
@@ -481,6 +502,159 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Clear the component set when it gets this big")
   public static int clear = 100000000;
 
+  /**
+   * How Randoop remembers the sequences it has generated, so that it does not
+   * generate the same sequence twice.
+   *
+   * @see DuplicateFilterMode
+   */
+  @Option("How to detect duplicate sequences: EXACT, FINGERPRINT, or BLOOM")
+  public static DuplicateFilterMode duplicate_filter = DuplicateFilterMode.EXACT;
+
+  /**
+   * The possible values of the duplicate_filter command-line argument.
+   *
+   * @see #duplicate_filter
+   */
+  public enum DuplicateFilterMode {
+    /** keep every generated sequence, and compare new sequences to them */
+    EXACT,
+    /**
+     * keep only a 128-bit fingerprint of each generated sequence; a new
+     * sequence is discarded if its fingerprint was seen before
+     */
+    FINGERPRINT,
+    /**
+     * keep a Bloom filter of the generated sequences; a new sequence is
+     * discarded with probability <code>--bloom-false-positive-rate</code> even
+     * if it was not generated before
+     */
+    BLOOM
+  }
+
+  /**
+   * How Randoop remembers the sequences that it has used as inputs to other
+   * sequences. A regression test whose sequence was used as an input is
+   * subsumed by a longer test, and is not output. With FINGERPRINT or BLOOM,
+   * the input sequences are not kept in memory until the end of the run; with
+   * BLOOM, a test is dropped with probability
+   * <code>--bloom-false-positive-rate</code> even if it is not subsumed.
+   *
+   * @see DuplicateFilterMode
+   */
+  @Option("How to remember subsumed sequences: EXACT, FINGERPRINT, or BLOOM")
+  public static DuplicateFilterMode subsumed_filter = DuplicateFilterMode.EXACT;
+
+  /**
+   * The probability that a new sequence is wrongly discarded as a duplicate
+   * when using <code>--duplicate-filter=BLOOM</code>, or that a test is wrongly
+   * treated as subsumed when using <code>--subsumed-filter=BLOOM</code>. The
+   * Bloom filter grows as more sequences are recorded, and its overall false
+   * positive rate stays below this bound.
+   */
+  @Option("False positive rate for --duplicate-filter=BLOOM and --subsumed-filter=BLOOM")
+  public static double bloom_false_positive_rate = 0.001;
+
+  /**
+   * The maximum number of generated sequences that the component set holds for
+   * each type. When the limit for a type is reached, a new sequence for the
+   * type replaces one chosen by <code>--pool-eviction</code>. Seed sequences
+   * and literals are always kept, and do not count towards the limit. 0 means
+   * no limit.
+   * <p>
+   * A positive limit requires <code>--duplicate-filter</code> and
+   * <code>--subsumed-filter</code> to be FINGERPRINT or BLOOM, since the EXACT
+   * filters keep every generated sequence, including the evicted ones.
+   */
+  @Option("Maximum number of generated sequences kept for each type (0 = no limit)")
+  public static int pool_type_capacity = 0;
+
+  /**
+   * Which sequence to evict from the component set when it holds
+   * <code>--pool-type-capacity</code> sequences of a type.
+   *
+   * @see EvictionPolicyMode
+   */
+  @Option("How to evict sequences when --pool-type-capacity is reached")
+  public static EvictionPolicyMode pool_eviction = EvictionPolicyMode.LRU;
+
+  /**
+   * The possible values of the pool_eviction command-line argument.
+   *
+   * @see #pool_eviction
+   */
+  public enum EvictionPolicyMode {
+    /** evict the sequence least recently used as input to a new sequence */
+    LRU,
+    /**
+     * evict the sequence least often used as input to a new sequence, breaking
+     * ties by least recent use
+     */
+    LFU,
+    /** evict the largest sequence */
+    LARGEST,
+    /**
+     * keep a uniform random sample of the sequences generated for each type
+     * (reservoir sampling)
+     */
+    RANDOM
+  }
+
+  /**
+   * How Randoop chooses the method or constructor that each new sequence
+   * calls.
+   *
+   * @see OperationSelectionMode
+   */
+  @Option("How to choose the operation of each new sequence: UNIFORM, UCB, or COST")
+  public static OperationSelectionMode operation_selection = OperationSelectionMode.UNIFORM;
+
+  /**
+   * The possible values of the operation_selection command-line argument.
+   *
+   * @see #operation_selection
+   */
+  public enum OperationSelectionMode {
+    /** choose each operation with the same probability */
+    UNIFORM,
+    /**
+     * favor the operations whose sequences were most often extensible or
+     * created values of new classes, per statement executed, while still
+     * trying the others (the UCB1 multi-armed bandit policy)
+     */
+    UCB,
+    /**
+     * choose each operation with probability inversely proportional to the
+     * mean time of its steps, and limit slow operations to
+     * <code>--slow-operation-share</code> of the time
+     */
+    COST
+  }
+
+  /**
+   * With <code>--operation-selection=COST</code>, the largest share of the
+   * wall-clock time that the steps for a slow operation may take. An operation
+   * is slow if its calls regularly take longer than an average generation
+   * step. Once a slow operation exceeds its share, it is not chosen again until
+   * its share drops below the limit.
+   */
+  @Option("Share of the time that a slow operation may use with --operation-selection=COST")
+  public static double slow_operation_share = 0.1;
+
+  /**
+   * Temporarily stop choosing an operation for which Randoop could not find
+   * inputs because no component has a value of one of its input types, for
+   * example because no sequence creates a receiver for it yet. Each
+   * consecutive failure doubles the number of steps for which the operation
+   * is not chosen, and the operation is chosen again as soon as a sequence,
+   * primitive value or literal provides a value usable as that type. Failures
+   * that are a matter of chance, such as a null receiver, do not withhold the
+   * operation. After generation, Randoop lists the operations for which it never
+   * found inputs.
+   */
+  @Option("Back off from operations for which no inputs were found")
+  public static boolean operation_backoff = false;
+
   ///////////////////////////////////////////////////////////////////
   @OptionGroup("Outputting the JUnit tests")
 
@@ -575,6 +749,35 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("The random seed to use in the generation process")
   public static int randomseed = (int) Randomness.SEED;
 
+  /**
+   * The number of threads that generate sequences. With more than one
+   * thread, Randoop works in rounds: in each round, every thread constructs and
+   * executes a few new sequences, each thread with its own random generator
+   * derived from <code>--randomseed</code> and the index of the thread, and
+   * with the component set as of the start of the round. Randoop then adds the
+   * new sequences to the component set in thread order. For a given random
+   * seed and number of threads, the generated tests are the same from run to
+   * run. The code under test and any <code>--visitor</code> must tolerate being
+   * called from several threads at once, and the number of generated sequences
+   * can exceed <code>--inputlimit</code> by up to one round.
+   */
+  @Option("Number of threads that generate sequences")
+  public static int threads = 1;
+
+  /**
+   * The number of sequences between construction and addition to the
+   * component set, when generation is pipelined, or 0 to not pipeline
+   * generation. A pipelined generator constructs new sequences while a
+   * single other thread executes earlier ones, and generates their checks,
+   * one sequence at a time. A new sequence cannot use the sequences still in
+   * the pipeline as inputs, so the tests depend on the depth; for a given
+   * random seed and depth, they are the same from run to run. The code under
+   * test is called from that other thread rather than the main thread. Has no
+   * effect with <code>--dont-execute</code>.
+   */
+  @Option("Number of sequences in the generation pipeline; 0 for none")
+  public static int pipeline_depth = 0;
+
   ///////////////////////////////////////////////////////////////////
   @OptionGroup("Notifications")
   @Option("Do not display progress update message to console")
@@ -642,6 +845,62 @@ public abstract class GenInputsAbstract extends CommandHandler {
           "Maximum sequence size must be greater than zero but was " + maxsize);
     }
 
+    if (bloom_false_positive_rate <= 0 || bloom_false_positive_rate >= 1) {
+      throw new RuntimeException("Bloom filter false positive rate must be between 0 and 1.");
+    }
+
+    if (pipeline_depth < 0) {
+      throw new RuntimeException("Pipeline depth must be non-negative but was " + pipeline_depth);
+    }
+
+    if (pipeline_depth > 0 && include_if_class_exercised != null) {
+      throw new RuntimeException(
+          "Invalid parameter combination: --pipeline-depth is positive, but"
+              + " --include-if-class-exercised measures coverage of one sequence at a time");
+    }
+
+    if (threads < 1) {
+      throw new RuntimeException("Number of threads must be positive but was " + threads);
+    }
+
+    if (threads > 1 && include_if_class_exercised != null) {
+      throw new RuntimeException(
+          "Invalid parameter combination: --threads is greater than 1, but"
+              + " --include-if-class-exercised measures coverage of one sequence at a time");
+    }
+
+    if (threads > 1 && pipeline_depth > 0) {
+      throw new RuntimeException(
+          "Invalid parameter combination: --threads is greater than 1, but --pipeline-depth is"
+              + " positive; use one or the other");
+    }
+
+    if (threads > 1 && pool_type_capacity > 0) {
+      throw new RuntimeException(
+          "Invalid parameter combination: --threads is greater than 1, but --pool-type-capacity"
+              + " is positive; the component set of several threads cannot be bounded");
+    }
+
+    if (slow_operation_share <= 0 || slow_operation_share > 1) {
+      throw new RuntimeException(
+          "Slow operation share must be greater than 0 and at most 1 but was "
+              + slow_operation_share);
+    }
+
+    if (pool_type_capacity < 0) {
+      throw new RuntimeException(
+          "Pool capacity per type must be non-negative but was " + pool_type_capacity);
+    }
+
+    if (pool_type_capacity > 0
+        && (duplicate_filter == DuplicateFilterMode.EXACT
+            || subsumed_filter == DuplicateFilterMode.EXACT)) {
+      throw new RuntimeException(
+          "Invalid parameter combination: --pool-type-capacity is positive, but an EXACT"
+              + " --duplicate-filter or --subsumed-filter keeps every generated sequence;"
+              + " use FINGERPRINT or BLOOM");
+    }
+
     if (!literals_file.isEmpty() && literals_level == ClassLiteralsMode.NONE) {
       throw new RuntimeException(
           "Invalid parameter combination: specified a class literal file but --use-class-literals=NONE");
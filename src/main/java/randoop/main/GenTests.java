@@ -1,6 +1,7 @@
 package randoop.main;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -21,6 +22,7 @@ import randoop.generation.AbstractGenerator;
 import randoop.generation.ComponentManager;
 import randoop.generation.ForwardGenerator;
 import randoop.generation.RandoopListenerManager;
+import randoop.generation.PoolSnapshot;
 import randoop.generation.SeedSequences;
 import randoop.instrument.ExercisedClassVisitor;
 import randoop.operation.Operation;
@@ -229,7 +231,14 @@ public class GenTests extends GenInputsAbstract {
     components.addAll(SeedSequences.defaultSeeds());
     components.addAll(operationModel.getAnnotatedTestValues());
 
-    ComponentManager componentMgr = new ComponentManager(components);
+    // Identifies the classpath and operations of this run in pool snapshots.
+    long poolKey = 0;
+    if (GenInputsAbstract.load_pool != null || GenInputsAbstract.save_pool != null) {
+      poolKey = PoolSnapshot.computeKey(System.getProperty("java.class.path"), model);
+    }
+
+    ComponentManager componentMgr = new ComponentManager(components, GenInputsAbstract.threads > 1);
+    componentMgr.addOperationTypes(model);
     operationModel.addClassLiterals(
         componentMgr, GenInputsAbstract.literals_file, GenInputsAbstract.literals_level);
 
@@ -255,11 +264,24 @@ public class GenTests extends GenInputsAbstract {
     /*
      * Create the generator for this session.
      */
-    AbstractGenerator explorer;
+    ForwardGenerator explorer;
     explorer =
         new ForwardGenerator(
             model, observers, timelimit * 1000, inputlimit, outputlimit, componentMgr, listenerMgr);
 
+    // Sequences loaded from a snapshot are components generated earlier, not
+    // seeds: they can be evicted or cleared, and are not generated again.
+    if (GenInputsAbstract.load_pool != null) {
+      try {
+        List<Sequence> loaded = PoolSnapshot.load(GenInputsAbstract.load_pool, poolKey);
+        loaded.removeAll(components);
+        explorer.addLoadedSequences(loaded);
+      } catch (IOException e) {
+        System.out.printf("Error loading pool snapshot %s: %s%n", GenInputsAbstract.load_pool, e);
+        System.exit(1);
+      }
+    }
+
     /*
      * setup for check generation
      */
@@ -349,6 +371,27 @@ public class GenTests extends GenInputsAbstract {
       System.exit(1);
     }
 
+    if (GenInputsAbstract.operation_backoff && !GenInputsAbstract.noprogressdisplay) {
+      List<TypedOperation> unsatisfiable = explorer.getUnsatisfiableOperations();
+      if (!unsatisfiable.isEmpty()) {
+        System.out.printf(
+            "%nOperations for which no inputs were found: %d%n", unsatisfiable.size());
+        for (TypedOperation operation : unsatisfiable) {
+          System.out.printf("  %s%n", operation);
+        }
+      }
+    }
+
+    if (GenInputsAbstract.save_pool != null) {
+      try {
+        PoolSnapshot.save(
+            GenInputsAbstract.save_pool, poolKey, componentMgr.getAllGeneratedSequences());
+      } catch (IOException e) {
+        System.out.printf("Error saving pool snapshot %s: %s%n", GenInputsAbstract.save_pool, e);
+        System.exit(1);
+      }
+    }
+
     /* post generation */
     if (GenInputsAbstract.dont_output_tests) {
       return true;
@@ -58,9 +58,9 @@ public class ArrayCreation extends CallableOperation {
   public ExecutionOutcome execute(Object[] input, PrintStream out) {
     assert input.length == 1 : "requires array length as input";
     int length = Integer.parseInt(input[0].toString());
-    long startTime = System.currentTimeMillis();
+    long startTime = System.nanoTime();
     Object theArray = Array.newInstance(this.elementType.getRuntimeClass(), length);
-    long totalTime = System.currentTimeMillis() - startTime;
+    long totalTime = System.nanoTime() - startTime;
     return new NormalExecution(theArray, totalTime);
   }
 
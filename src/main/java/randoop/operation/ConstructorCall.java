@@ -217,12 +217,14 @@ public final class ConstructorCall extends CallableOperation {
     ConstructorReflectionCode code =
         new ConstructorReflectionCode(this.constructor, statementInput);
 
+    long startTime = System.nanoTime();
     Throwable thrown = ReflectionExecutor.executeReflectionCode(code, out);
+    long totalTime = System.nanoTime() - startTime;
 
     if (thrown == null) {
-      return new NormalExecution(code.getReturnVariable(), 0);
+      return new NormalExecution(code.getReturnVariable(), totalTime);
     } else {
-      return new ExceptionalExecution(thrown, 0);
+      return new ExceptionalExecution(thrown, totalTime);
     }
   }
 
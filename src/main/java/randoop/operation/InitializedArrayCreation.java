@@ -74,11 +74,11 @@ public final class InitializedArrayCreation extends CallableOperation {
       String msg = "Too many arguments:" + statementInput.length + " capacity:" + length;
       throw new IllegalArgumentException(msg);
     }
-    long startTime = System.currentTimeMillis();
+    long startTime = System.nanoTime();
     assert statementInput.length == this.length;
     Object theArray = Array.newInstance(this.elementType.getRuntimeClass(), this.length);
     for (int i = 0; i < statementInput.length; i++) Array.set(theArray, i, statementInput[i]);
-    long totalTime = System.currentTimeMillis() - startTime;
+    long totalTime = System.nanoTime() - startTime;
     return new NormalExecution(theArray, totalTime);
   }
 
@@ -180,12 +180,14 @@ public final class MethodCall extends CallableOperation {
 
     MethodReflectionCode code = new MethodReflectionCode(this.method, receiver, params);
 
+    long startTime = System.nanoTime();
     Throwable thrown = ReflectionExecutor.executeReflectionCode(code, out);
+    long totalTime = System.nanoTime() - startTime;
 
     if (thrown == null) {
-      return new NormalExecution(code.getReturnVariable(), 0);
+      return new NormalExecution(code.getReturnVariable(), totalTime);
     } else {
-      return new ExceptionalExecution(thrown, 0);
+      return new ExceptionalExecution(thrown, totalTime);
     }
   }
 
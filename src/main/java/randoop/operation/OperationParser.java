@@ -114,6 +114,26 @@ public class OperationParser {
    */
   public static String getId(TypedOperation op) {
     if (op == null) throw new IllegalArgumentException("st cannot be null.");
+    String id = idOf(op);
+    if (id == null) throw new Error();
+    return id;
+  }
+
+  /**
+   * Indicates whether the given operation has a textual form that
+   * {@link #parse(String)} can read, that is, whether {@link #getId} accepts
+   * it.
+   *
+   * @param op  the operation
+   * @return true if the operation can be written and parsed, false otherwise
+   */
+  public static boolean isParsable(TypedOperation op) {
+    if (op == null) throw new IllegalArgumentException("st cannot be null.");
+    return idOf(op) != null;
+  }
+
+  // Returns the id of the given operation, or null if it has none.
+  private static String idOf(TypedOperation op) {
     if (op.getOperation() instanceof NonreceiverTerm) return NonreceiverTerm.ID;
     if (op.getOperation() instanceof MethodCall) return MethodCall.ID;
     if (op.getOperation() instanceof ConstructorCall) return ConstructorCall.ID;
@@ -121,6 +141,6 @@ public class OperationParser {
     if (op.getOperation() instanceof EnumConstant) return EnumConstant.ID;
     if (op.getOperation() instanceof FieldGet) return FieldGet.ID;
     if (op.getOperation() instanceof FieldSet) return FieldSet.ID;
-    throw new Error();
+    return null;
   }
 }
@@ -28,10 +28,10 @@ public class ReflectionArrayCreation extends CallableOperation {
 
   @Override
   public ExecutionOutcome execute(Object[] input, PrintStream out) {
-    long startTime = System.currentTimeMillis();
+    long startTime = System.nanoTime();
     assert input.length == 0;
     Object arrayObject = Array.newInstance(this.elementType.getRuntimeClass(), this.length);
-    long totalTime = System.currentTimeMillis() - startTime;
+    long totalTime = System.nanoTime() - startTime;
     return new NormalExecution(arrayObject, totalTime);
   }
 
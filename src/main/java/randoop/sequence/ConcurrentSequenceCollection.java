@@ -0,0 +1,213 @@
+package randoop.sequence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import randoop.types.Type;
+import randoop.util.AppendOnlyList;
+import randoop.util.ArrayListSimpleList;
+import randoop.util.ListOfLists;
+import randoop.util.Log;
+import randoop.util.SimpleList;
+
+/**
+ * A {@link SequencePool} that several threads can add sequences to and query
+ * at the same time.
+ * <p>
+ * The sequences of each type are kept in an {@link AppendOnlyList}, so adding a
+ * sequence only locks the list of its type, and queries never lock: a query
+ * returns a view of the sequences as of the query, built from snapshots of the
+ * lists of the compatible types. The compatible types of each query type are
+ * kept in an immutable list that is replaced when a new type is added, which
+ * is the only operation that takes a lock on the whole collection.
+ * <p>
+ * Queries visit types in the order in which their first sequence was added,
+ * and the sequences of each type in the order in which they were added. So a
+ * query depends only on the additions before it, and with a single thread the
+ * queries are the same for the same additions. The order of the types can
+ * differ from that of a {@link SequenceCollection}, which follows the ids of
+ * its subtype index. Unlike a {@link SequenceCollection}, this collection
+ * cannot be bounded, and does not keep the weights of its sequences, so
+ * selecting a sequence by weight takes time linear in the number of
+ * compatible sequences.
+ */
+public class ConcurrentSequenceCollection implements SequencePool {
+
+  /** The sequences and types of the collection, replaced by {@link #clear()}. */
+  private static final class State {
+
+    // The sequences that create a value of each type.
+    final Map<Type, AppendOnlyList<Sequence>> sequenceMap = new ConcurrentHashMap<>();
+
+    // The types with sequences, in the order in which they were added.
+    final AppendOnlyList<Type> types = new AppendOnlyList<>();
+
+    // Maps each queried type to the lists of the sequences of the compatible
+    // types. The lists are immutable, and replaced when a type is added.
+    final Map<Type, List<AppendOnlyList<Sequence>>> compatibleLists = new ConcurrentHashMap<>();
+
+    final AtomicInteger sequenceCount = new AtomicInteger();
+  }
+
+  private volatile State state = new State();
+
+  /**
+   * Create a new, empty collection.
+   */
+  public ConcurrentSequenceCollection() {}
+
+  /**
+   * Create a new collection and adds the given initial sequences.
+   *
+   * @param initialSequences  the initial collection of sequences
+   */
+  public ConcurrentSequenceCollection(Collection<Sequence> initialSequences) {
+    if (initialSequences == null) throw new IllegalArgumentException("initialSequences is null.");
+    addAll(initialSequences);
+  }
+
+  @Override
+  public int size() {
+    return state.sequenceCount.get();
+  }
+
+  @Override
+  public int numTypes() {
+    return state.types.size();
+  }
+
+  @Override
+  public synchronized void clear() {
+    if (Log.isLoggingOn()) Log.logLine("Clearing sequence collection.");
+    state = new State();
+  }
+
+  @Override
+  public void addAll(Collection<Sequence> sequences) {
+    if (sequences == null) {
+      throw new IllegalArgumentException("sequences is null");
+    }
+    for (Sequence sequence : sequences) {
+      add(sequence);
+    }
+  }
+
+  @Override
+  public void add(Sequence sequence) {
+    State current = state;
+    for (int i = 0; i < sequence.getLastStatementVariableCount(); i++) {
+      int argument = sequence.getLastStatementVariableIndex(i);
+      if (sequence.isActive(argument)) {
+        Type type = sequence.getOutputType(argument);
+        AppendOnlyList<Sequence> list = current.sequenceMap.get(type);
+        if (list == null) {
+          list = addType(current, type);
+        }
+        list.add(sequence);
+        current.sequenceCount.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Adds the given type to the given state, if it is not already in it, and
+   * adds its list of sequences to the compatible lists of the queried types
+   * that it can be used as.
+   *
+   * @param current  the state of this collection
+   * @param type  the type to add
+   * @return the list of the sequences of the type
+   */
+  private synchronized AppendOnlyList<Sequence> addType(State current, Type type) {
+    AppendOnlyList<Sequence> list = current.sequenceMap.get(type);
+    if (list != null) {
+      return list;
+    }
+    if (Log.isLoggingOn()) Log.logLine("Adding sequences of type " + type);
+    list = new AppendOnlyList<>();
+    for (Map.Entry<Type, List<AppendOnlyList<Sequence>>> entry :
+        current.compatibleLists.entrySet()) {
+      if (entry.getKey().isAssignableFrom(type)) {
+        List<AppendOnlyList<Sequence>> lists = new ArrayList<>(entry.getValue());
+        lists.add(list);
+        entry.setValue(Collections.unmodifiableList(lists));
+      }
+    }
+    current.sequenceMap.put(type, list);
+    current.types.add(type);
+    return list;
+  }
+
+  /**
+   * Returns the lists of the sequences of the types that can be used as the
+   * given type, in the order in which the types were added.
+   *
+   * @param current  the state of this collection
+   * @param type  the query type
+   * @return the lists of the sequences compatible with the type
+   */
+  private synchronized List<AppendOnlyList<Sequence>> computeCompatibleLists(
+      State current, Type type) {
+    List<AppendOnlyList<Sequence>> lists = current.compatibleLists.get(type);
+    if (lists != null) {
+      return lists;
+    }
+    lists = new ArrayList<>();
+    for (int i = 0; i < current.types.size(); i++) {
+      Type compatibleType = current.types.get(i);
+      if (type.isAssignableFrom(compatibleType)) {
+        lists.add(current.sequenceMap.get(compatibleType));
+      }
+    }
+    lists = Collections.unmodifiableList(lists);
+    current.compatibleLists.put(type, lists);
+    return lists;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The result is a view of the sequences in this collection as of the call,
+   * which does not change when sequences are added later.
+   */
+  @Override
+  public SimpleList<Sequence> getSequencesForType(Type type, boolean exactMatch) {
+    if (type == null) {
+      throw new IllegalArgumentException("type cannot be null.");
+    }
+    State current = state;
+    if (exactMatch) {
+      AppendOnlyList<Sequence> list = current.sequenceMap.get(type);
+      if (list == null) {
+        return new ArrayListSimpleList<>();
+      }
+      return list.snapshot();
+    }
+    List<AppendOnlyList<Sequence>> lists = current.compatibleLists.get(type);
+    if (lists == null) {
+      lists = computeCompatibleLists(current, type);
+    }
+    List<SimpleList<Sequence>> snapshots = new ArrayList<>(lists.size());
+    for (AppendOnlyList<Sequence> list : lists) {
+      snapshots.add(list.snapshot());
+    }
+    return new ListOfLists<>(snapshots);
+  }
+
+  @Override
+  public Set<Sequence> getAllSequences() {
+    State current = state;
+    Set<Sequence> result = new LinkedHashSet<>();
+    for (int i = 0; i < current.types.size(); i++) {
+      result.addAll(current.sequenceMap.get(current.types.get(i)).toJDKList());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,31 @@
+package randoop.sequence;
+
+import java.util.List;
+
+/**
+ * Chooses which sequence a {@link SequenceCollection} with a capacity per type
+ * evicts, when a new sequence of a type is added and the collection already
+ * holds the maximum number of generated sequences of that type.
+ */
+public interface EvictionPolicy {
+
+  /**
+   * Chooses the sequence to evict to make room for a new sequence.
+   *
+   * @param candidates  the sequences of the type that may be evicted, or a
+   *          random sample of them; not empty
+   * @param usage  the uses of the sequences of the collection
+   * @param incoming  the sequence being added
+   * @param offered  the number of generated sequences of the type that have
+   *          been added to the collection, including {@code incoming}
+   * @param capacity  the maximum number of generated sequences per type
+   * @return the position in {@code candidates} of the sequence to evict, or -1
+   *         if {@code incoming} should not be added instead
+   */
+  int chooseVictim(
+      List<Sequence> candidates,
+      SequenceUsage usage,
+      Sequence incoming,
+      int offered,
+      int capacity);
+}
@@ -1,6 +1,7 @@
 package randoop.sequence;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -10,6 +11,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
+import randoop.BugInRandoopException;
 import randoop.ExceptionalExecution;
 import randoop.ExecutionOutcome;
 import randoop.ExecutionVisitor;
@@ -173,6 +175,24 @@ public class ExecutableSequence {
    */
   public String toCodeString() {
     StringBuilder b = new StringBuilder();
+    try {
+      appendCode(b);
+    } catch (IOException e) {
+      throw new BugInRandoopException(e); // StringBuilder does not throw IOException
+    }
+    return b.toString();
+  }
+
+  /**
+   * Writes this sequence as code, including the checks, to the given
+   * {@code Appendable}. Produces the same text as {@link #toCodeString()}
+   * without building it as a string first.
+   *
+   * @param out  the {@code Appendable} to which the code is written
+   * @throws IOException if {@code out} throws it
+   */
+  public void appendCode(Appendable out) throws IOException {
+    StringBuilder oneStatement = new StringBuilder();
     for (int i = 0; i < sequence.size(); i++) {
 
       // Only print primitive declarations if the last/only statement
@@ -182,28 +202,31 @@ public class ExecutableSequence {
         continue;
       }
 
-      StringBuilder oneStatement = new StringBuilder();
+      oneStatement.setLength(0);
       sequence.appendCode(oneStatement, i);
 
       if (i == sequence.size() - 1 && checks != null) {
-        // Print exception check first, if present.
+        // The exception check, if present, is innermost: its code directly
+        // surrounds the statement, and the code of each other check surrounds
+        // the code of the checks before it.
+        List<Check> surrounding = new ArrayList<>();
         Check exObs = checks.getExceptionCheck();
         if (exObs != null) {
-          oneStatement.insert(0, exObs.toCodeStringPreStatement());
-          oneStatement.append(exObs.toCodeStringPostStatement());
-          oneStatement.append(Globals.lineSep);
+          surrounding.add(exObs);
         }
+        surrounding.addAll(checks.get().keySet());
 
-        // Print the rest of the checks.
-        for (Check d : checks.get().keySet()) {
-          oneStatement.insert(0, d.toCodeStringPreStatement());
-          oneStatement.append(d.toCodeStringPostStatement());
-          oneStatement.append(Globals.lineSep);
+        for (int k = surrounding.size() - 1; k >= 0; k--) {
+          out.append(surrounding.get(k).toCodeStringPreStatement());
+        }
+        out.append(oneStatement);
+        for (Check d : surrounding) {
+          out.append(d.toCodeStringPostStatement()).append(Globals.lineSep);
         }
+      } else {
+        out.append(oneStatement);
       }
-      b.append(oneStatement);
     }
-    return b.toString();
   }
 
   /**
@@ -226,7 +249,30 @@ public class ExecutableSequence {
    *          the check generator for tests
    */
   public void execute(ExecutionVisitor visitor, TestCheckGenerator gen) {
-    execute(visitor, gen, true);
+    execute(visitor, true);
+    generateChecks(gen);
+  }
+
+  /**
+   * Executes sequence, stopping on exceptions, without generating checks.
+   * The checks can be generated later, possibly by another thread, with
+   * {@link #generateChecks(TestCheckGenerator)}.
+   *
+   * @param visitor
+   *          the {@link ExecutionVisitor} that collects checks from results
+   */
+  public void execute(ExecutionVisitor visitor) {
+    execute(visitor, true);
+  }
+
+  /**
+   * Generates the checks for the most recent execution of this sequence.
+   *
+   * @param gen
+   *          the check generator for tests
+   */
+  public void generateChecks(TestCheckGenerator gen) {
+    checks = gen.visit(this);
   }
 
   /**
@@ -256,12 +302,10 @@ public class ExecutableSequence {
    *
    * @param visitor
    *          the {@code ExecutionVisitor}
-   * @param gen
-   *          the check generator
    * @param ignoreException
    *          the flag to indicate exceptions should be ignored
    */
-  private void execute(ExecutionVisitor visitor, TestCheckGenerator gen, boolean ignoreException) {
+  private void execute(ExecutionVisitor visitor, boolean ignoreException) {
 
     visitor.initialize(this);
 
@@ -275,10 +319,7 @@ public class ExecutableSequence {
     for (int i = 0; i < this.sequence.size(); i++) {
 
       // Find and collect the input values to i-th statement.
-      List<Variable> inputs = sequence.getInputs(i);
-      Object[] inputVariables;
-
-      inputVariables = getRuntimeInputs(executionResults.theList, inputs);
+      Object[] inputVariables = getRuntimeInputs(executionResults.theList, i);
 
       visitor.visitBeforeStatement(this, i);
       executeStatement(sequence, executionResults.theList, i, inputVariables);
@@ -308,14 +349,15 @@ public class ExecutableSequence {
     }
 
     visitor.visitAfterSequence(this);
-
-    checks = gen.visit(this);
   }
 
-  private Object[] getRuntimeInputs(List<ExecutionOutcome> outcome, List<Variable> inputs) {
-    Object[] ros = getRuntimeValuesForVars(inputs, outcome);
-    for (Object ro : ros) {
-      if (ro == null) {
+  // Returns the values of the inputs to the given statement, by the indices of
+  // the statements that create them, so that no Variable is allocated.
+  private Object[] getRuntimeInputs(List<ExecutionOutcome> outcome, int statementIndex) {
+    Object[] ros = new Object[sequence.getInputCount(statementIndex)];
+    for (int j = 0; j < ros.length; j++) {
+      ros[j] = getRuntimeValue(outcome, sequence.getInputIndex(statementIndex, j));
+      if (ros[j] == null) {
         this.hasNullInput = true;
       }
     }
@@ -341,44 +383,51 @@ public class ExecutableSequence {
       List<Variable> vars, List<ExecutionOutcome> execution) {
     Object[] runtimeObjects = new Object[vars.size()];
     for (int j = 0; j < runtimeObjects.length; j++) {
-      int creatingStatementIdx = vars.get(j).getDeclIndex();
-      assert execution.get(creatingStatementIdx) instanceof NormalExecution
-          : execution.get(creatingStatementIdx).getClass();
-      NormalExecution ne = (NormalExecution) execution.get(creatingStatementIdx);
-      runtimeObjects[j] = ne.getRuntimeValue();
+      runtimeObjects[j] = getRuntimeValue(execution, vars.get(j).getDeclIndex());
     }
     return runtimeObjects;
   }
 
+  private static Object getRuntimeValue(
+      List<ExecutionOutcome> execution, int creatingStatementIdx) {
+    assert execution.get(creatingStatementIdx) instanceof NormalExecution
+        : execution.get(creatingStatementIdx).getClass();
+    NormalExecution ne = (NormalExecution) execution.get(creatingStatementIdx);
+    return ne.getRuntimeValue();
+  }
+
   // Execute the index-th statement in the sequence.
   // Precondition: this method has been invoked on 0..index-1.
   private static void executeStatement(
       Sequence s, List<ExecutionOutcome> outcome, int index, Object[] inputVariables) {
     Statement statement = s.getStatement(index);
 
+    // assert ((statement.isMethodCall() && !statement.isStatic()) ?
+    // inputVariables[0] != null : true);
+
+    if (!GenInputsAbstract.capture_output) {
+      ExecutionOutcome r = statement.execute(inputVariables, Globals.blackHole);
+      assert r != null;
+      outcome.set(index, r);
+      return;
+    }
+
     // Capture any output Synchronize with ProgressDisplay so that
     // we don't capture its output as well.
     synchronized (ProgressDisplay.print_synchro) {
       PrintStream orig_out = System.out;
       PrintStream orig_err = System.err;
-      if (GenInputsAbstract.capture_output) {
-        System.out.flush();
-        System.err.flush();
-        System.setOut(ps_output_buffer);
-        System.setErr(ps_output_buffer);
-      }
-
-      // assert ((statement.isMethodCall() && !statement.isStatic()) ?
-      // inputVariables[0] != null : true);
+      System.out.flush();
+      System.err.flush();
+      System.setOut(ps_output_buffer);
+      System.setErr(ps_output_buffer);
 
       ExecutionOutcome r = statement.execute(inputVariables, Globals.blackHole);
       assert r != null;
-      if (GenInputsAbstract.capture_output) {
-        System.setOut(orig_out);
-        System.setErr(orig_err);
-        r.set_output(output_buffer.toString());
-        output_buffer.reset();
-      }
+      System.setOut(orig_out);
+      System.setErr(orig_err);
+      r.set_output(output_buffer.toString());
+      output_buffer.reset();
       outcome.set(index, r);
     }
   }
@@ -422,26 +471,26 @@ public class ExecutableSequence {
   public List<ReferenceValue> getLastStatementValues() {
     Set<ReferenceValue> values = new LinkedHashSet<>();
 
-    Object outputValue = getValue(sequence.size() - 1);
+    int lastIndex = sequence.size() - 1;
+    Object outputValue = getValue(lastIndex);
     if (outputValue != null) {
-      Variable outputVariable = sequence.getLastVariable();
-
-      Type outputType = outputVariable.getType();
+      Type outputType = sequence.getOutputType(lastIndex);
 
       if (outputType.isReferenceType() && !outputType.isString()) {
         ReferenceValue value = new ReferenceValue((ReferenceType) outputType, outputValue);
         values.add(value);
-        variableMap.put(outputValue, outputVariable);
+        variableMap.put(outputValue, sequence.getVariable(lastIndex));
       }
     }
 
-    for (Variable inputVariable : sequence.getInputs(sequence.size() - 1)) {
-      Object inputValue = getValue(inputVariable.index);
+    for (int k = 0; k < sequence.getInputCount(lastIndex); k++) {
+      int inputIndex = sequence.getInputIndex(lastIndex, k);
+      Object inputValue = getValue(inputIndex);
       if (inputValue != null) {
-        Type inputType = inputVariable.getType();
+        Type inputType = sequence.getOutputType(inputIndex);
         if (inputType.isReferenceType() && !inputType.isString()) {
           values.add(new ReferenceValue((ReferenceType) inputType, inputValue));
-          variableMap.put(inputValue, inputVariable);
+          variableMap.put(inputValue, sequence.getVariable(inputIndex));
         }
       }
     }
@@ -456,9 +505,10 @@ public class ExecutableSequence {
    * @return the list of input values used to compute values in last statement
    */
   public List<ReferenceValue> getInputValues() {
+    int lastIndex = sequence.size() - 1;
     Set<Integer> skipSet = new HashSet<>();
-    for (Variable inputVariable : sequence.getInputs(sequence.size() - 1)) {
-      skipSet.add(inputVariable.index);
+    for (int k = 0; k < sequence.getInputCount(lastIndex); k++) {
+      skipSet.add(sequence.getInputIndex(lastIndex, k));
     }
 
     Set<ReferenceValue> values = new HashSet<>();
@@ -466,11 +516,10 @@ public class ExecutableSequence {
       if (!skipSet.contains(i)) {
         Object value = getValue(i);
         if (value != null) {
-          Variable variable = sequence.getVariable(i);
-          Type type = variable.getType();
+          Type type = sequence.getOutputType(i);
           if (type.isReferenceType() && !type.isString()) {
             values.add(new ReferenceValue((ReferenceType) type, value));
-            variableMap.put(value, variable);
+            variableMap.put(value, sequence.getVariable(i));
           }
         }
       }
@@ -0,0 +1,51 @@
+package randoop.sequence;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A hash-consing table for immutable objects: {@link #intern(Object)} returns
+ * a canonical instance for each class of equal objects, so that structurally
+ * equal objects are represented by a single object in memory.
+ * <p>
+ * The table holds its canonical instances weakly, so an instance that is no
+ * longer used elsewhere can be garbage collected. The table is synchronized,
+ * since sequences can be built by several threads at once.
+ *
+ * @param <T>  the type of the interned objects
+ */
+final class Interner<T> {
+
+  // Maps each canonical instance to a weak reference to itself. Both key and
+  // value are weak, so the table does not keep canonical instances alive.
+  private final Map<T, WeakReference<T>> table = new WeakHashMap<>();
+
+  /**
+   * Returns the canonical instance equal to the given object. If there is no
+   * such instance, the given object becomes the canonical instance.
+   *
+   * @param value  the object to intern, must be immutable
+   * @return the canonical instance equal to the given object
+   */
+  synchronized T intern(T value) {
+    WeakReference<T> ref = table.get(value);
+    if (ref != null) {
+      T canonical = ref.get();
+      if (canonical != null) {
+        return canonical;
+      }
+    }
+    table.put(value, new WeakReference<>(value));
+    return value;
+  }
+
+  /**
+   * Returns the number of canonical instances in this table.
+   *
+   * @return the number of canonical instances in this table
+   */
+  synchronized int size() {
+    return table.size();
+  }
+}
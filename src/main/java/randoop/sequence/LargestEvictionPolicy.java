@@ -0,0 +1,26 @@
+package randoop.sequence;
+
+import java.util.List;
+
+/**
+ * Evicts the largest sequence, so that the collection favors small sequences,
+ * which are cheaper to execute and combine into new sequences.
+ */
+public class LargestEvictionPolicy implements EvictionPolicy {
+
+  @Override
+  public int chooseVictim(
+      List<Sequence> candidates,
+      SequenceUsage usage,
+      Sequence incoming,
+      int offered,
+      int capacity) {
+    int victim = 0;
+    for (int i = 1; i < candidates.size(); i++) {
+      if (candidates.get(i).size() > candidates.get(victim).size()) {
+        victim = i;
+      }
+    }
+    return victim;
+  }
+}
@@ -0,0 +1,33 @@
+package randoop.sequence;
+
+import java.util.List;
+
+/**
+ * Evicts the sequence that was used least often as input to a new sequence,
+ * according to {@link SequenceUsage#getTimesUsed(Sequence)}. Ties are broken
+ * in favor of evicting the least recently used sequence.
+ */
+public class LfuEvictionPolicy implements EvictionPolicy {
+
+  @Override
+  public int chooseVictim(
+      List<Sequence> candidates,
+      SequenceUsage usage,
+      Sequence incoming,
+      int offered,
+      int capacity) {
+    int victim = 0;
+    for (int i = 1; i < candidates.size(); i++) {
+      Sequence candidate = candidates.get(i);
+      Sequence current = candidates.get(victim);
+      int candidateUses = usage.getTimesUsed(candidate);
+      int currentUses = usage.getTimesUsed(current);
+      if (candidateUses < currentUses
+          || (candidateUses == currentUses
+              && usage.getLastUse(candidate) < usage.getLastUse(current))) {
+        victim = i;
+      }
+    }
+    return victim;
+  }
+}
@@ -0,0 +1,179 @@
+package randoop.sequence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import randoop.types.ClassOrInterfaceType;
+import randoop.types.JavaTypes;
+import randoop.types.Type;
+import randoop.util.IndexedSimpleList;
+import randoop.util.SimpleList;
+import randoop.util.WeightedSelection;
+
+/**
+ * The class- and package-level literals (represented as single-element
+ * sequences) that can be used as inputs to the members of a class.
+ * <p>
+ * The literals of a class C are those added for C and for its superclasses
+ * other than Object, followed by those added for the package of C. They are
+ * gathered, by type, the first time the literals of C are looked up, into an
+ * immutable array per type, so that later lookups are a pair of map lookups.
+ * Adding a literal discards the gathered arrays.
+ */
+public final class LiteralIndex {
+
+  // The literals added for each class, by the type of the literal.
+  private final Map<ClassOrInterfaceType, Map<Type, List<Sequence>>> classLiterals =
+      new LinkedHashMap<>();
+
+  // The literals added for each package, by the type of the literal.
+  private final Map<Package, Map<Type, List<Sequence>>> packageLiterals = new LinkedHashMap<>();
+
+  // The gathered literals of each class that has been looked up, by type.
+  private final Map<ClassOrInterfaceType, Map<Type, SimpleList<Sequence>>> gathered =
+      new HashMap<>();
+
+  private static final SimpleList<Sequence> emptyList = new LiteralList(new Sequence[0]);
+
+  /**
+   * Adds a literal that can be used as input to members of the given class and
+   * of its subclasses.
+   *
+   * @param type  the class
+   * @param seq  the sequence that declares the literal
+   */
+  public void addClassLiteral(ClassOrInterfaceType type, Sequence seq) {
+    if (type == null) throw new IllegalArgumentException("type is null");
+    add(classLiterals, type, seq);
+  }
+
+  /**
+   * Adds a literal that can be used as input to members of the classes in the
+   * given package.
+   *
+   * @param pkg  the package
+   * @param seq  the sequence that declares the literal
+   */
+  public void addPackageLiteral(Package pkg, Sequence seq) {
+    if (pkg == null) throw new IllegalArgumentException("pkg is null");
+    add(packageLiterals, pkg, seq);
+  }
+
+  private <K> void add(Map<K, Map<Type, List<Sequence>>> literals, K key, Sequence seq) {
+    if (seq == null) throw new IllegalArgumentException("seq is null");
+    if (!seq.isPrimitive()) {
+      throw new IllegalArgumentException("seq is not a primitive sequence");
+    }
+    Map<Type, List<Sequence>> byType = literals.get(key);
+    if (byType == null) {
+      byType = new LinkedHashMap<>();
+      literals.put(key, byType);
+    }
+    Type type = seq.getStatement(0).getOutputType();
+    List<Sequence> list = byType.get(type);
+    if (list == null) {
+      list = new ArrayList<>();
+      byType.put(type, list);
+    }
+    list.add(seq);
+    gathered.clear();
+  }
+
+  /**
+   * Returns the literals of exactly the given type that can be used as inputs
+   * to members of the given class.
+   *
+   * @param declaringType  the class
+   * @param type  the type of the literals
+   * @return the literals of the type for the class, which may be empty
+   */
+  public SimpleList<Sequence> getLiterals(ClassOrInterfaceType declaringType, Type type) {
+    Map<Type, SimpleList<Sequence>> byType = gathered.get(declaringType);
+    if (byType == null) {
+      byType = gather(declaringType);
+      gathered.put(declaringType, byType);
+    }
+    SimpleList<Sequence> literals = byType.get(type);
+    return (literals == null) ? emptyList : literals;
+  }
+
+  /**
+   * Gathers the literals of the given class, its superclasses other than
+   * Object, and its package, by type.
+   *
+   * @param declaringType  the class
+   * @return the literals for the class, by type
+   */
+  private Map<Type, SimpleList<Sequence>> gather(ClassOrInterfaceType declaringType) {
+    Map<Type, List<Sequence>> lists = new LinkedHashMap<>();
+    ClassOrInterfaceType c = declaringType;
+    while (c != null && !c.equals(JavaTypes.OBJECT_TYPE)) {
+      addAll(lists, classLiterals.get(c));
+      c = c.getSuperclass();
+    }
+    Package pkg = declaringType.getPackage();
+    if (pkg != null) {
+      addAll(lists, packageLiterals.get(pkg));
+    }
+    Map<Type, SimpleList<Sequence>> result = new HashMap<>();
+    for (Map.Entry<Type, List<Sequence>> entry : lists.entrySet()) {
+      List<Sequence> literals = entry.getValue();
+      result.put(entry.getKey(), new LiteralList(literals.toArray(new Sequence[literals.size()])));
+    }
+    return result;
+  }
+
+  private static void addAll(Map<Type, List<Sequence>> lists, Map<Type, List<Sequence>> literals) {
+    if (literals == null) {
+      return;
+    }
+    for (Map.Entry<Type, List<Sequence>> entry : literals.entrySet()) {
+      List<Sequence> list = lists.get(entry.getKey());
+      if (list == null) {
+        list = new ArrayList<>();
+        lists.put(entry.getKey(), list);
+      }
+      list.addAll(entry.getValue());
+    }
+  }
+
+  /**
+   * An immutable list of literals. Each literal is a one-statement sequence,
+   * and so has weight 1.
+   */
+  private static final class LiteralList extends IndexedSimpleList<Sequence>
+      implements WeightedSelection<Sequence> {
+
+    private final Sequence[] literals;
+
+    LiteralList(Sequence[] literals) {
+      this.literals = literals;
+    }
+
+    @Override
+    public int size() {
+      return literals.length;
+    }
+
+    @Override
+    public Sequence get(int index) {
+      if (index < 0 || index >= literals.length) {
+        throw new IllegalArgumentException("index must be between 0 and size()-1");
+      }
+      return literals[index];
+    }
+
+    @Override
+    public double getTotalWeight() {
+      return literals.length;
+    }
+
+    @Override
+    public Sequence getByWeight(double point) {
+      return get(Math.min((int) point, literals.length - 1));
+    }
+  }
+}
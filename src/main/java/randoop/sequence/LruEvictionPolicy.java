@@ -0,0 +1,26 @@
+package randoop.sequence;
+
+import java.util.List;
+
+/**
+ * Evicts the sequence that was least recently used as input to a new sequence,
+ * according to {@link SequenceUsage#getLastUse(Sequence)}.
+ */
+public class LruEvictionPolicy implements EvictionPolicy {
+
+  @Override
+  public int chooseVictim(
+      List<Sequence> candidates,
+      SequenceUsage usage,
+      Sequence incoming,
+      int offered,
+      int capacity) {
+    int victim = 0;
+    for (int i = 1; i < candidates.size(); i++) {
+      if (usage.getLastUse(candidates.get(i)) < usage.getLastUse(candidates.get(victim))) {
+        victim = i;
+      }
+    }
+    return victim;
+  }
+}
@@ -0,0 +1,26 @@
+package randoop.sequence;
+
+import java.util.List;
+
+import randoop.util.Randomness;
+
+/**
+ * Keeps a uniform random sample of the generated sequences of each type, by
+ * reservoir sampling: the new sequence is added with probability
+ * {@code capacity / offered}, in place of a sequence chosen at random.
+ */
+public class ReservoirEvictionPolicy implements EvictionPolicy {
+
+  @Override
+  public int chooseVictim(
+      List<Sequence> candidates,
+      SequenceUsage usage,
+      Sequence incoming,
+      int offered,
+      int capacity) {
+    if (Randomness.nextRandomInt(offered) >= capacity) {
+      return -1;
+    }
+    return Randomness.nextRandomInt(candidates.size());
+  }
+}
@@ -1,5 +1,6 @@
 package randoop.sequence;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -8,6 +9,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
+import randoop.BugInRandoopException;
 import randoop.Globals;
 import randoop.main.GenInputsAbstract;
 import randoop.operation.OperationParseException;
@@ -17,6 +19,7 @@ import randoop.types.JavaTypes;
 import randoop.types.NonParameterizedType;
 import randoop.types.Type;
 import randoop.util.ArrayListSimpleList;
+import randoop.util.ArraySimpleList;
 import randoop.util.ListOfLists;
 import randoop.util.OneMoreElementList;
 import randoop.util.Randomness;
@@ -37,26 +40,39 @@ import randoop.util.WeightedElement;
  */
 public final class Sequence implements WeightedElement {
 
-  public double lastTimeUsed = java.lang.System.currentTimeMillis();
+  /**
+   * The maximum nesting depth of the statement list of a sequence. A sequence
+   * created by {@link #extend(TypedOperation, List)} or
+   * {@link #concatenate(List)} whose statement list is nested more deeply is
+   * compacted into a flat list, so that statement access does not degrade as
+   * sequences are repeatedly extended. See {@link SimpleList} for details.
+   */
+  private static final int MAX_STATEMENT_LIST_DEPTH = 32;
 
-  /** The list of statements. */
-  public final SimpleList<Statement> statements;
+  /**
+   * Canonical statements, so that equal statements created by different calls
+   * to {@code extend} are represented by one object. See {@link Interner}.
+   */
+  private static final Interner<Statement> statementInterner = new Interner<>();
 
   /**
-   * The variables that are inputs or output for the last statement of this sequence.
-   * These hold the values "produced" by some statement of the sequence.
-   * Should be final but cannot because of serialization.
-   * This info is used by some generators.
+   * Canonical sequences for single primitive, {@code String} or {@code null}
+   * values, which are otherwise re-created every time the same value is used.
    */
-  private transient /* final */ List<Variable> lastStatementVariables;
+  private static final Interner<Sequence> valueSequenceInterner = new Interner<>();
+
+  /** The list of statements. */
+  public final SimpleList<Statement> statements;
 
   /**
-   * The types of the inputs and output for the last statement of this sequence.
-   * Excludes void in the case the output type of the operation of the last statement is void.
+   * The indices of the statements that create the inputs and output for the
+   * last statement of this sequence. These hold the values "produced" by some
+   * statement of the sequence. Excludes the output in the case the output type
+   * of the operation of the last statement is void.
    * Should be final but cannot because of serialization.
    * This info is used by some generators.
    */
-  private transient /* final */ List<Type> lastStatementTypes;
+  private transient /* final */ int[] lastStatementIndices;
 
   /*
    * Weight is used by heuristic that favors smaller sequences so it makes sense
@@ -97,24 +113,37 @@ public final class Sequence implements WeightedElement {
   }
 
   /**
-   * The variables involved in the last statement. This includes the output
-   * variable.
+   * The type of the value created by the ith statement. Equivalent to
+   * {@code getVariable(i).getType()}, but does not allocate any objects.
    *
-   * @return the variables used in the last statement of this sequence
+   * @param i  the statement index
+   * @return the output type of the statement at the given index
    */
-  List<Variable> getVariablesOfLastStatement() {
-    return this.lastStatementVariables;
+  public Type getOutputType(int i) {
+    return this.statements.get(i).getOutputType();
   }
 
   /**
-   * The types of all the variables involved in the last statement. This
-   * includes the output variable. The types returned are not the types in the
-   * signature of the Operation, but the types of the variables.
+   * The number of variables involved in the last statement. This includes the
+   * output variable, unless its type is void.
    *
-   * @return the types of the variables in the last statement of this sequence
+   * @return the number of variables used in the last statement of this sequence
    */
-  List<Type> getTypesForLastStatement() {
-    return this.lastStatementTypes;
+  int getLastStatementVariableCount() {
+    return this.lastStatementIndices.length;
+  }
+
+  /**
+   * The index of the statement that creates the kth variable involved in the
+   * last statement. The output variable, if any, comes first, followed by the
+   * inputs. The type of the variable is {@code getOutputType} of the returned
+   * index, not the type in the signature of the Operation.
+   *
+   * @param k  the position of the variable among the variables of the last statement
+   * @return the index of the statement that creates the variable
+   */
+  int getLastStatementVariableIndex(int k) {
+    return this.lastStatementIndices[k];
   }
 
   /**
@@ -144,13 +173,38 @@ public final class Sequence implements WeightedElement {
    * @return the list of variables for the statement at the given index
    */
   public List<Variable> getInputs(int statementIndex) {
-    List<Variable> inputsAsVariables = new ArrayList<>();
-    for (RelativeNegativeIndex relIndex : this.statements.get(statementIndex).inputs) {
+    int[] relativeInputs = this.statements.get(statementIndex).inputs;
+    List<Variable> inputsAsVariables = new ArrayList<>(relativeInputs.length);
+    for (int relIndex : relativeInputs) {
       inputsAsVariables.add(getVariableForInput(statementIndex, relIndex));
     }
     return inputsAsVariables;
   }
 
+  /**
+   * The number of inputs of the ith statement. Includes the receiver.
+   *
+   * @param statementIndex  the index for the statement
+   * @return the number of inputs of the statement at the given index
+   */
+  public int getInputCount(int statementIndex) {
+    return this.statements.get(statementIndex).inputs.length;
+  }
+
+  /**
+   * The index of the statement that creates the kth input of the ith statement.
+   * Equivalent to {@code getInputs(statementIndex).get(inputIndex).index}, but
+   * does not allocate any objects.
+   *
+   * @param statementIndex  the index for the statement
+   * @param inputIndex  the position of the input in the inputs of the statement
+   * @return the absolute index of the statement creating the input value
+   */
+  public int getInputIndex(int statementIndex, int inputIndex) {
+    return getAbsoluteIndexForInput(
+        statementIndex, this.statements.get(statementIndex).inputs[inputIndex]);
+  }
+
   /**
    * Returns the Java source code representation of this sequence. Similar to
    * {@link ExecutableSequence#toCodeString()} except does not include checks.
@@ -158,15 +212,34 @@ public final class Sequence implements WeightedElement {
    * @return a string containing Java code for this sequence
    */
   public String toCodeString() {
+    StringBuilder b = new StringBuilder();
+    try {
+      appendCode(b);
+    } catch (IOException e) {
+      throw new BugInRandoopException(e); // StringBuilder does not throw IOException
+    }
+    return b.toString();
+  }
+
+  /**
+   * Writes the Java source code representation of this sequence to the given
+   * {@code Appendable}. Produces the same text as {@link #toCodeString()}
+   * without building it as a string first.
+   *
+   * @param out  the {@code Appendable} to which the code is written
+   * @throws IOException if {@code out} throws it
+   */
+  public void appendCode(Appendable out) throws IOException {
     StringBuilder b = new StringBuilder();
     for (int i = 0; i < size(); i++) {
       // don't dump primitive initializations, if using literals
       if (getStatement(i).getShortForm() != null) {
         continue;
       }
+      b.setLength(0);
       appendCode(b, i);
+      out.append(b);
     }
-    return b.toString();
   }
 
   @Override
@@ -202,17 +275,17 @@ public final class Sequence implements WeightedElement {
     activeFlags.clear(i);
   }
 
-  // Used internally (i.e. in package randoop.sequence) to represent inputs
-  // to a statement.
+  // Relative negative indices are used internally (i.e. in package
+  // randoop.sequence) to represent inputs to a statement.
   //
   // IMPLEMENTATION NOTE: Recall that a sequence is a sequence
   // of statements where the inputs to a statement are values created
   // by earlier statements. Instead of using a Variable to represent such
-  // inputs, we use a RelativeNegativeIndex, which is just a wrapper
-  // for an integer. The integer represents a negative offset from the
-  // statement index in which this RelativeNegativeIndex lives, and
+  // inputs, we use a relative negative index, which is just an integer.
+  // The integer represents a negative offset from the
+  // statement index in which the input lives, and
   // the offset points to the statement that created the values that is
-  // used as an input. In other words, a RelativeNegativeIndex says
+  // used as an input. In other words, a relative negative index says
   // "I represent the value created by the N-th statement above me".
   //
   // For example, the sequence
@@ -308,32 +381,6 @@ public final class Sequence implements WeightedElement {
   // Now concatenation is easier: to concatenate two sequences, concatenate
   // their statements. Also, we do not need to create any new
   // statements.
-  static final class RelativeNegativeIndex {
-
-    public final int index;
-
-    RelativeNegativeIndex(int index) {
-      if (index >= 0) {
-        throw new IllegalArgumentException("invalid index (expecting non-positive): " + index);
-      }
-      this.index = index;
-    }
-
-    @Override
-    public String toString() {
-      return Integer.toString(index);
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      return o instanceof RelativeNegativeIndex && this.index == ((RelativeNegativeIndex) o).index;
-    }
-
-    @Override
-    public int hashCode() {
-      return this.index;
-    }
-  }
 
   /**
    * Returns the relative negative index that would result if we use the given
@@ -342,10 +389,22 @@ public final class Sequence implements WeightedElement {
    * @param v  the variable
    * @return the relative negative index computed from the position and variable
    */
-  private static RelativeNegativeIndex getRelativeIndexForVariable(
-      int statementPosition, Variable v) {
-    if (v.index >= statementPosition) throw new IllegalArgumentException();
-    return new RelativeNegativeIndex(-(statementPosition - v.index));
+  private static int getRelativeIndexForVariable(int statementPosition, Variable v) {
+    return getRelativeIndex(statementPosition, v.index);
+  }
+
+  /**
+   * Returns the relative negative index that would result if we use the value
+   * created at the given absolute index as an input to the statement at
+   * position statementPosition.
+   *
+   * @param statementPosition  the position of the statement
+   * @param absoluteIndex  the position of the statement creating the input value
+   * @return the relative negative index computed from the two positions
+   */
+  private static int getRelativeIndex(int statementPosition, int absoluteIndex) {
+    if (absoluteIndex >= statementPosition) throw new IllegalArgumentException();
+    return -(statementPosition - absoluteIndex);
   }
 
   /**
@@ -355,31 +414,47 @@ public final class Sequence implements WeightedElement {
    * @param input  relative index of the input variable
    * @return the variable at the relative index from the given statement position
    */
-  private Variable getVariableForInput(int statementPosition, RelativeNegativeIndex input) {
-    int absoluteIndex = statementPosition + input.index;
+  private Variable getVariableForInput(int statementPosition, int input) {
+    return new Variable(this, getAbsoluteIndexForInput(statementPosition, input));
+  }
+
+  /**
+   * Returns the index of the statement creating the given input, which is an
+   * input to the statement at position statementPosition.
+   *
+   * @param statementPosition  the statement position
+   * @param input  relative index of the input variable
+   * @return the absolute index of the input variable
+   */
+  private static int getAbsoluteIndexForInput(int statementPosition, int input) {
+    int absoluteIndex = statementPosition + input;
     if (absoluteIndex < 0) {
       throw new IllegalArgumentException(
           "invalid index (expecting non-negative): " + absoluteIndex);
     }
-    return new Variable(this, absoluteIndex);
+    return absoluteIndex;
   }
 
   /**
    * Create a new, empty sequence.
    */
   public Sequence() {
-    this(new ArrayListSimpleList<Statement>(), 0, 0);
+    this(new ArrayListSimpleList<Statement>(), 0, 0, 0);
   }
 
   /**
    * Returns a sequence that is of the form "Foo f = null;" where Foo is the
    * given class.
+   * <p>
+   * The returned sequence is canonical and may be shared with other callers,
+   * so its active flags should not be modified.
+   *
    * @param c  the type for initialized variable
    * @return the sequence consisting of the initialization
    */
   public static Sequence zero(Type c) {
-    return new Sequence()
-        .extend(TypedOperation.createNullOrZeroInitializationForType(c), new ArrayList<Variable>());
+    return valueSequenceInterner.intern(
+        new Sequence().extend(TypedOperation.createNullOrZeroInitializationForType(c)));
   }
 
   /**
@@ -388,7 +463,11 @@ public final class Sequence implements WeightedElement {
    * @param statements  the statements
    */
   public Sequence(SimpleList<Statement> statements) {
-    this(statements, computeHashcode(statements), computeNetSize(statements));
+    this(
+        statements,
+        computeHash(statements),
+        computeFingerprint(statements),
+        computeNetSize(statements));
   }
 
   /**
@@ -402,26 +481,70 @@ public final class Sequence implements WeightedElement {
   public static Sequence createSequence(
       TypedOperation operation, List<Sequence> inputSequences, List<Integer> indexes) {
     Sequence inputSequence = Sequence.concatenate(inputSequences);
-    List<Variable> inputs = new ArrayList<>();
-    for (Integer inputIndex : indexes) {
-      Variable v = inputSequence.getVariable(inputIndex);
-      inputs.add(v);
+    int[] inputs = new int[indexes.size()];
+    for (int i = 0; i < inputs.length; i++) {
+      inputs[i] = indexes.get(i);
     }
     return inputSequence.extend(operation, inputs);
   }
 
-  // The hashcode of a sequence is the sum of each statement's hashcode.
-  // This seems good enough, and it makes computing hashCode of a
-  // concatenation of sequences faster (it's just the addition of each
-  // sequence's'
-  // hashCode). Otherwise, hashCode computation used to be a hotspot.
-  private static int computeHashcode(SimpleList<Statement> statements) {
-    int hashCode = 0;
+  // The hash of a sequence is a polynomial in the statement hashcodes,
+  // evaluated modulo 2^64:
+  //
+  //   h(s_0 ... s_{n-1}) = s_0 * P^(n-1) + s_1 * P^(n-2) + ... + s_{n-1}
+  //
+  // Unlike a plain sum, it depends on the order of the statements, so
+  // permutations of the same statements do not collide. It is still cheap to
+  // maintain incrementally: extending a sequence with statement s gives
+  // h * P + s, and the concatenation of a and b gives h(a) * P^|b| + h(b).
+  // Otherwise, hashCode computation used to be a hotspot.
+  //
+  // The fingerprint is computed the same way, but from the statement
+  // fingerprints and with a different multiplier. Together, the hash and the
+  // fingerprint form a 128-bit fingerprint of the sequence.
+  private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  private static final long FINGERPRINT_MULTIPLIER = 0xC2B2AE3D27D4EB4FL;
+
+  private static long computeHash(SimpleList<Statement> statements) {
+    long hash = 0;
+    for (int i = 0; i < statements.size(); i++) {
+      hash = extendHash(hash, statements.get(i));
+    }
+    return hash;
+  }
+
+  private static long computeFingerprint(SimpleList<Statement> statements) {
+    long fingerprint = 0;
     for (int i = 0; i < statements.size(); i++) {
-      Statement s = statements.get(i);
-      hashCode += s.hashCode();
+      fingerprint = extendFingerprint(fingerprint, statements.get(i));
+    }
+    return fingerprint;
+  }
+
+  // Returns the hash of a sequence with the given hash extended by the statement.
+  private static long extendHash(long hash, Statement statement) {
+    return hash * HASH_MULTIPLIER + statement.hashCode();
+  }
+
+  // Returns the fingerprint of a sequence with the given fingerprint extended
+  // by the statement.
+  private static long extendFingerprint(long fingerprint, Statement statement) {
+    return fingerprint * FINGERPRINT_MULTIPLIER + statement.fingerprint();
+  }
+
+  // Returns multiplier^exponent modulo 2^64.
+  private static long multiplierPower(long multiplier, int exponent) {
+    long result = 1;
+    long base = multiplier;
+    while (exponent > 0) {
+      if ((exponent & 1) != 0) {
+        result *= base;
+      }
+      base *= base;
+      exponent >>>= 1;
     }
-    return hashCode;
+    return result;
   }
 
   /**
@@ -442,16 +565,17 @@ public final class Sequence implements WeightedElement {
     return netSize;
   }
 
-  // Create a sequence that has the given statements and hashCode (hashCode is
+  // Create a sequence that has the given statements and hash (hash is
   // for optimization).
   //
-  // See comment at computeHashCode method for notes on hashCode.
-  private Sequence(SimpleList<Statement> statements, int hashCode, int netSize) {
+  // See comment at computeHash method for notes on the hash.
+  private Sequence(SimpleList<Statement> statements, long hash, long fingerprint, int netSize) {
     if (statements == null) {
       throw new IllegalArgumentException("`statements' argument cannot be null");
     }
-    this.statements = statements;
-    this.savedHashCode = hashCode;
+    this.statements = compact(statements);
+    this.savedHash = hash;
+    this.savedFingerprint = fingerprint;
     this.savedNetSize = netSize;
     computeLastStatementInfo();
     this.activeFlags = new BitSet(this.size());
@@ -459,44 +583,53 @@ public final class Sequence implements WeightedElement {
     checkRep();
   }
 
-  // Set lastStatementVariables and lastStatementTypes to their appropriate
-  // values. See documentation for these fields for more info.
-  private void computeLastStatementInfo() {
-    this.lastStatementTypes = new ArrayList<>();
-    this.lastStatementVariables = new ArrayList<>();
-
-    if (!this.statements.isEmpty()) {
-      int lastStatementIndex = this.statements.size() - 1;
-      Statement lastStatement = this.statements.get(lastStatementIndex);
-
-      // Process return value
-      if (!lastStatement.getOutputType().isVoid()) {
-        lastStatementTypes.add(lastStatement.getOutputType());
-        lastStatementVariables.add(new Variable(this, lastStatementIndex));
-      }
+  /**
+   * Returns a flat copy of the given statement list if it is nested more deeply
+   * than {@link #MAX_STATEMENT_LIST_DEPTH}, and otherwise the list itself.
+   *
+   * @param statements  the statement list
+   * @return a list with the same statements whose depth does not exceed the maximum
+   */
+  private static SimpleList<Statement> compact(SimpleList<Statement> statements) {
+    if (statements.depth() > MAX_STATEMENT_LIST_DEPTH) {
+      return new ArraySimpleList<>(statements);
+    }
+    return statements;
+  }
 
-      // Process input arguments.
-      if (lastStatement.inputs.size() != lastStatement.getInputTypes().size()) {
-        throw new RuntimeException(
-            lastStatement.inputs
-                + ", "
-                + lastStatement.getInputTypes()
-                + ", "
-                + lastStatement.toString());
-      }
+  // Set lastStatementIndices to its appropriate value. See documentation for
+  // this field for more info.
+  private void computeLastStatementInfo() {
+    if (this.statements.isEmpty()) {
+      this.lastStatementIndices = new int[0];
+      return;
+    }
 
-      List<Variable> v = this.getInputs(lastStatementIndex);
-      if (v.size() != lastStatement.getInputTypes().size()) {
-        throw new RuntimeException();
-      }
+    int lastStatementIndex = this.statements.size() - 1;
+    Statement lastStatement = this.statements.get(lastStatementIndex);
+
+    // Process input arguments.
+    if (lastStatement.inputs.length != lastStatement.getInputTypes().size()) {
+      throw new RuntimeException(
+          Arrays.toString(lastStatement.inputs)
+              + ", "
+              + lastStatement.getInputTypes()
+              + ", "
+              + lastStatement.toString());
+    }
 
-      for (int i = 0; i < v.size(); i++) {
-        Variable actualArgument = v.get(i);
-        assert lastStatement.getInputTypes().get(i).isAssignableFrom(actualArgument.getType());
-        lastStatementTypes.add(actualArgument.getType());
-        lastStatementVariables.add(actualArgument);
-      }
+    // Process return value
+    int outputCount = lastStatement.getOutputType().isVoid() ? 0 : 1;
+    int[] indices = new int[outputCount + lastStatement.inputs.length];
+    if (outputCount == 1) {
+      indices[0] = lastStatementIndex;
+    }
+    for (int i = 0; i < lastStatement.inputs.length; i++) {
+      int actualArgument = getAbsoluteIndexForInput(lastStatementIndex, lastStatement.inputs[i]);
+      assert lastStatement.getInputTypes().get(i).isAssignableFrom(getOutputType(actualArgument));
+      indices[outputCount + i] = actualArgument;
     }
+    this.lastStatementIndices = indices;
   }
 
   /**
@@ -528,20 +661,19 @@ public final class Sequence implements WeightedElement {
       // The inputs to the statement are valid: there's the right number
       // of them,
       // and they refer to appropriate input values.
-      if (statementWithInputs.getInputTypes().size() != statementWithInputs.inputs.size()) {
+      if (statementWithInputs.getInputTypes().size() != statementWithInputs.inputs.length) {
         throw new IllegalArgumentException(
             "statement.getInputConstraints().size()="
                 + statementWithInputs.getInputTypes().size()
                 + " is different from inputIndices.length="
-                + statementWithInputs.inputs.size()
+                + statementWithInputs.inputs.length
                 + ", sequence: "
                 + this.toString());
       }
-      for (int i = 0; i < statementWithInputs.inputs.size(); i++) {
-        int index = statementWithInputs.inputs.get(i).index;
+      for (int i = 0; i < statementWithInputs.inputs.length; i++) {
+        int index = statementWithInputs.inputs[i];
         if (index >= 0) throw new IllegalStateException();
-        Type newRefConstraint =
-            statements.get(si + statementWithInputs.inputs.get(i).index).getOutputType();
+        Type newRefConstraint = statements.get(si + index).getOutputType();
         if (newRefConstraint == null) throw new IllegalStateException();
         if (!(statementWithInputs.getInputTypes().get(i).isAssignableFrom(newRefConstraint))) {
           throw new IllegalArgumentException(
@@ -574,6 +706,12 @@ public final class Sequence implements WeightedElement {
     if (this.getStatementsWithInputs().size() != other.getStatementsWithInputs().size()) {
       return GenInputsAbstract.debug_checks && verifyFalse("size", other);
     }
+    if (this.savedHash != other.savedHash) {
+      return GenInputsAbstract.debug_checks && verifyFalse("hashCode", other);
+    }
+    if (this.statements == other.statements) {
+      return true;
+    }
     for (int i = 0; i < this.statements.size(); i++) {
       Statement thisStatement = this.statements.get(i);
       Statement otherStatement = other.statements.get(i);
@@ -581,7 +719,8 @@ public final class Sequence implements WeightedElement {
         assert this.statements.get(i) == thisStatement;
         assert other.statements.get(i) == otherStatement;
       }
-      if (!thisStatement.equals(otherStatement)) {
+      // Statements are usually canonical, so most equal statements are identical.
+      if (thisStatement != otherStatement && !thisStatement.equals(otherStatement)) {
         return GenInputsAbstract.debug_checks && verifyFalse("statement index " + i, other);
       }
     }
@@ -596,16 +735,42 @@ public final class Sequence implements WeightedElement {
     return false;
   }
 
-  // A saved copy of this sequence's hashcode to avoid recalculation.
-  private final int savedHashCode;
+  // A saved copy of this sequence's 64-bit hash to avoid recalculation.
+  private final long savedHash;
+
+  // A saved copy of this sequence's fingerprint to avoid recalculation.
+  private final long savedFingerprint;
 
   // A saved copy of this sequence's net size to avoid recomputation.
   private final int savedNetSize;
 
-  // See comment at computeHashCode method for notes on hashCode.
+  // See comment at computeHash method for notes on the hash.
   @Override
   public final int hashCode() {
-    return savedHashCode;
+    return (int) (savedHash ^ (savedHash >>> 32));
+  }
+
+  /**
+   * Returns a 64-bit hash of this sequence. Equal sequences have equal hashes,
+   * and the hash depends on the order of the statements. {@link #hashCode()} is
+   * derived from this value.
+   *
+   * @return the 64-bit hash of this sequence
+   */
+  public final long longHashCode() {
+    return savedHash;
+  }
+
+  /**
+   * Returns a second 64-bit hash of this sequence, computed independently of
+   * {@link #longHashCode()}. Together the two values form a 128-bit
+   * fingerprint: sequences with equal fingerprints are equal with very high
+   * probability.
+   *
+   * @return the second 64-bit hash of this sequence
+   */
+  public final long fingerprint() {
+    return savedFingerprint;
   }
 
   /**
@@ -641,16 +806,37 @@ public final class Sequence implements WeightedElement {
   }
 
   public Variable randomVariableForTypeLastStatement(Type type) {
+    int index = randomIndexForTypeLastStatement(type);
+    if (index < 0) return null;
+    return new Variable(this, index);
+  }
+
+  /**
+   * Selects at random the index of a statement that creates a variable of the
+   * last statement whose type is assignable to the given type. Like
+   * {@link #randomVariableForTypeLastStatement(Type)}, but does not allocate a
+   * {@link Variable}.
+   *
+   * @param type  the type of the desired variable
+   * @return the index of the statement creating the selected variable, or -1
+   *         if no variable of the last statement has a compatible type
+   */
+  public int randomIndexForTypeLastStatement(Type type) {
     if (type == null) throw new IllegalArgumentException("type cannot be null.");
-    List<Variable> possibleIndices = new ArrayList<>(this.lastStatementVariables.size());
-    for (Variable i : this.lastStatementVariables) {
-      Statement s = statements.get(i.index);
-      if (type.isAssignableFrom(s.getOutputType())) {
-        possibleIndices.add(i);
+    int count = 0;
+    for (int i : this.lastStatementIndices) {
+      if (type.isAssignableFrom(getOutputType(i))) {
+        count++;
       }
     }
-    if (possibleIndices.isEmpty()) return null;
-    return Randomness.randomMember(possibleIndices);
+    if (count == 0) return -1;
+    int choice = Randomness.nextRandomInt(count);
+    for (int i : this.lastStatementIndices) {
+      if (type.isAssignableFrom(getOutputType(i)) && choice-- == 0) {
+        return i;
+      }
+    }
+    throw new BugInRandoopException("no compatible variable at position " + choice);
   }
 
   void checkIndex(int i) {
@@ -667,15 +853,48 @@ public final class Sequence implements WeightedElement {
    */
   public final Sequence extend(TypedOperation operation, List<Variable> inputVariables) {
     checkInputs(operation, inputVariables);
-    List<RelativeNegativeIndex> indexList = new ArrayList<>(1);
-    for (Variable v : inputVariables) {
-      indexList.add(getRelativeIndexForVariable(size(), v));
+    int[] indexList = new int[inputVariables.size()];
+    for (int i = 0; i < indexList.length; i++) {
+      indexList[i] = getRelativeIndexForVariable(size(), inputVariables.get(i));
+    }
+    return extend(new Statement(operation, indexList));
+  }
+
+  /**
+   * Returns a new sequence that is equivalent to this sequence plus the given
+   * operation appended to the end. The inputs are given as the indices of the
+   * statements of this sequence that create the input values. Equivalent to
+   * {@link #extend(TypedOperation, List)}, but does not require creating
+   * {@link Variable} objects for the inputs.
+   *
+   * @param operation  the operation to add
+   * @param inputIndices  the indices of the statements creating the input values
+   * @return the sequence formed by appending the given operation to this sequence
+   */
+  public final Sequence extend(TypedOperation operation, int[] inputIndices) {
+    checkInputs(operation, inputIndices);
+    int[] indexList = new int[inputIndices.length];
+    for (int i = 0; i < indexList.length; i++) {
+      indexList[i] = getRelativeIndex(size(), inputIndices[i]);
     }
-    Statement statement = new Statement(operation, indexList);
+    return extend(new Statement(operation, indexList));
+  }
+
+  /**
+   * Returns a new sequence that is equivalent to this sequence plus the given
+   * statement, whose inputs have already been checked.
+   *
+   * @param statement  the statement to add
+   * @return the sequence formed by appending the statement to this sequence
+   */
+  private Sequence extend(Statement statement) {
+    statement = statementInterner.intern(statement);
+    TypedOperation operation = statement.getOperation();
     int newNetSize = (operation.isNonreceivingValue()) ? this.savedNetSize : this.savedNetSize + 1;
     return new Sequence(
         new OneMoreElementList<>(this.statements, statement),
-        this.savedHashCode + statement.hashCode(),
+        extendHash(this.savedHash, statement),
+        extendFingerprint(this.savedFingerprint, statement),
         newNetSize);
   }
 
@@ -709,16 +928,7 @@ public final class Sequence implements WeightedElement {
   // Argument checker for extend method.
   // These checks should be caught by checkRep() too.
   private void checkInputs(TypedOperation operation, List<Variable> inputVariables) {
-    if (operation.getInputTypes().size() != inputVariables.size()) {
-      String msg =
-          "statement.getInputTypes().size():"
-              + operation.getInputTypes().size()
-              + " inputVariables.size():"
-              + inputVariables.size()
-              + " statement:"
-              + operation;
-      throw new IllegalArgumentException(msg);
-    }
+    checkInputCount(operation, inputVariables.size());
     for (int i = 0; i < inputVariables.size(); i++) {
       if (inputVariables.get(i).sequence != this) {
         String msg =
@@ -736,10 +946,20 @@ public final class Sequence implements WeightedElement {
                 + inputVariables;
         throw new IllegalArgumentException(msg);
       }
-      Type newRefConstraint = statements.get(inputVariables.get(i).index).getOutputType();
-      if (newRefConstraint == null) {
+      checkInput(operation, i, inputVariables.get(i).index, inputVariables);
+    }
+  }
+
+  // Argument checker for extend method with input indices.
+  // Does not allocate unless the check fails.
+  private void checkInputs(TypedOperation operation, int[] inputIndices) {
+    checkInputCount(operation, inputIndices.length);
+    for (int i = 0; i < inputIndices.length; i++) {
+      if (!isValidIndex(inputIndices[i])) {
         String msg =
-            "newRefConstraint == null for"
+            "input index "
+                + inputIndices[i]
+                + " not valid for"
                 + Globals.lineSep
                 + "sequence: "
                 + toString()
@@ -747,36 +967,78 @@ public final class Sequence implements WeightedElement {
                 + "statement:"
                 + operation
                 + Globals.lineSep
-                + "inputVariables:"
-                + inputVariables;
-        throw new IllegalArgumentException(msg);
-      }
-      if (!(operation.getInputTypes().get(i).isAssignableFrom(newRefConstraint))) {
-        String msg =
-            i
-                + "th input constraint "
-                + newRefConstraint
-                + " does not imply "
-                + "statement's "
-                + i
-                + "th input constraint "
-                + operation.getInputTypes().get(i)
-                + Globals.lineSep
-                + ".Sequence:"
-                + Globals.lineSep
-                + ""
-                + this.toString()
-                + Globals.lineSep
-                + "statement:"
-                + operation
-                + Globals.lineSep
-                + "inputVariables:"
-                + inputVariables;
+                + "inputIndices:"
+                + Arrays.toString(inputIndices);
         throw new IllegalArgumentException(msg);
       }
+      checkInput(operation, i, inputIndices[i], inputIndices);
     }
   }
 
+  // Checks that the operation has the given number of inputs.
+  private static void checkInputCount(TypedOperation operation, int inputCount) {
+    if (operation.getInputTypes().size() != inputCount) {
+      String msg =
+          "statement.getInputTypes().size():"
+              + operation.getInputTypes().size()
+              + " inputVariables.size():"
+              + inputCount
+              + " statement:"
+              + operation;
+      throw new IllegalArgumentException(msg);
+    }
+  }
+
+  // Checks that the value created at the given index can be the i-th input of
+  // the operation. The inputs argument is only used in the error message.
+  private void checkInput(TypedOperation operation, int i, int index, Object inputs) {
+    Type newRefConstraint = statements.get(index).getOutputType();
+    if (newRefConstraint == null) {
+      String msg =
+          "newRefConstraint == null for"
+              + Globals.lineSep
+              + "sequence: "
+              + toString()
+              + Globals.lineSep
+              + "statement:"
+              + operation
+              + Globals.lineSep
+              + "inputVariables:"
+              + inputsToString(inputs);
+      throw new IllegalArgumentException(msg);
+    }
+    if (!(operation.getInputTypes().get(i).isAssignableFrom(newRefConstraint))) {
+      String msg =
+          i
+              + "th input constraint "
+              + newRefConstraint
+              + " does not imply "
+              + "statement's "
+              + i
+              + "th input constraint "
+              + operation.getInputTypes().get(i)
+              + Globals.lineSep
+              + ".Sequence:"
+              + Globals.lineSep
+              + ""
+              + this.toString()
+              + Globals.lineSep
+              + "statement:"
+              + operation
+              + Globals.lineSep
+              + "inputVariables:"
+              + inputsToString(inputs);
+      throw new IllegalArgumentException(msg);
+    }
+  }
+
+  private static String inputsToString(Object inputs) {
+    if (inputs instanceof int[]) {
+      return Arrays.toString((int[]) inputs);
+    }
+    return String.valueOf(inputs);
+  }
+
   /**
    * Create a new sequence that is the concatenation of the given sequences.
    *
@@ -786,14 +1048,18 @@ public final class Sequence implements WeightedElement {
    */
   public static Sequence concatenate(List<Sequence> sequences) {
     List<SimpleList<Statement>> statements1 = new ArrayList<>();
-    int newHashCode = 0;
+    long newHash = 0;
+    long newFingerprint = 0;
     int newNetSize = 0;
     for (Sequence c : sequences) {
-      newHashCode += c.savedHashCode;
+      newHash = newHash * multiplierPower(HASH_MULTIPLIER, c.size()) + c.savedHash;
+      newFingerprint =
+          newFingerprint * multiplierPower(FINGERPRINT_MULTIPLIER, c.size())
+              + c.savedFingerprint;
       newNetSize += c.savedNetSize;
       statements1.add(c.statements);
     }
-    return new Sequence(new ListOfLists<>(statements1), newHashCode, newNetSize);
+    return new Sequence(new ListOfLists<>(statements1), newHash, newFingerprint, newNetSize);
   }
 
   /**
@@ -803,9 +1069,10 @@ public final class Sequence implements WeightedElement {
    * @return the absolute indices for the input variables in the given statement
    */
   public List<Integer> getInputsAsAbsoluteIndices(int i) {
-    List<Integer> inputsAsVariables = new ArrayList<>();
-    for (RelativeNegativeIndex relIndex : this.statements.get(i).inputs) {
-      inputsAsVariables.add(getVariableForInput(i, relIndex).index);
+    int[] relativeInputs = this.statements.get(i).inputs;
+    List<Integer> inputsAsVariables = new ArrayList<>(relativeInputs.length);
+    for (int relIndex : relativeInputs) {
+      inputsAsVariables.add(getAbsoluteIndexForInput(i, relIndex));
     }
     return inputsAsVariables;
   }
@@ -903,9 +1170,11 @@ public final class Sequence implements WeightedElement {
    * Object var3 = var0.put(var1, var2);
    * </pre>
    *
-   * When writing/reading sequences out to file: you have two options: serialize
-   * the sequences using java's serialization mechanism, or write them out as
-   * parsable text. Serialization is faster, and text is human-readable.
+   * When writing/reading sequences out to file: you have two options: write
+   * them in binary form using {@link SequenceWriter} and {@link SequenceReader},
+   * or write them out as parsable text. The binary form is more compact and
+   * faster to read, and text is human-readable. To read many sequences of
+   * parsable text, use {@link SequenceParser}, which caches parsed operations.
    *
    * @param statements  the list of statement strings
    * @return the sequence constructed from the list of strings
@@ -966,7 +1235,6 @@ public final class Sequence implements WeightedElement {
           throw new SequenceParseException(msg, statements, statementCount);
         }
 
-        System.out.println("operation string: " + opStr);
         // Parse operation.
         TypedOperation operation;
         try {
@@ -1049,9 +1317,10 @@ public final class Sequence implements WeightedElement {
    * st.equals(parse(st.toParsableCode()))
    * </pre>
    *
-   * When writing/reading sequences out to file: you have two options: serialize
-   * the sequences using java's serialization mechanism, or write them out as
-   * parsable text. Serialization is faster, and text is human-readable.
+   * When writing/reading sequences out to file: you have two options: write
+   * them in binary form using {@link SequenceWriter} and {@link SequenceReader},
+   * or write them out as parsable text. The binary form is more compact and
+   * faster to read, and text is human-readable.
    *
    * @param string  the string descriptor
    * @return the sequence constructed by parsing the input string
@@ -1104,6 +1373,9 @@ public final class Sequence implements WeightedElement {
 
   /**
    * Creates a sequence corresponding to the given non-null primitive value.
+   * <p>
+   * The returned sequence is canonical and may be shared with other callers,
+   * so its active flags should not be modified.
    *
    * @param value  non-null reference to a primitive or String value
    * @return a {@link Sequence} consisting of a statement created with the object.
@@ -1125,6 +1397,7 @@ public final class Sequence implements WeightedElement {
           "value is a string of length > " + GenInputsAbstract.string_maxlen);
     }
 
-    return new Sequence().extend(TypedOperation.createPrimitiveInitialization(type, value));
+    return valueSequenceInterner.intern(
+        new Sequence().extend(TypedOperation.createPrimitiveInitialization(type, value)));
   }
 }
@@ -2,6 +2,8 @@ package randoop.sequence;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -9,13 +11,17 @@ import java.util.Map;
 import java.util.Set;
 
 import randoop.Globals;
+import randoop.SubTypeIndex;
 import randoop.SubTypeSet;
 import randoop.main.GenInputsAbstract;
 import randoop.types.Type;
 import randoop.util.ArrayListSimpleList;
+import randoop.util.GrowingListOfLists;
 import randoop.util.ListOfLists;
 import randoop.util.Log;
+import randoop.util.Randomness;
 import randoop.util.SimpleList;
+import randoop.util.WeightedArrayListSimpleList;
 
 /**
  * A collection of sequences that makes its efficient to ask for all the
@@ -48,16 +54,63 @@ import randoop.util.SimpleList;
  * uses the <code>SubTypeSet</code> to find the set <code>S</code> of feasible
  * subtypes in set of sequences, and returns the range of <code>S</code> in the
  * sequence map.
+ *
+ * <p>
+ * A collection can be bounded, by giving it a capacity per type: once the
+ * collection holds that many generated sequences that create a value of some
+ * type, adding another sequence for the type replaces one chosen by an
+ * {@link EvictionPolicy}, among a small random sample of the sequences of the
+ * type, or among all of them if there are no more than the sample size. The
+ * initial sequences of the collection are never evicted, and do not count
+ * towards the capacity.
  */
-public class SequenceCollection {
+public class SequenceCollection implements SequencePool {
 
   // We make it a list to make it easier to pick out an element at random.
-  private Map<Type, ArrayListSimpleList<Sequence>> sequenceMap = new LinkedHashMap<>();
+  // The lists are weighted lists, so that --small-tests can also pick an
+  // element at random without iterating over the lists.
+  private Map<Type, WeightedArrayListSimpleList<Sequence>> sequenceMap = new LinkedHashMap<>();
+
+  // The index of the subtype relation between the types of the collection,
+  // kept across clear().
+  private final SubTypeIndex typeIndex;
+
+  private SubTypeSet typeSet;
+
+  // Maps each type queried by getSequencesForType to the list of the
+  // sequences that create a value of a compatible type. The lists are
+  // updated as sequences are added, so each query type allocates only once.
+  private Map<Type, GrowingListOfLists<Sequence>> compatibleSequences = new HashMap<>();
 
-  private SubTypeSet typeSet = new SubTypeSet(false);
+  // Maps each type with sequences to the lists in compatibleSequences that
+  // include its sequences.
+  private Map<Type, List<GrowingListOfLists<Sequence>>> compatibleLists = new HashMap<>();
 
   private int sequenceCount = 0;
 
+  // The number of sequences of a type from which the policy chooses a sequence
+  // to evict.
+  private static final int EVICTION_SAMPLE_SIZE = 5;
+
+  // The maximum number of generated sequences per type, or 0 if unbounded.
+  private final int typeCapacity;
+
+  private final EvictionPolicy evictionPolicy;
+
+  // The initial sequences, which are never evicted.
+  private Set<Sequence> pinned = new HashSet<>();
+
+  // The uses of the generated sequences, if the collection is bounded.
+  private SequenceUsage usage = new SequenceUsage();
+
+  // For each type, the number of generated sequences that have been added for
+  // the type, including any that were evicted or rejected.
+  private Map<Type, Integer> offeredCounts = new HashMap<>();
+
+  // For each type, the number of generated sequences of the type in the
+  // collection.
+  private Map<Type, Integer> generatedCounts = new HashMap<>();
+
   private void checkRep() {
     if (!GenInputsAbstract.debug_checks) return;
     if (sequenceMap.size() != typeSet.size()) {
@@ -72,17 +125,37 @@ public class SequenceCollection {
     }
   }
 
+  @Override
   public int size() {
     return sequenceCount;
   }
 
+  /**
+   * Returns the number of types of the values created by the sequences in this
+   * collection. The number grows whenever a sequence creates a value of a type
+   * that no sequence in the collection created.
+   *
+   * @return the number of types with sequences
+   */
+  @Override
+  public int numTypes() {
+    return typeSet.size();
+  }
+
   /**
    * Removes all sequences from this collection.
    */
+  @Override
   public void clear() {
     if (Log.isLoggingOn()) Log.logLine("Clearing sequence collection.");
     this.sequenceMap = new LinkedHashMap<>();
-    this.typeSet = new SubTypeSet(false);
+    this.typeSet = new SubTypeSet(false, typeIndex);
+    this.compatibleSequences = new HashMap<>();
+    this.compatibleLists = new HashMap<>();
+    this.pinned = new HashSet<>();
+    this.usage = new SequenceUsage();
+    this.offeredCounts = new HashMap<>();
+    this.generatedCounts = new HashMap<>();
     sequenceCount = 0;
     checkRep();
   }
@@ -100,10 +173,57 @@ public class SequenceCollection {
    * @param initialSequences  the initial collection of sequences
    */
   public SequenceCollection(Collection<Sequence> initialSequences) {
+    this(initialSequences, 0, null);
+  }
+
+  /**
+   * Create a new collection that holds at most the given number of generated
+   * sequences per type, and adds the given initial sequences. The initial
+   * sequences are never evicted.
+   *
+   * @param initialSequences  the initial collection of sequences
+   * @param typeCapacity  the maximum number of sequences, other than the
+   *          initial sequences, that create a value of each type; 0 for no limit
+   * @param evictionPolicy  the policy that chooses the sequences to evict; may
+   *          be null if {@code typeCapacity} is 0
+   */
+  public SequenceCollection(
+      Collection<Sequence> initialSequences, int typeCapacity, EvictionPolicy evictionPolicy) {
+    this(initialSequences, typeCapacity, evictionPolicy, new SubTypeIndex());
+  }
+
+  /**
+   * Create a new collection that holds at most the given number of generated
+   * sequences per type, and whose types are indexed in the given index, and
+   * adds the given initial sequences. The initial sequences are never evicted.
+   *
+   * @param initialSequences  the initial collection of sequences
+   * @param typeCapacity  the maximum number of sequences, other than the
+   *          initial sequences, that create a value of each type; 0 for no limit
+   * @param evictionPolicy  the policy that chooses the sequences to evict; may
+   *          be null if {@code typeCapacity} is 0
+   * @param typeIndex  the index of the subtype relation, which must not be
+   *          shared with a collection used by another thread
+   */
+  public SequenceCollection(
+      Collection<Sequence> initialSequences,
+      int typeCapacity,
+      EvictionPolicy evictionPolicy,
+      SubTypeIndex typeIndex) {
     if (initialSequences == null) throw new IllegalArgumentException("initialSequences is null.");
-    this.sequenceMap = new LinkedHashMap<>();
-    this.typeSet = new SubTypeSet(false);
+    if (typeCapacity < 0) throw new IllegalArgumentException("typeCapacity is negative.");
+    if (typeCapacity > 0 && evictionPolicy == null) {
+      throw new IllegalArgumentException("evictionPolicy is null.");
+    }
+    if (typeIndex == null) throw new IllegalArgumentException("typeIndex is null.");
+    this.typeCapacity = typeCapacity;
+    this.evictionPolicy = evictionPolicy;
+    this.typeIndex = typeIndex;
+    this.typeSet = new SubTypeSet(false, typeIndex);
     sequenceCount = 0;
+    if (typeCapacity > 0) {
+      pinned.addAll(initialSequences);
+    }
     addAll(initialSequences);
     checkRep();
   }
@@ -113,6 +233,7 @@ public class SequenceCollection {
    *
    * @param col  the sequences to add
    */
+  @Override
   public void addAll(Collection<Sequence> col) {
     if (col == null) {
       throw new IllegalArgumentException("col is null");
@@ -128,7 +249,7 @@ public class SequenceCollection {
    * @param components  the sequences to add
    */
   public void addAll(SequenceCollection components) {
-    for (ArrayListSimpleList<Sequence> s : components.sequenceMap.values()) {
+    for (WeightedArrayListSimpleList<Sequence> s : components.sequenceMap.values()) {
       for (Sequence seq : s.theList) {
         add(seq);
       }
@@ -144,21 +265,19 @@ public class SequenceCollection {
    * all sequences that create a T, the sequence will be in the collection
    * returned by the query). How a value is deemed useful or not is left up to
    * the client.
+   * <p>
+   * If this collection is bounded and already holds the maximum number of
+   * generated sequences of a type, the sequence either replaces one of them or
+   * is not added for that type, as decided by the eviction policy.
    *
    * @param sequence  the sequence to add to this collection
    */
+  @Override
   public void add(Sequence sequence) {
-    List<Type> formalTypes = sequence.getTypesForLastStatement();
-    List<Variable> arguments = sequence.getVariablesOfLastStatement();
-    assert formalTypes.size() == arguments.size();
-    for (int i = 0; i < formalTypes.size(); i++) {
-      Variable argument = arguments.get(i);
-      assert formalTypes.get(i).isAssignableFrom(argument.getType())
-          : formalTypes.get(i).getName()
-              + " should be assignable from "
-              + argument.getType().getName();
-      if (sequence.isActive(argument.getDeclIndex())) {
-        Type type = formalTypes.get(i);
+    for (int i = 0; i < sequence.getLastStatementVariableCount(); i++) {
+      int argument = sequence.getLastStatementVariableIndex(i);
+      if (sequence.isActive(argument)) {
+        Type type = sequence.getOutputType(argument);
         typeSet.add(type);
         updateCompatibleMap(sequence, type);
       }
@@ -173,26 +292,149 @@ public class SequenceCollection {
    * @param type  the {@link Type}
    */
   private void updateCompatibleMap(Sequence sequence, Type type) {
-    ArrayListSimpleList<Sequence> set = this.sequenceMap.get(type);
+    WeightedArrayListSimpleList<Sequence> set = this.sequenceMap.get(type);
     if (set == null) {
-      set = new ArrayListSimpleList<>();
+      set = new WeightedArrayListSimpleList<>();
       this.sequenceMap.put(type, set);
+      for (Map.Entry<Type, GrowingListOfLists<Sequence>> entry : compatibleSequences.entrySet()) {
+        if (entry.getKey().isAssignableFrom(type)) {
+          addCompatibleList(entry.getValue(), type, set);
+        }
+      }
+    }
+    if (typeCapacity > 0 && !pinned.contains(sequence)) {
+      int offered = increment(offeredCounts, type);
+      Integer generated = generatedCounts.get(type);
+      if (generated != null && generated >= typeCapacity) {
+        evict(set, sequence, type, offered);
+        return;
+      }
+      increment(generatedCounts, type);
+      usage.added(sequence);
     }
     if (Log.isLoggingOn()) Log.logLine("Adding sequence of type " + type);
     boolean added = set.add(sequence);
     sequenceCount++;
     assert added;
+    updateCompatibleLists(set, type);
+  }
+
+  /**
+   * Replaces a generated sequence of the given type with the given sequence,
+   * or drops the given sequence, as decided by the eviction policy. The policy
+   * chooses among all the generated sequences of the type, or among a random
+   * sample of them if there are more than the sample size.
+   *
+   * @param set  the sequences of the type, which hold the maximum number of
+   *          generated sequences
+   * @param sequence  the sequence to add
+   * @param type  the type
+   * @param offered  the number of generated sequences offered for the type
+   */
+  private void evict(
+      WeightedArrayListSimpleList<Sequence> set, Sequence sequence, Type type, int offered) {
+    List<Integer> positions = new ArrayList<>(EVICTION_SAMPLE_SIZE);
+    if (set.size() > EVICTION_SAMPLE_SIZE) {
+      for (int i = 0; i < EVICTION_SAMPLE_SIZE; i++) {
+        int position = Randomness.nextRandomInt(set.size());
+        if (!pinned.contains(set.get(position)) && !positions.contains(position)) {
+          positions.add(position);
+        }
+      }
+    }
+    // Few sequences, or mostly pinned ones: consider every generated sequence.
+    if (positions.isEmpty()) {
+      for (int i = 0; i < set.size(); i++) {
+        if (!pinned.contains(set.get(i))) {
+          positions.add(i);
+        }
+      }
+    }
+    List<Sequence> candidates = new ArrayList<>(positions.size());
+    for (int position : positions) {
+      candidates.add(set.get(position));
+    }
+    int victim = evictionPolicy.chooseVictim(candidates, usage, sequence, offered, typeCapacity);
+    if (victim < 0) {
+      if (Log.isLoggingOn()) Log.logLine("Not adding sequence of type " + type);
+      return;
+    }
+    if (Log.isLoggingOn()) Log.logLine("Evicting sequence of type " + type);
+    usage.removed(candidates.get(victim));
+    usage.added(sequence);
+    set.set(positions.get(victim), sequence);
+    updateCompatibleLists(set, type);
+  }
+
+  /**
+   * Records that the given sequences were used as the inputs of a new
+   * sequence, for the eviction policy of a bounded collection.
+   *
+   * @param inputs  the input sequences, which need not be in this collection
+   */
+  public void recordUse(List<Sequence> inputs) {
+    if (typeCapacity > 0) {
+      usage.recordUse(inputs);
+    }
+  }
+
+  /**
+   * Updates the lists of compatible sequences that include the sequences of
+   * the given type, after the sequences changed.
+   *
+   * @param set  the sequences of the type
+   * @param type  the type
+   */
+  private void updateCompatibleLists(WeightedArrayListSimpleList<Sequence> set, Type type) {
+    List<GrowingListOfLists<Sequence>> lists = compatibleLists.get(type);
+    if (lists != null) {
+      for (GrowingListOfLists<Sequence> l : lists) {
+        l.update(set);
+      }
+    }
+  }
+
+  // Increments the count of the given type, and returns the new count.
+  private static int increment(Map<Type, Integer> counts, Type type) {
+    Integer count = counts.get(type);
+    int newCount = (count == null) ? 1 : count + 1;
+    counts.put(type, newCount);
+    return newCount;
+  }
+
+  /**
+   * Adds the sequences of the given type to the given list of compatible
+   * sequences.
+   *
+   * @param compatible  the list of sequences compatible with some query type
+   * @param type  a type that can be used as the query type
+   * @param set  the sequences of the type
+   */
+  private void addCompatibleList(
+      GrowingListOfLists<Sequence> compatible, Type type, ArrayListSimpleList<Sequence> set) {
+    compatible.addList(set);
+    List<GrowingListOfLists<Sequence>> lists = compatibleLists.get(type);
+    if (lists == null) {
+      lists = new ArrayList<>();
+      compatibleLists.put(type, lists);
+    }
+    lists.add(compatible);
   }
 
   /**
    * Searches through the set of active sequences to find all sequences whose
    * types match with the parameter type.
+   * <p>
+   * If an exact match is not required, the list is kept up to date as
+   * sequences are added, rather than built on each call, and selecting an
+   * element from it takes time logarithmic in the number of compatible types.
    *
    * @param type  the type desired for the sequences being sought
    * @param exactMatch  the flag to indicate whether an exact type match is required
    * @return list of sequence objects that are of type 'type' and abide by the
    *         constraints defined by nullOk
    */
+  @Override
   public SimpleList<Sequence> getSequencesForType(Type type, boolean exactMatch) {
 
     if (type == null) {
@@ -203,25 +445,31 @@ public class SequenceCollection {
       Log.logLine("getSequencesForType: entering method, type=" + type.toString());
     }
 
-    List<SimpleList<Sequence>> resultList = new ArrayList<>();
-
+    SimpleList<Sequence> selector;
     if (exactMatch) {
+      List<SimpleList<Sequence>> resultList = new ArrayList<>();
       SimpleList<Sequence> l = this.sequenceMap.get(type);
       if (l != null) {
         resultList.add(l);
       }
+      selector = new ListOfLists<>(resultList);
     } else {
-      for (Type compatibleType : typeSet.getMatches(type)) {
-        resultList.add(this.sequenceMap.get(compatibleType));
+      GrowingListOfLists<Sequence> compatible = compatibleSequences.get(type);
+      if (compatible == null) {
+        compatible = new GrowingListOfLists<>();
+        for (Type compatibleType : typeSet.getMatches(type)) {
+          addCompatibleList(compatible, compatibleType, this.sequenceMap.get(compatibleType));
+        }
+        compatibleSequences.put(type, compatible);
       }
+      selector = compatible;
     }
 
-    if (resultList.isEmpty()) {
+    if (selector.isEmpty()) {
       if (Log.isLoggingOn()) {
         Log.logLine("getSequencesForType: found no sequences matching type " + type);
       }
     }
-    SimpleList<Sequence> selector = new ListOfLists<>(resultList);
     if (Log.isLoggingOn()) {
       Log.logLine("getSequencesForType: returning " + selector.size() + " sequences.");
     }
@@ -233,9 +481,10 @@ public class SequenceCollection {
    *
    * @return  the set of all sequences in this collection
    */
+  @Override
   public Set<Sequence> getAllSequences() {
     Set<Sequence> result = new LinkedHashSet<>();
-    for (ArrayListSimpleList<Sequence> a : sequenceMap.values()) {
+    for (WeightedArrayListSimpleList<Sequence> a : sequenceMap.values()) {
       result.addAll(a.theList);
     }
     return result;
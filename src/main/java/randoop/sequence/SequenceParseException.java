@@ -28,6 +28,27 @@ public class SequenceParseException extends Exception {
     this.message = b.toString();
   }
 
+  /**
+   * Creates an exception for an error at the given position of a statement.
+   *
+   * @param msg  the description of the error
+   * @param statement  the text of the statement that contains the error
+   * @param line  the line number of the statement, starting at 1
+   * @param column  the column of the error in the statement, starting at 1
+   */
+  public SequenceParseException(String msg, String statement, int line, int column) {
+    this.message =
+        "Error while parsing a sequence at line "
+            + line
+            + ", column "
+            + column
+            + ": "
+            + msg
+            + "\n>> "
+            + statement
+            + "\n";
+  }
+
   @Override
   public String getMessage() {
     return message;
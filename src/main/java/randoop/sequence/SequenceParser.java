@@ -0,0 +1,237 @@
+package randoop.sequence;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import randoop.operation.OperationParseException;
+import randoop.operation.OperationParser;
+import randoop.operation.TypedOperation;
+
+/**
+ * Reads sequences in the text format of {@link Sequence#toParsableString()}
+ * from a {@link Readable}, such as a {@link java.io.Reader} or a
+ * {@link CharBuffer}. Sequences are separated by one or more blank lines. See
+ * {@link Sequence#parse(List)} for the format of each statement.
+ * <p>
+ * Unlike {@link Sequence#parse(List)}, the parser reads its input
+ * incrementally, and caches the operation of each distinct operation string,
+ * so that the reflective lookup of {@link OperationParser#parse(String)} is
+ * done once per operation rather than once per statement. The cache is kept
+ * when the parser is {@link #reset(Readable) reset} to read another input.
+ */
+public class SequenceParser {
+
+  // The operations parsed so far, by their "ID : DESCRIPTION" string.
+  private final Map<String, TypedOperation> operations = new HashMap<>();
+
+  private final CharBuffer buffer = CharBuffer.allocate(1 << 13);
+
+  private final StringBuilder lineBuilder = new StringBuilder();
+
+  private Readable input;
+
+  // The number of the last line read, starting at 1.
+  private int lineNumber;
+
+  // True if the last line ended with '\r', so that a following '\n' is skipped.
+  private boolean skipNewline;
+
+  private boolean endOfInput;
+
+  /**
+   * Creates a parser that reads from the given input.
+   *
+   * @param input  the text to parse
+   */
+  public SequenceParser(Readable input) {
+    reset(input);
+  }
+
+  /**
+   * Starts reading from the given input, discarding any unread text of the
+   * current input. Operations parsed from previous inputs remain cached.
+   *
+   * @param input  the text to parse
+   */
+  public void reset(Readable input) {
+    this.input = input;
+    this.lineNumber = 0;
+    this.skipNewline = false;
+    this.endOfInput = false;
+    buffer.clear();
+    buffer.flip();
+  }
+
+  /**
+   * Reads the next sequence.
+   *
+   * @return the next sequence, or null if there are no more sequences
+   * @throws IOException if reading the input fails
+   * @throws SequenceParseException if a statement is malformed; the message
+   *           gives the line and column of the error
+   */
+  public Sequence next() throws IOException, SequenceParseException {
+    String line = readLine();
+    while (line != null && isBlank(line)) {
+      line = readLine();
+    }
+    if (line == null) {
+      return null;
+    }
+    Map<String, Integer> variables = new HashMap<>();
+    Sequence sequence = new Sequence();
+    while (line != null && !isBlank(line)) {
+      sequence = parseStatement(sequence, line, variables);
+      line = readLine();
+    }
+    return sequence;
+  }
+
+  /**
+   * Reads all remaining sequences.
+   *
+   * @return the list of remaining sequences
+   * @throws IOException if reading the input fails
+   * @throws SequenceParseException if a statement is malformed
+   */
+  public List<Sequence> readAll() throws IOException, SequenceParseException {
+    List<Sequence> sequences = new ArrayList<>();
+    for (Sequence sequence = next(); sequence != null; sequence = next()) {
+      sequences.add(sequence);
+    }
+    return sequences;
+  }
+
+  /**
+   * Parses a statement of the form {@code VAR = OPERATION : VAR ... VAR}, and
+   * returns the given sequence extended by it.
+   */
+  private Sequence parseStatement(Sequence sequence, String line, Map<String, Integer> variables)
+      throws SequenceParseException {
+    int equalsIndex = line.indexOf('=');
+    if (equalsIndex == -1) {
+      throw error("missing \"=\" after the result variable", line, 0);
+    }
+    int colonIndex = line.lastIndexOf(':');
+    if (colonIndex < equalsIndex) {
+      throw error("missing \":\" before the input variables", line, line.length());
+    }
+
+    String newVar = line.substring(0, equalsIndex).trim();
+    if (newVar.isEmpty()) {
+      throw error("missing result variable", line, 0);
+    }
+    if (variables.containsKey(newVar)) {
+      throw error("result variable " + newVar + " was already declared", line, 0);
+    }
+
+    String operationString = line.substring(equalsIndex + 1, colonIndex).trim();
+    TypedOperation operation = operations.get(operationString);
+    if (operation == null) {
+      try {
+        operation = OperationParser.parse(operationString);
+      } catch (OperationParseException | IllegalArgumentException e) {
+        throw error(e.getMessage(), line, equalsIndex + 1);
+      }
+      operations.put(operationString, operation);
+    }
+
+    int[] inputs = new int[operation.getInputTypes().size()];
+    int count = 0;
+    int i = colonIndex + 1;
+    while (i < line.length()) {
+      if (Character.isWhitespace(line.charAt(i))) {
+        i++;
+        continue;
+      }
+      int start = i;
+      while (i < line.length() && !Character.isWhitespace(line.charAt(i))) {
+        i++;
+      }
+      String inVar = line.substring(start, i);
+      Integer index = variables.get(inVar);
+      if (index == null) {
+        throw error("input variable " + inVar + " is not declared by a previous line", line, start);
+      }
+      if (count == inputs.length) {
+        throw error("expected " + inputs.length + " input variables", line, start);
+      }
+      inputs[count++] = index;
+    }
+    if (count != inputs.length) {
+      throw error(
+          "expected " + inputs.length + " input variables, found " + count, line, colonIndex + 1);
+    }
+
+    try {
+      sequence = sequence.extend(operation, inputs);
+    } catch (IllegalArgumentException e) {
+      throw error(e.getMessage(), line, colonIndex + 1);
+    }
+    variables.put(newVar, sequence.size() - 1);
+    return sequence;
+  }
+
+  private SequenceParseException error(String msg, String line, int index) {
+    return new SequenceParseException(msg, line, lineNumber, index + 1);
+  }
+
+  private static boolean isBlank(String line) {
+    for (int i = 0; i < line.length(); i++) {
+      if (!Character.isWhitespace(line.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Returns the next line without its terminator, or null at the end of the
+  // input. Lines end with "\n", "\r", or "\r\n".
+  private String readLine() throws IOException {
+    lineBuilder.setLength(0);
+    while (true) {
+      while (buffer.hasRemaining()) {
+        char c = buffer.get();
+        if (skipNewline) {
+          skipNewline = false;
+          if (c == '\n') {
+            continue;
+          }
+        }
+        if (c == '\n' || c == '\r') {
+          skipNewline = (c == '\r');
+          lineNumber++;
+          return lineBuilder.toString();
+        }
+        lineBuilder.append(c);
+      }
+      if (endOfInput || !fill()) {
+        if (lineBuilder.length() == 0) {
+          return null;
+        }
+        lineNumber++;
+        return lineBuilder.toString();
+      }
+    }
+  }
+
+  // Reads more characters into the empty buffer. Returns false at the end of
+  // the input.
+  private boolean fill() throws IOException {
+    buffer.clear();
+    int count = 0;
+    while (count == 0) {
+      count = input.read(buffer);
+    }
+    buffer.flip();
+    if (count < 0) {
+      endOfInput = true;
+      return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,73 @@
+package randoop.sequence;
+
+import java.util.Collection;
+import java.util.Set;
+
+import randoop.types.Type;
+import randoop.util.SimpleList;
+
+/**
+ * A collection of sequences that can be queried for the sequences that create
+ * a value of a given type. A sequence creates a value of a type if the value
+ * of one of the active variables of its last statement has the type.
+ *
+ * @see SequenceCollection
+ * @see ConcurrentSequenceCollection
+ */
+public interface SequencePool {
+
+  /**
+   * Returns the number of sequences in this pool, counting a sequence once for
+   * each type it was added for.
+   *
+   * @return the number of sequences in this pool
+   */
+  int size();
+
+  /**
+   * Returns the number of types of the values created by the sequences in this
+   * pool. The number grows whenever a sequence creates a value of a type that
+   * no sequence in the pool created.
+   *
+   * @return the number of types with sequences
+   */
+  int numTypes();
+
+  /**
+   * Removes all sequences from this pool.
+   */
+  void clear();
+
+  /**
+   * Adds a sequence to this pool, for the type of each active variable of its
+   * last statement.
+   *
+   * @param sequence  the sequence to add
+   */
+  void add(Sequence sequence);
+
+  /**
+   * Adds the given sequences to this pool.
+   *
+   * @param sequences  the sequences to add
+   */
+  void addAll(Collection<Sequence> sequences);
+
+  /**
+   * Returns the sequences that create a value of the given type, or of a type
+   * that can be used as it.
+   *
+   * @param type  the type desired for the sequences being sought
+   * @param exactMatch  true if the sequences must create a value of exactly
+   *          the given type
+   * @return the sequences that create a value of the type
+   */
+  SimpleList<Sequence> getSequencesForType(Type type, boolean exactMatch);
+
+  /**
+   * Returns the set of all sequences in this pool.
+   *
+   * @return the set of all sequences in this pool
+   */
+  Set<Sequence> getAllSequences();
+}
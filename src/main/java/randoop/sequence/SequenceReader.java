@@ -0,0 +1,298 @@
+package randoop.sequence;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import randoop.operation.OperationParseException;
+import randoop.operation.OperationParser;
+import randoop.operation.TypedOperation;
+
+/**
+ * Reads sequences written by {@link SequenceWriter} from a channel. See
+ * {@link SequenceWriter} for a description of the format.
+ * <p>
+ * Each operation is parsed once per stream, when its definition is read, so
+ * reading is much faster than {@link Sequence#parse(List)}.
+ * <p>
+ * By default, an operation that cannot be parsed makes the stream malformed.
+ * A reader created with {@code skipUnresolved} set instead skips the sequences
+ * that use such an operation, for example because a class or method was
+ * removed since the stream was written.
+ */
+public class SequenceReader implements Closeable {
+
+  private final ReadableByteChannel channel;
+
+  private final ByteBuffer buffer = ByteBuffer.allocate(1 << 13);
+
+  // The operations defined so far in the stream, indexed by id; null for an
+  // operation that could not be parsed.
+  private final List<TypedOperation> operations = new ArrayList<>();
+
+  // The number of inputs of each operation, indexed by id.
+  private final List<Integer> inputCounts = new ArrayList<>();
+
+  private final boolean skipUnresolved;
+
+  private int skippedCount = 0;
+
+  /**
+   * Creates a reader from the given channel, and reads the stream header.
+   *
+   * @param channel  the channel to read from
+   * @throws IOException if the header is missing or has an unsupported version
+   */
+  public SequenceReader(ReadableByteChannel channel) throws IOException {
+    this(channel, false);
+  }
+
+  /**
+   * Creates a reader from the given channel, and reads the stream header.
+   *
+   * @param channel  the channel to read from
+   * @param skipUnresolved  if true, sequences that use an operation that cannot
+   *          be parsed, or that cannot be rebuilt from their operations, are
+   *          skipped instead of making the stream malformed
+   * @throws IOException if the header is missing or has an unsupported version
+   */
+  public SequenceReader(ReadableByteChannel channel, boolean skipUnresolved) throws IOException {
+    this.channel = channel;
+    this.skipUnresolved = skipUnresolved;
+    buffer.flip();
+    if (!fill(4) || buffer.getInt() != SequenceWriter.MAGIC) {
+      throw new IOException("not a sequence stream");
+    }
+    int version = readInt();
+    if (version != SequenceWriter.VERSION) {
+      throw new IOException(
+          "unsupported sequence stream version "
+              + version
+              + ", expected "
+              + SequenceWriter.VERSION);
+    }
+  }
+
+  /**
+   * Reads the next sequence from the stream.
+   *
+   * @return the next sequence, or null if the end of the stream was reached
+   * @throws IOException if an I/O error occurs or the stream is malformed
+   */
+  public Sequence read() throws IOException {
+    while (fill(1)) {
+      byte tag = buffer.get();
+      switch (tag) {
+        case SequenceWriter.OPERATION:
+          readOperation();
+          break;
+        case SequenceWriter.SEQUENCE:
+          Sequence sequence = readSequence();
+          if (sequence != null) {
+            return sequence;
+          }
+          skippedCount++;
+          break;
+        default:
+          throw new IOException("unknown record tag " + tag);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the number of sequences skipped so far because they could not be
+   * rebuilt. Always 0 unless the reader skips unresolved sequences.
+   *
+   * @return the number of sequences skipped so far
+   */
+  public int getSkippedCount() {
+    return skippedCount;
+  }
+
+  /**
+   * Reads the next sequence from the stream, as an executable sequence.
+   *
+   * @return the next sequence, or null if the end of the stream was reached
+   * @throws IOException if an I/O error occurs or the stream is malformed
+   */
+  public ExecutableSequence readExecutable() throws IOException {
+    Sequence sequence = read();
+    return (sequence == null) ? null : new ExecutableSequence(sequence);
+  }
+
+  /**
+   * Closes the channel.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private void readOperation() throws IOException {
+    String description = readString();
+    int inputCount = readInt();
+    TypedOperation operation;
+    try {
+      operation = OperationParser.parse(description);
+    } catch (OperationParseException e) {
+      if (!skipUnresolved) {
+        throw new IOException("cannot parse operation " + description, e);
+      }
+      operation = null;
+    }
+    if (operation != null && operation.getInputTypes().size() != inputCount) {
+      if (!skipUnresolved) {
+        throw new IOException(
+            "operation " + description + " does not take " + inputCount + " inputs");
+      }
+      operation = null;
+    }
+    operations.add(operation);
+    inputCounts.add(inputCount);
+  }
+
+  // Reads a sequence record. Returns null if the sequence uses an operation
+  // that could not be parsed or cannot be rebuilt, and unresolved sequences
+  // are skipped.
+  private Sequence readSequence() throws IOException {
+    int size = readInt();
+    Sequence sequence = new Sequence();
+    boolean resolved = true;
+    for (int i = 0; i < size; i++) {
+      int code = readInt();
+      TypedOperation operation;
+      int[] inputs;
+      if (code < SequenceWriter.LITERAL_KINDS) {
+        operation =
+            TypedOperation.createPrimitiveInitialization(
+                SequenceWriter.LITERAL_TYPES[code], readLiteral(code));
+        inputs = new int[0];
+      } else {
+        int id = code - SequenceWriter.LITERAL_KINDS;
+        if (id >= operations.size()) {
+          throw new IOException("undefined operation " + id);
+        }
+        operation = operations.get(id);
+        inputs = new int[inputCounts.get(id)];
+        for (int k = 0; k < inputs.length; k++) {
+          inputs[k] = i - 1 - readInt();
+          if (inputs[k] < 0) {
+            throw new IOException("input of statement " + i + " is not declared before it");
+          }
+        }
+      }
+      if (operation == null) {
+        resolved = false;
+      } else if (resolved) {
+        try {
+          sequence = sequence.extend(operation, inputs);
+        } catch (IllegalArgumentException e) {
+          if (!skipUnresolved) {
+            throw new IOException("malformed sequence at statement " + sequence.size(), e);
+          }
+          resolved = false;
+        }
+      }
+    }
+    return resolved ? sequence : null;
+  }
+
+  private Object readLiteral(int kind) throws IOException {
+    switch (kind) {
+      case SequenceWriter.BOOLEAN:
+        return readVarint() != 0;
+      case SequenceWriter.BYTE:
+        return (byte) readSignedVarint();
+      case SequenceWriter.SHORT:
+        return (short) readSignedVarint();
+      case SequenceWriter.CHAR:
+        return (char) readVarint();
+      case SequenceWriter.INT:
+        return (int) readSignedVarint();
+      case SequenceWriter.LONG:
+        return readSignedVarint();
+      case SequenceWriter.FLOAT:
+        require(4);
+        return Float.intBitsToFloat(buffer.getInt());
+      case SequenceWriter.DOUBLE:
+        require(8);
+        return Double.longBitsToDouble(buffer.getLong());
+      case SequenceWriter.STRING:
+        return readString();
+      default:
+        throw new IOException("unknown literal kind " + kind);
+    }
+  }
+
+  private String readString() throws IOException {
+    int length = readInt();
+    // Each character takes at least one byte, so the length of a corrupt
+    // string only sizes the builder up to the size of the buffer.
+    StringBuilder b = new StringBuilder(Math.min(length, buffer.capacity()));
+    for (int i = 0; i < length; i++) {
+      b.append((char) readVarint());
+    }
+    return b.toString();
+  }
+
+  // Reads an unsigned varint that must fit in a non-negative int.
+  private int readInt() throws IOException {
+    long value = readVarint();
+    if (value < 0 || value > Integer.MAX_VALUE) {
+      throw new IOException("value out of range: " + value);
+    }
+    return (int) value;
+  }
+
+  private long readSignedVarint() throws IOException {
+    long value = readVarint();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private long readVarint() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      require(1);
+      byte b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("malformed varint");
+  }
+
+  // Ensures that the given number of bytes can be read from the buffer, and
+  // throws EOFException if the stream ends first.
+  private void require(int bytes) throws IOException {
+    if (!fill(bytes)) {
+      throw new EOFException("sequence stream ends in the middle of a record");
+    }
+  }
+
+  // Reads from the channel until the buffer holds the given number of bytes.
+  // Returns false if the stream ends first.
+  private boolean fill(int bytes) throws IOException {
+    if (buffer.remaining() >= bytes) {
+      return true;
+    }
+    buffer.compact();
+    try {
+      while (buffer.position() < bytes) {
+        if (channel.read(buffer) < 0) {
+          return false;
+        }
+      }
+    } finally {
+      buffer.flip();
+    }
+    return true;
+  }
+}
@@ -0,0 +1,105 @@
+package randoop.sequence;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records how recently and how often the sequences of a
+ * {@link SequenceCollection} were used as input to new sequences, for its
+ * {@link EvictionPolicy}.
+ * <p>
+ * The uses are kept here rather than in the sequences, since a sequence can be
+ * shared: value sequences are interned, and the same sequence can be in
+ * several collections. Recency is a logical clock that advances with each
+ * recorded use, so that it is the same from run to run.
+ */
+public final class SequenceUsage {
+
+  /** The uses of one sequence. */
+  private static final class Uses {
+
+    // The number of lists of the collection that hold the sequence.
+    int lists = 0;
+
+    long lastUse;
+
+    int timesUsed = 0;
+  }
+
+  // Keyed by identity, since equal sequences in different collections, or
+  // added at different times, are different components.
+  private final Map<Sequence, Uses> uses = new IdentityHashMap<>();
+
+  private long clock = 0;
+
+  /**
+   * Records that the given sequence was added to a list of the collection. A
+   * sequence that was not in the collection counts as used when it is added.
+   *
+   * @param sequence  the added sequence
+   */
+  void added(Sequence sequence) {
+    Uses u = uses.get(sequence);
+    if (u == null) {
+      u = new Uses();
+      u.lastUse = ++clock;
+      uses.put(sequence, u);
+    }
+    u.lists++;
+  }
+
+  /**
+   * Records that the given sequence was removed from a list of the
+   * collection, and forgets its uses once it is in none.
+   *
+   * @param sequence  the removed sequence
+   */
+  void removed(Sequence sequence) {
+    Uses u = uses.get(sequence);
+    if (u != null && --u.lists == 0) {
+      uses.remove(sequence);
+    }
+  }
+
+  /**
+   * Records that the given sequences were used as the inputs of one new
+   * sequence. Sequences that are not in the collection are ignored.
+   *
+   * @param inputs  the input sequences
+   */
+  void recordUse(List<Sequence> inputs) {
+    clock++;
+    for (Sequence sequence : inputs) {
+      Uses u = uses.get(sequence);
+      if (u != null) {
+        u.lastUse = clock;
+        u.timesUsed++;
+      }
+    }
+  }
+
+  /**
+   * Returns when the given sequence was added to the collection or last used
+   * as an input, on the logical clock of this record.
+   *
+   * @param sequence  a sequence of the collection
+   * @return the time of the last use of the sequence, or 0 if it is unknown
+   */
+  public long getLastUse(Sequence sequence) {
+    Uses u = uses.get(sequence);
+    return (u == null) ? 0 : u.lastUse;
+  }
+
+  /**
+   * Returns the number of times the given sequence was used as an input since
+   * it was added to the collection.
+   *
+   * @param sequence  a sequence of the collection
+   * @return the number of uses of the sequence, or 0 if it is unknown
+   */
+  public int getTimesUsed(Sequence sequence) {
+    Uses u = uses.get(sequence);
+    return (u == null) ? 0 : u.timesUsed;
+  }
+}
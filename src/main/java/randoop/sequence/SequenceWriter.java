@@ -0,0 +1,268 @@
+package randoop.sequence;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+import randoop.operation.OperationParser;
+import randoop.operation.TypedOperation;
+import randoop.types.JavaTypes;
+import randoop.types.Type;
+
+/**
+ * Writes sequences to a channel in a compact binary format that is read by
+ * {@link SequenceReader}. The format is much smaller and faster to read than
+ * the text produced by {@link Sequence#toParsableString()}.
+ * <p>
+ * A stream consists of a header followed by records:
+ *
+ * <pre>
+ * stream    ::= MAGIC VERSION record*
+ * record    ::= OPERATION string varint   (defines the next operation id)
+ *             | SEQUENCE varint statement*  (the varint is the number of statements)
+ * statement ::= varint literal-value        (literal of the kind given by the varint)
+ *             | varint varint*              (operation, then one distance per input)
+ * </pre>
+ *
+ * Each operation other than a primitive or string literal is written once per
+ * stream, the first time it is used, in the form read by
+ * {@link OperationParser#parse(String)}, followed by its number of inputs, so
+ * that a reader can skip the statements of an operation that it cannot parse.
+ * It is referred to afterwards by its id. A statement code below
+ * {@link #LITERAL_KINDS} is a literal kind, and the literal value follows; a
+ * larger code {@code c} refers to operation {@code c - LITERAL_KINDS}. Each
+ * input of an operation is written as its distance {@code i - 1 - j} from the
+ * statement {@code i} to the statement {@code j} that declares it. Counts, ids,
+ * and distances are unsigned variable-length integers; integral literals are
+ * zigzag-encoded varints.
+ */
+public class SequenceWriter implements Closeable, Flushable {
+
+  /** The first bytes of every stream. */
+  static final int MAGIC = 0x52534551; // "RSEQ"
+
+  /** The version of the format, incremented on each incompatible change. */
+  static final int VERSION = 2;
+
+  /** Record tag: definition of an operation. */
+  static final byte OPERATION = 1;
+
+  /** Record tag: a sequence. */
+  static final byte SEQUENCE = 2;
+
+  // Literal kinds; the order defines the statement codes.
+  static final int BOOLEAN = 0;
+  static final int BYTE = 1;
+  static final int SHORT = 2;
+  static final int CHAR = 3;
+  static final int INT = 4;
+  static final int LONG = 5;
+  static final int FLOAT = 6;
+  static final int DOUBLE = 7;
+  static final int STRING = 8;
+
+  /** The number of literal kinds, and the statement code of operation 0. */
+  static final int LITERAL_KINDS = 9;
+
+  // The type of each literal kind.
+  static final Type[] LITERAL_TYPES = {
+    JavaTypes.BOOLEAN_TYPE,
+    JavaTypes.BYTE_TYPE,
+    JavaTypes.SHORT_TYPE,
+    JavaTypes.CHAR_TYPE,
+    JavaTypes.INT_TYPE,
+    JavaTypes.LONG_TYPE,
+    JavaTypes.FLOAT_TYPE,
+    JavaTypes.DOUBLE_TYPE,
+    JavaTypes.STRING_TYPE
+  };
+
+  private final WritableByteChannel channel;
+
+  private final ByteBuffer buffer = ByteBuffer.allocate(1 << 13);
+
+  // The ids of the operations defined so far in the stream.
+  private final Map<TypedOperation, Integer> operationIds = new HashMap<>();
+
+  /**
+   * Creates a writer to the given channel, and writes the stream header.
+   *
+   * @param channel  the channel to write to
+   * @throws IOException if the header cannot be written
+   */
+  public SequenceWriter(WritableByteChannel channel) throws IOException {
+    this.channel = channel;
+    buffer.putInt(MAGIC);
+    writeVarint(VERSION);
+  }
+
+  /**
+   * Writes the given sequence, preceded by the definitions of the operations
+   * it uses that have not been written yet.
+   *
+   * @param sequence  the sequence to write
+   * @throws IOException if an I/O error occurs
+   */
+  public void write(Sequence sequence) throws IOException {
+    int size = sequence.size();
+    int[] codes = new int[size];
+    for (int i = 0; i < size; i++) {
+      Statement statement = sequence.getStatement(i);
+      int kind = literalKind(statement);
+      codes[i] = (kind >= 0) ? kind : LITERAL_KINDS + operationId(statement.getOperation());
+    }
+
+    ensureCapacity(1);
+    buffer.put(SEQUENCE);
+    writeVarint(size);
+    for (int i = 0; i < size; i++) {
+      writeVarint(codes[i]);
+      if (codes[i] < LITERAL_KINDS) {
+        writeLiteral(codes[i], sequence.getStatement(i).getValue());
+      } else {
+        for (int k = 0; k < sequence.getInputCount(i); k++) {
+          writeVarint(i - 1 - sequence.getInputIndex(i, k));
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the sequence of the given executable sequence. The results of
+   * executing it are not written.
+   *
+   * @param sequence  the executable sequence to write
+   * @throws IOException if an I/O error occurs
+   */
+  public void write(ExecutableSequence sequence) throws IOException {
+    write(sequence.sequence);
+  }
+
+  /**
+   * Writes any buffered data to the channel.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Writes any buffered data, and closes the channel.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Returns the literal kind of the given statement if it declares a non-null
+   * primitive or string value, and -1 otherwise.
+   */
+  private static int literalKind(Statement statement) {
+    if (!statement.isPrimitiveInitialization() || statement.getValue() == null) {
+      return -1;
+    }
+    Type type = statement.getOutputType();
+    for (int kind = 0; kind < LITERAL_KINDS; kind++) {
+      if (LITERAL_TYPES[kind].equals(type)) {
+        return kind;
+      }
+    }
+    return -1;
+  }
+
+  // Returns the id of the given operation, writing its definition if it has
+  // not been written before.
+  private int operationId(TypedOperation operation) throws IOException {
+    Integer id = operationIds.get(operation);
+    if (id == null) {
+      id = operationIds.size();
+      operationIds.put(operation, id);
+      ensureCapacity(1);
+      buffer.put(OPERATION);
+      writeString(OperationParser.getId(operation) + " : " + operation.toParsableString());
+      writeVarint(operation.getInputTypes().size());
+    }
+    return id;
+  }
+
+  private void writeLiteral(int kind, Object value) throws IOException {
+    switch (kind) {
+      case BOOLEAN:
+        writeVarint((Boolean) value ? 1 : 0);
+        break;
+      case BYTE:
+        writeSignedVarint((Byte) value);
+        break;
+      case SHORT:
+        writeSignedVarint((Short) value);
+        break;
+      case CHAR:
+        writeVarint((Character) value);
+        break;
+      case INT:
+        writeSignedVarint((Integer) value);
+        break;
+      case LONG:
+        writeSignedVarint((Long) value);
+        break;
+      case FLOAT:
+        ensureCapacity(4);
+        buffer.putInt(Float.floatToRawIntBits((Float) value));
+        break;
+      case DOUBLE:
+        ensureCapacity(8);
+        buffer.putLong(Double.doubleToRawLongBits((Double) value));
+        break;
+      case STRING:
+        writeString((String) value);
+        break;
+      default:
+        throw new IllegalArgumentException("unknown literal kind " + kind);
+    }
+  }
+
+  // Strings are written as their length followed by their UTF-16 code units,
+  // each as a varint, so that strings with unpaired surrogates survive.
+  private void writeString(String s) throws IOException {
+    writeVarint(s.length());
+    for (int i = 0; i < s.length(); i++) {
+      writeVarint(s.charAt(i));
+    }
+  }
+
+  private void writeSignedVarint(long value) throws IOException {
+    writeVarint((value << 1) ^ (value >> 63));
+  }
+
+  private void writeVarint(long value) throws IOException {
+    ensureCapacity(10);
+    while ((value & ~0x7FL) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private void ensureCapacity(int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      flush();
+    }
+  }
+}
@@ -1,7 +1,7 @@
 package randoop.sequence;
 
 import java.io.PrintStream;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import randoop.ExecutionOutcome;
@@ -11,7 +11,6 @@ import randoop.operation.Operation;
 import randoop.operation.OperationParser;
 import randoop.operation.TypedClassOperation;
 import randoop.operation.TypedOperation;
-import randoop.sequence.Sequence.RelativeNegativeIndex;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
 
@@ -29,23 +28,45 @@ public final class Statement {
    */
   private final TypedOperation operation;
 
-  // The list of values used as input to the statement.
+  // The values used as input to the statement.
   //
   // NOTE that the inputs to a statement are not a list
-  // of Variables, but a list of RelativeNegativeIndex objects.
-  // See that class for an explanation.
-  final List<RelativeNegativeIndex> inputs;
+  // of Variables, but an array of relative negative indices.
+  // See the note in Sequence for an explanation.
+  // The array is never modified after construction.
+  final int[] inputs;
+
+  // A saved copy of the hash code, since statements are immutable and hashed
+  // repeatedly when sequences are compared.
+  private final int savedHashCode;
+
+  // The code for the value of this statement used in place of its variable, or
+  // NO_SHORT_FORM if there is none. Computed lazily, since it is requested
+  // each time a statement that uses the value is printed.
+  private String shortForm;
+
+  // Distinct from every short form, so it is compared by identity.
+  private static final String NO_SHORT_FORM = new String("");
+
+  // The declaration "TYPE NAME" of the variable of this statement, without the
+  // index of the variable. Computed lazily.
+  private String declaration;
+
+  // A 64-bit hash of the statement that, unlike the hash code, does not depend
+  // on the hash code of the operation. Computed lazily; 0 means not computed.
+  private long fingerprint;
 
   /**
    * Create a new statement of type statement that takes as input the given
-   * values.
+   * values. The array is not copied, and must not be modified by the caller.
    *
    * @param operation  the operation of this statement
-   * @param inputVariables  the variable that are used in this statement
+   * @param inputs  the relative negative indices of the inputs of this statement
    */
-  public Statement(TypedOperation operation, List<RelativeNegativeIndex> inputVariables) {
+  Statement(TypedOperation operation, int[] inputs) {
     this.operation = operation;
-    this.inputs = new ArrayList<>(inputVariables);
+    this.inputs = inputs;
+    this.savedHashCode = 31 * operation.hashCode() + Arrays.hashCode(inputs);
   }
 
   /**
@@ -55,7 +76,7 @@ public final class Statement {
    *          the operation for action of this statement.
    */
   public Statement(TypedOperation operation) {
-    this(operation, new ArrayList<RelativeNegativeIndex>());
+    this(operation, new int[0]);
   }
 
   /**
@@ -73,23 +94,41 @@ public final class Statement {
       return true;
     }
     Statement s = (Statement) obj;
-    if (!operation.equals(s.operation)) {
-      return false;
-    }
-    if (inputs.size() != s.inputs.size()) {
-      return false;
-    }
-    for (int j = 0; j < inputs.size(); j++) {
-      if (!inputs.get(j).equals(s.inputs.get(j))) {
-        return false;
-      }
-    }
-    return true;
+    return savedHashCode == s.savedHashCode
+        && Arrays.equals(inputs, s.inputs)
+        && operation.equals(s.operation);
   }
 
   @Override
   public int hashCode() {
-    return java.util.Objects.hash(operation, inputs);
+    return savedHashCode;
+  }
+
+  /**
+   * Returns a 64-bit hash of this statement computed from the parsable form of
+   * the operation and the inputs. Equal statements have equal fingerprints.
+   * Used together with {@link #hashCode()} to fingerprint sequences.
+   *
+   * @return the 64-bit fingerprint of this statement
+   */
+  long fingerprint() {
+    long result = fingerprint;
+    if (result == 0) {
+      // FNV-1a over the characters of the operation and the inputs.
+      result = 0xcbf29ce484222325L;
+      String description = operation.toParsableString();
+      for (int i = 0; i < description.length(); i++) {
+        result = (result ^ description.charAt(i)) * 0x100000001b3L;
+      }
+      for (int input : inputs) {
+        result = (result ^ input) * 0x100000001b3L;
+      }
+      if (result == 0) {
+        result = 1;
+      }
+      fingerprint = result;
+    }
+    return result;
   }
 
   public Type getOutputType() {
@@ -118,9 +157,12 @@ public final class Statement {
       if (operation.isUncheckedCast()) {
         b.append("@SuppressWarnings(\"unchecked\")").append(Globals.lineSep);
       }
-      String typeName = type.getName();
-      b.append(typeName);
-      b.append(" ").append(Variable.classToVariableName(type)).append(variable.index).append(" = ");
+      String declaration = this.declaration;
+      if (declaration == null) {
+        declaration = type.getName() + " " + Variable.classToVariableName(type);
+        this.declaration = declaration;
+      }
+      b.append(declaration).append(variable.index).append(" = ");
     }
     operation.appendCode(inputs, b);
     b.append(";").append(Globals.lineSep);
@@ -236,10 +278,16 @@ public final class Statement {
   // (It would be even nicer to use the short output format unless
   // disambiguation is truly needed.)
   public String getShortForm() {
-    if (isPrimitiveInitialization() && !isNullInitialization()) {
-      return Value.toCodeString(operation.getValue());
+    String result = shortForm;
+    if (result == null) {
+      if (isPrimitiveInitialization() && !isNullInitialization()) {
+        result = Value.toCodeString(operation.getValue());
+      } else {
+        result = NO_SHORT_FORM;
+      }
+      shortForm = result;
     }
-    return null;
+    return (result == NO_SHORT_FORM) ? null : result;
   }
 
   /**
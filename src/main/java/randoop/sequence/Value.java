@@ -1,7 +1,7 @@
 package randoop.sequence;
 
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import randoop.BugInRandoopException;
@@ -138,8 +138,9 @@ public class Value {
     return OBJECT_TOSTRING_PATTERN.matcher(s).find();
   }
 
-  // Used to increase performance of stringLengthOK method.
-  private static Map<String, Boolean> stringLengthOKCached = new LinkedHashMap<>();
+  // Used to increase performance of stringLengthOK method. Concurrent, since
+  // generator threads check strings at once.
+  private static Map<String, Boolean> stringLengthOKCached = new ConcurrentHashMap<>();
 
   /**
    * Returns true if the given string is deemed to be reasonable (i.e. not too long)
@@ -1,5 +1,8 @@
 package randoop.sequence;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import randoop.types.ArrayType;
 import randoop.types.InstantiatedType;
 import randoop.types.JavaTypes;
@@ -15,6 +18,10 @@ class VariableRenamer {
    */
   public final Sequence sequence;
 
+  // The variable name for each type seen so far, since names are requested
+  // for every variable each time a sequence is printed.
+  private static final ConcurrentMap<Type, String> variableNames = new ConcurrentHashMap<>();
+
   public VariableRenamer(Sequence sequence) {
     assert sequence != null : "The given sequence to rename can not be null";
     this.sequence = sequence;
@@ -30,6 +37,15 @@ class VariableRenamer {
    * @return a variable name based on its type
    */
   static String getVariableName(Type type) {
+    String name = variableNames.get(type);
+    if (name == null) {
+      name = computeVariableName(type);
+      variableNames.put(type, name);
+    }
+    return name;
+  }
+
+  private static String computeVariableName(Type type) {
 
     if (type.isVoid()) {
       return "void";
@@ -144,11 +144,11 @@ public final class RegressionCaptureVisitor implements TestCheckGenerator {
 
             // If the value is returned from a Date that we created,
             // don't use it as it's just going to have today's date in it.
-            if (!s.sequence.getInputs(i).isEmpty()) {
-              Variable var0 = s.sequence.getInputs(i).get(0);
-              if (var0.getType().hasRuntimeClass(java.util.Date.class)) {
-                Statement sk = s.sequence.getCreatingStatement(var0);
-                if ((sk.isConstructorCall()) && (s.sequence.getInputs(i).size() == 1)) continue;
+            if (s.sequence.getInputCount(i) > 0) {
+              int input0 = s.sequence.getInputIndex(i, 0);
+              if (s.sequence.getOutputType(input0).hasRuntimeClass(java.util.Date.class)) {
+                Statement sk = s.sequence.getStatement(input0);
+                if ((sk.isConstructorCall()) && (s.sequence.getInputCount(i) == 1)) continue;
                 // System.out.printf ("var type %s comes from date %s / %s%n",
                 // s.sequence.getVariable(i).getType(),
                 // s.sequence.getOperation(i), sk);
@@ -157,7 +157,7 @@ public final class RegressionCaptureVisitor implements TestCheckGenerator {
 
             // Add observer test for the primitive
             PrimValue.PrintMode printMode;
-            if (var.getType().isPrimitive()) {
+            if (s.sequence.getOutputType(i).isPrimitive()) {
               printMode = PrimValue.PrintMode.EQUALSEQUALS;
             } else {
               printMode = PrimValue.PrintMode.EQUALSMETHOD;
@@ -180,8 +180,7 @@ public final class RegressionCaptureVisitor implements TestCheckGenerator {
             }
 
             // Put out any observers that exist for this type
-            Variable var0 = s.sequence.getVariable(i);
-            Set<TypedOperation> observers = observerMap.getValues(var0.getType());
+            Set<TypedOperation> observers = observerMap.getValues(s.sequence.getOutputType(i));
             if (observers != null) {
               for (TypedOperation m : observers) {
 
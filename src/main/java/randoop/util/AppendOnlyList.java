@@ -0,0 +1,170 @@
+package randoop.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link SimpleList} that can only grow, and that can be read by any number
+ * of threads while another thread appends to it.
+ * <p>
+ * The elements are stored in segments that double in size, so that appending
+ * never moves an element. Appends are serialized by locking the list; an
+ * element is stored before the new size is published, so a reader that sees
+ * the size also sees every element below it, without locking.
+ * {@link #snapshot()} returns a view of the list as of the call, which stays
+ * consistent while the list grows.
+ */
+public final class AppendOnlyList<T> extends SimpleList<T> {
+
+  // The size of the first segment; segment k has size FIRST_SEGMENT << k.
+  private static final int FIRST_SEGMENT = 8;
+
+  private static final int FIRST_SEGMENT_BITS = 3;
+
+  private final AtomicReferenceArray<Object[]> segments =
+      new AtomicReferenceArray<>(Integer.SIZE - FIRST_SEGMENT_BITS);
+
+  private volatile int size = 0;
+
+  /**
+   * Appends the given element to this list.
+   *
+   * @param element  the element to append
+   */
+  public synchronized void add(T element) {
+    int index = size;
+    int position = index + FIRST_SEGMENT;
+    int segment = segmentOf(position);
+    Object[] elements = segments.get(segment);
+    if (elements == null) {
+      elements = new Object[FIRST_SEGMENT << segment];
+      segments.set(segment, elements);
+    }
+    elements[position - (FIRST_SEGMENT << segment)] = element;
+    size = index + 1;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public T get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IllegalArgumentException("index must be between 0 and size()-1");
+    }
+    return element(index);
+  }
+
+  /**
+   * Returns a list of the elements of this list as of this call. The view does
+   * not see elements appended later, and takes constant time to create.
+   *
+   * @return the elements of this list, as of this call
+   */
+  public SimpleList<T> snapshot() {
+    return new Snapshot(size);
+  }
+
+  @Override
+  public SimpleList<T> getSublist(int index) {
+    return this;
+  }
+
+  @Override
+  public int depth() {
+    return 0;
+  }
+
+  @Override
+  void copyInto(Object[] target, int offset) {
+    copyInto(target, offset, size);
+  }
+
+  @Override
+  public List<T> toJDKList() {
+    return toJDKList(size);
+  }
+
+  @Override
+  public String toString() {
+    return toJDKList().toString();
+  }
+
+  // Returns the segment holding the given position, which is an index plus
+  // FIRST_SEGMENT.
+  private static int segmentOf(int position) {
+    return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(position) - FIRST_SEGMENT_BITS;
+  }
+
+  // Returns the element at the given index, which must be below a size read
+  // from this list.
+  @SuppressWarnings("unchecked")
+  private T element(int index) {
+    int position = index + FIRST_SEGMENT;
+    int segment = segmentOf(position);
+    return (T) segments.get(segment)[position - (FIRST_SEGMENT << segment)];
+  }
+
+  private void copyInto(Object[] target, int offset, int count) {
+    for (int i = 0; i < count; i++) {
+      target[offset + i] = element(i);
+    }
+  }
+
+  private List<T> toJDKList(int count) {
+    List<T> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(element(i));
+    }
+    return result;
+  }
+
+  /**
+   * The first elements of the enclosing list, as of the creation of the
+   * snapshot.
+   */
+  private final class Snapshot extends SimpleList<T> {
+
+    private final int count;
+
+    Snapshot(int count) {
+      this.count = count;
+    }
+
+    @Override
+    public int size() {
+      return count;
+    }
+
+    @Override
+    public T get(int index) {
+      if (index < 0 || index >= count) {
+        throw new IllegalArgumentException("index must be between 0 and size()-1");
+      }
+      return element(index);
+    }
+
+    @Override
+    public SimpleList<T> getSublist(int index) {
+      return this;
+    }
+
+    @Override
+    public int depth() {
+      return 0;
+    }
+
+    @Override
+    void copyInto(Object[] target, int offset) {
+      AppendOnlyList.this.copyInto(target, offset, count);
+    }
+
+    @Override
+    public List<T> toJDKList() {
+      return AppendOnlyList.this.toJDKList(count);
+    }
+  }
+}
@@ -37,6 +37,18 @@ public class ArrayListSimpleList<T> extends SimpleList<T> implements Serializabl
     return this;
   }
 
+  @Override
+  public int depth() {
+    return 0;
+  }
+
+  @Override
+  void copyInto(Object[] target, int offset) {
+    for (int i = 0; i < theList.size(); i++) {
+      target[offset + i] = theList.get(i);
+    }
+  }
+
   public boolean add(T element) {
     return theList.add(element);
   }
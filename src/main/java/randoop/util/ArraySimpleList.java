@@ -0,0 +1,71 @@
+package randoop.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable {@link SimpleList} stored in a contiguous array.
+ * <p>
+ * Used to compact a deeply nested {@link OneMoreElementList} /
+ * {@link ListOfLists} structure into a flat list with constant-time access.
+ * Because the array is never modified, the list can be shared by any lists
+ * that extend it.
+ */
+public final class ArraySimpleList<T> extends SimpleList<T> implements Serializable {
+
+  private static final long serialVersionUID = -3460236384452493395L;
+
+  private final Object[] elements;
+
+  /**
+   * Creates a flat list with the elements of the given list.
+   *
+   * @param list  the list to copy
+   */
+  public ArraySimpleList(SimpleList<T> list) {
+    this.elements = new Object[list.size()];
+    list.copyInto(this.elements, 0);
+  }
+
+  @Override
+  public int size() {
+    return elements.length;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    return (T) elements[index];
+  }
+
+  @Override
+  public SimpleList<T> getSublist(int index) {
+    return this;
+  }
+
+  @Override
+  public int depth() {
+    return 0;
+  }
+
+  @Override
+  void copyInto(Object[] target, int offset) {
+    System.arraycopy(elements, 0, target, offset, elements.length);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<T> toJDKList() {
+    List<T> result = new ArrayList<>(elements.length);
+    for (Object element : elements) {
+      result.add((T) element);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toJDKList().toString();
+  }
+}
@@ -0,0 +1,218 @@
+package randoop.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Like {@link ListOfLists}, defines methods that access the elements of several
+ * lists as if they were part of a single list, but allows lists to be added,
+ * and the lists to grow, after it is created. The sizes of the lists are kept
+ * in a Fenwick tree (binary indexed tree), so that {@link #get(int)} and
+ * {@link #update(SimpleList)} take time logarithmic in the number of lists,
+ * and neither allocates. If the lists are {@link WeightedSelection} lists, the
+ * total weights of the lists are kept in the same way, so that an element can
+ * also be selected by weight in logarithmic time.
+ * <p>
+ * The list reflects the sizes of its lists as of the last call to
+ * {@link #addList(SimpleList)} or {@link #update(SimpleList)} for each of them:
+ * a client that adds elements to one of the lists must call
+ * {@link #update(SimpleList)} for it.
+ */
+public class GrowingListOfLists<T> extends SimpleList<T> implements WeightedSelection<T> {
+
+  private final List<SimpleList<T>> lists = new ArrayList<>();
+
+  // The position of each list in lists.
+  private final Map<SimpleList<T>, Integer> positions = new IdentityHashMap<>();
+
+  // The size of each list, as of the last update.
+  private int[] sizes = new int[4];
+
+  // Fenwick tree over sizes: tree[i] is the sum of the sizes of the lists at
+  // positions i - (i & -i) to i - 1. Index 0 is unused.
+  private int[] tree = new int[5];
+
+  // The total weight of each list that is a WeightedSelection, as of the last
+  // update.
+  private final WeightTree weights = new WeightTree();
+
+  // The number of lists that are not WeightedSelection lists.
+  private int unweightedLists = 0;
+
+  private int totalelements;
+
+  private int depth;
+
+  /**
+   * Adds the given list after the lists already in this list.
+   *
+   * @param list  the list to add, which must not already be in this list
+   */
+  public void addList(SimpleList<T> list) {
+    if (list == null) {
+      throw new IllegalArgumentException("list should be non-null");
+    }
+    if (positions.containsKey(list)) {
+      throw new IllegalArgumentException("list is already in this list");
+    }
+    int position = lists.size();
+    if (position == sizes.length) {
+      sizes = Arrays.copyOf(sizes, 2 * position);
+      tree = Arrays.copyOf(tree, 2 * position + 1);
+    }
+    lists.add(list);
+    positions.put(list, position);
+
+    // The new node covers the lists from position + 1 - lowbit to position.
+    int node = position + 1;
+    int size = list.size();
+    sizes[position] = size;
+    tree[node] = size + prefixSum(position) - prefixSum(node - (node & -node));
+    totalelements += size;
+    depth = Math.max(depth, list.depth() + 1);
+
+    if (list instanceof WeightedSelection) {
+      weights.add(((WeightedSelection<?>) list).getTotalWeight());
+    } else {
+      weights.add(0);
+      unweightedLists++;
+    }
+  }
+
+  /**
+   * Records the current size of the given list, which must be in this list,
+   * and its current total weight if it is a {@link WeightedSelection}.
+   *
+   * @param list  a list whose size or elements may have changed
+   */
+  public void update(SimpleList<T> list) {
+    Integer position = positions.get(list);
+    if (position == null) {
+      throw new IllegalArgumentException("list is not in this list");
+    }
+    if (list instanceof WeightedSelection) {
+      weights.set(position, ((WeightedSelection<?>) list).getTotalWeight());
+    }
+    int delta = list.size() - sizes[position];
+    if (delta == 0) {
+      return;
+    }
+    sizes[position] += delta;
+    totalelements += delta;
+    for (int node = position + 1; node <= lists.size(); node += node & -node) {
+      tree[node] += delta;
+    }
+    depth = Math.max(depth, list.depth() + 1);
+  }
+
+  @Override
+  public int size() {
+    return this.totalelements;
+  }
+
+  @Override
+  public T get(int index) {
+    int position = listIndex(index);
+    return lists.get(position).get(index - prefixSum(position));
+  }
+
+  @Override
+  public SimpleList<T> getSublist(int index) {
+    int position = listIndex(index);
+    return lists.get(position).getSublist(index - prefixSum(position));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @return the total weight, or {@code Double.NaN} if some list is not a
+   *         {@link WeightedSelection}
+   */
+  @Override
+  public double getTotalWeight() {
+    return (unweightedLists == 0) ? weights.total() : Double.NaN;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public T getByWeight(double point) {
+    if (unweightedLists != 0) {
+      throw new IllegalStateException("not all lists are weighted");
+    }
+    int position = weights.find(point);
+    WeightedSelection<T> list = (WeightedSelection<T>) lists.get(position);
+    return list.getByWeight(point - weights.prefixSum(position));
+  }
+
+  // Returns the sum of the sizes of the lists before the given position.
+  private int prefixSum(int position) {
+    int sum = 0;
+    for (int node = position; node > 0; node -= node & -node) {
+      sum += tree[node];
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the position of the list that contains the element at the given
+   * index, by descending the Fenwick tree.
+   *
+   * @param index  a valid index into this list
+   * @return the position of the list containing the index
+   */
+  private int listIndex(int index) {
+    if (index < 0 || index > this.totalelements - 1) {
+      throw new IllegalArgumentException("index must be between 0 and size()-1");
+    }
+    int n = lists.size();
+    int node = 0;
+    for (int step = Integer.highestOneBit(n); step > 0; step >>= 1) {
+      int next = node + step;
+      if (next <= n && tree[next] <= index) {
+        node = next;
+        index -= tree[next];
+      }
+    }
+    return node;
+  }
+
+  @Override
+  public int depth() {
+    return depth;
+  }
+
+  @Override
+  void copyInto(Object[] target, int offset) {
+    for (int i = 0; i < lists.size(); i++) {
+      SimpleList<T> l = lists.get(i);
+      if (l.size() == sizes[i]) {
+        l.copyInto(target, offset);
+      } else {
+        for (int j = 0; j < sizes[i]; j++) {
+          target[offset + j] = l.get(j);
+        }
+      }
+      offset += sizes[i];
+    }
+  }
+
+  @Override
+  public List<T> toJDKList() {
+    List<T> result = new ArrayList<>(totalelements);
+    for (int i = 0; i < lists.size(); i++) {
+      SimpleList<T> l = lists.get(i);
+      for (int j = 0; j < sizes[i]; j++) {
+        result.add(l.get(j));
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toJDKList().toString();
+  }
+}
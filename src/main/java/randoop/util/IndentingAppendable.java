@@ -0,0 +1,146 @@
+package randoop.util;
+
+import java.io.IOException;
+
+import randoop.Globals;
+
+/**
+ * An {@link Appendable} that prefixes every line written through it with an
+ * indentation string, and passes the result to another {@link Appendable}.
+ * Lines are separated by {@link Globals#lineSep}.
+ * <p>
+ * The output is the same as indenting each element of
+ * {@code text.split(Globals.lineSep)} and terminating it with a line
+ * separator: blank lines inside the text are indented, and trailing blank
+ * lines are dropped. The text is indented as it is written, without building
+ * or splitting an intermediate string.
+ */
+public final class IndentingAppendable implements Appendable {
+
+  private final Appendable out;
+
+  private final String indentation;
+
+  private final String separator = Globals.lineSep;
+
+  // The number of characters of a line separator seen so far, that have not
+  // been written yet.
+  private int separatorPrefix = 0;
+
+  // The number of complete blank lines seen since the last written line.
+  private int pendingBlankLines = 0;
+
+  // True if no character of the current line has been written.
+  private boolean atLineStart = true;
+
+  // True if any non-separator character has been written.
+  private boolean written = false;
+
+  /**
+   * Creates an appendable that indents each line by the given string.
+   *
+   * @param out  the appendable to which the indented text is written
+   * @param indentation  the string to put at the start of each line
+   */
+  public IndentingAppendable(Appendable out, String indentation) {
+    this.out = out;
+    this.indentation = indentation;
+  }
+
+  @Override
+  public IndentingAppendable append(CharSequence csq) throws IOException {
+    return append(csq, 0, csq.length());
+  }
+
+  @Override
+  public IndentingAppendable append(CharSequence csq, int start, int end) throws IOException {
+    char separatorStart = separator.charAt(0);
+    int i = start;
+    while (i < end) {
+      if (separatorPrefix > 0 || csq.charAt(i) == separatorStart) {
+        append(csq.charAt(i++));
+        continue;
+      }
+      // Forward the text up to the next possible line separator in one call.
+      int runEnd = i + 1;
+      while (runEnd < end && csq.charAt(runEnd) != separatorStart) {
+        runEnd++;
+      }
+      startLine();
+      out.append(csq, i, runEnd);
+      i = runEnd;
+    }
+    return this;
+  }
+
+  @Override
+  public IndentingAppendable append(char c) throws IOException {
+    if (c == separator.charAt(separatorPrefix)) {
+      separatorPrefix++;
+      if (separatorPrefix == separator.length()) {
+        separatorPrefix = 0;
+        endLine();
+      }
+      return this;
+    }
+    if (separatorPrefix > 0) {
+      // The separator prefix was ordinary text after all.
+      int prefix = separatorPrefix;
+      separatorPrefix = 0;
+      for (int i = 0; i < prefix; i++) {
+        writeChar(separator.charAt(i));
+      }
+      append(c);
+      return this;
+    }
+    writeChar(c);
+    return this;
+  }
+
+  /**
+   * Terminates the last line if it is not empty. If nothing was written, writes
+   * a single indented empty line, as indenting the empty string does.
+   *
+   * @throws IOException if the underlying appendable throws it
+   */
+  public void finish() throws IOException {
+    for (int i = 0; i < separatorPrefix; i++) {
+      writeChar(separator.charAt(i));
+    }
+    separatorPrefix = 0;
+    if (!atLineStart) {
+      out.append(separator);
+      atLineStart = true;
+    } else if (!written && pendingBlankLines == 0) {
+      out.append(indentation).append(separator);
+    }
+    pendingBlankLines = 0;
+  }
+
+  private void endLine() throws IOException {
+    if (atLineStart) {
+      pendingBlankLines++;
+    } else {
+      out.append(separator);
+      atLineStart = true;
+    }
+  }
+
+  private void writeChar(char c) throws IOException {
+    startLine();
+    out.append(c);
+  }
+
+  // Writes the pending blank lines and the indentation, if no character of
+  // the current line has been written, before text of the line is written.
+  private void startLine() throws IOException {
+    if (atLineStart) {
+      for (; pendingBlankLines > 0; pendingBlankLines--) {
+        out.append(indentation).append(separator);
+      }
+      out.append(indentation);
+      atLineStart = false;
+    }
+    written = true;
+  }
+}
@@ -0,0 +1,43 @@
+package randoop.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A flat {@link SimpleList} whose elements are computed from their index when
+ * they are accessed, rather than stored. Subclasses define {@link #size()} and
+ * {@link #get(int)}.
+ */
+public abstract class IndexedSimpleList<T> extends SimpleList<T> {
+
+  @Override
+  public SimpleList<T> getSublist(int index) {
+    return this;
+  }
+
+  @Override
+  public int depth() {
+    return 0;
+  }
+
+  @Override
+  void copyInto(Object[] target, int offset) {
+    for (int i = 0; i < size(); i++) {
+      target[offset + i] = get(i);
+    }
+  }
+
+  @Override
+  public List<T> toJDKList() {
+    List<T> result = new ArrayList<>(size());
+    for (int i = 0; i < size(); i++) {
+      result.add(get(i));
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toJDKList().toString();
+  }
+}
@@ -16,7 +16,7 @@ import randoop.BugInRandoopException;
  * expensive, because it happened in a hot spot (method
  * SequenceCollection.getSequencesThatYield).
  */
-public class ListOfLists<T> extends SimpleList<T> implements Serializable {
+public class ListOfLists<T> extends SimpleList<T> implements Serializable, WeightedSelection<T> {
 
   private static final long serialVersionUID = -3307714585442970263L;
 
@@ -26,6 +26,8 @@ public class ListOfLists<T> extends SimpleList<T> implements Serializable {
 
   private int totalelements;
 
+  private int depth;
+
   @SuppressWarnings({"varargs", "unchecked"}) // heap pollution warning
   public ListOfLists(SimpleList<T>... lists) {
     this.lists = new ArrayList<>(lists.length);
@@ -41,6 +43,7 @@ public class ListOfLists<T> extends SimpleList<T> implements Serializable {
       }
       this.totalelements += l.size();
       this.accumulatedSize[i] = this.totalelements;
+      this.depth = Math.max(this.depth, l.depth() + 1);
     }
   }
 
@@ -56,6 +59,7 @@ public class ListOfLists<T> extends SimpleList<T> implements Serializable {
       }
       this.totalelements += l.size();
       this.accumulatedSize[i] = this.totalelements;
+      this.depth = Math.max(this.depth, l.depth() + 1);
     }
   }
 
@@ -79,12 +83,9 @@ public class ListOfLists<T> extends SimpleList<T> implements Serializable {
     if (index < 0 || index > this.totalelements - 1) {
       throw new IllegalArgumentException("index must be between 0 and size()-1");
     }
-    int previousListSize = 0;
-    for (int i = 0; i < this.accumulatedSize.length; i++) {
-      if (index < this.accumulatedSize[i]) return this.lists.get(i).get(index - previousListSize);
-      previousListSize = this.accumulatedSize[i];
-    }
-    throw new BugInRandoopException("Indexing error in ListOfLists");
+    int i = listIndex(index);
+    int previousListSize = (i == 0) ? 0 : this.accumulatedSize[i - 1];
+    return this.lists.get(i).get(index - previousListSize);
   }
 
   @Override
@@ -92,14 +93,114 @@ public class ListOfLists<T> extends SimpleList<T> implements Serializable {
     if (index < 0 || index > this.totalelements - 1) {
       throw new IllegalArgumentException("index must be between 0 and size()-1");
     }
-    int previousListSize = 0;
-    for (int i = 0; i < this.accumulatedSize.length; i++) {
-      if (index < this.accumulatedSize[i]) {
-        return lists.get(i).getSublist(index - previousListSize);
+    int i = listIndex(index);
+    int previousListSize = (i == 0) ? 0 : this.accumulatedSize[i - 1];
+    return lists.get(i).getSublist(index - previousListSize);
+  }
+
+  /**
+   * Returns the position in {@link #lists} of the list that contains the
+   * element at the given index, using binary search over the accumulated
+   * sizes.
+   *
+   * @param index  a valid index into this list
+   * @return the position of the sublist containing the index
+   */
+  private int listIndex(int index) {
+    // find the first list whose accumulated size exceeds index
+    int low = 0;
+    int high = this.accumulatedSize.length - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (index < this.accumulatedSize[mid]) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    if (index >= this.accumulatedSize[low]) {
+      throw new BugInRandoopException("Indexing error in ListOfLists");
+    }
+    return low;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The weight of a list that is not a {@link WeightedSelection} is the sum of
+   * the weights of its elements, which takes time linear in its size.
+   *
+   * @return the total weight, or {@code Double.NaN} if some element is not a
+   *         {@link WeightedElement}
+   */
+  @Override
+  public double getTotalWeight() {
+    double total = 0;
+    for (SimpleList<T> l : lists) {
+      total += totalWeight(l);
+    }
+    return total;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public T getByWeight(double point) {
+    T last = null;
+    for (SimpleList<T> l : lists) {
+      if (l.isEmpty()) {
+        continue;
+      }
+      double weight = totalWeight(l);
+      if (point < weight) {
+        if (l instanceof WeightedSelection) {
+          return ((WeightedSelection<T>) l).getByWeight(point);
+        }
+        for (int i = 0; i < l.size(); i++) {
+          point -= ((WeightedElement) l.get(i)).getWeight();
+          if (point < 0) {
+            return l.get(i);
+          }
+        }
+      }
+      point -= weight;
+      last = l.get(l.size() - 1);
+    }
+    // Rounding made the point at least the total weight.
+    if (last == null) {
+      throw new IllegalStateException("list is empty");
+    }
+    return last;
+  }
+
+  // Returns the total weight of the given list, or NaN if its elements are
+  // not weighted.
+  private static double totalWeight(SimpleList<?> l) {
+    if (l instanceof WeightedSelection) {
+      return ((WeightedSelection<?>) l).getTotalWeight();
+    }
+    double total = 0;
+    for (int i = 0; i < l.size(); i++) {
+      Object element = l.get(i);
+      if (!(element instanceof WeightedElement)) {
+        return Double.NaN;
       }
+      total += ((WeightedElement) element).getWeight();
+    }
+    return total;
+  }
+
+  @Override
+  public int depth() {
+    return depth;
+  }
+
+  @Override
+  void copyInto(Object[] target, int offset) {
+    int previousListSize = 0;
+    for (int i = 0; i < lists.size(); i++) {
+      lists.get(i).copyInto(target, offset + previousListSize);
       previousListSize = accumulatedSize[i];
     }
-    throw new BugInRandoopException("indexing error in ListOfLists");
   }
 
   @Override
@@ -11,11 +11,13 @@ public final class OneMoreElementList<T> extends SimpleList<T> implements Serial
   public final T lastElement;
   public final SimpleList<T> list;
   public final int size;
+  private final int depth;
 
   public OneMoreElementList(SimpleList<T> list, T extraElement) {
     this.list = list;
     this.lastElement = extraElement;
     this.size = list.size() + 1;
+    this.depth = list.depth() + 1;
   }
 
   @Override
@@ -41,6 +43,24 @@ public final class OneMoreElementList<T> extends SimpleList<T> implements Serial
     throw new IndexOutOfBoundsException("No such index: " + index);
   }
 
+  @Override
+  public int depth() {
+    return depth;
+  }
+
+  // Walks the chain of one-more-element lists iteratively, since the chain
+  // may be too long for recursion.
+  @Override
+  void copyInto(Object[] target, int offset) {
+    SimpleList<T> current = this;
+    while (current instanceof OneMoreElementList) {
+      OneMoreElementList<T> l = (OneMoreElementList<T>) current;
+      target[offset + l.size - 1] = l.lastElement;
+      current = l.list;
+    }
+    current.copyInto(target, offset);
+  }
+
   @Override
   public List<T> toJDKList() {
     List<T> result = new ArrayList<>();
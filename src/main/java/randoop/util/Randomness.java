@@ -3,6 +3,7 @@ package randoop.util;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import randoop.BugInRandoopException;
 
@@ -24,14 +25,73 @@ public final class Randomness {
     random = new Random(newSeed);
   }
 
-  private static int totalCallsToRandom = 0;
+  /**
+   * The generator that the current thread uses in place of {@link #random},
+   * if any.
+   */
+  private static final ThreadLocal<Random> threadRandom = new ThreadLocal<>();
 
-  public static boolean nextRandomBool() {
-    totalCallsToRandom++;
+  // True once any thread has been given its own generator, so that a
+  // single-threaded run never looks up threadRandom.
+  private static volatile boolean threadRandomInUse = false;
+
+  /**
+   * Makes the current thread make its random choices with the given
+   * generator, or with the shared generator if it is null.
+   *
+   * @param generator  the generator for the current thread, or null
+   */
+  public static void setThreadRandom(Random generator) {
+    if (generator != null) {
+      threadRandomInUse = true;
+      threadRandom.set(generator);
+    } else {
+      threadRandom.remove();
+    }
+  }
+
+  /**
+   * Returns a seed for the given stream derived from the given seed. The seeds
+   * of different streams are statistically independent, and depend only on
+   * the seed and the stream index.
+   *
+   * @param seed  the seed to derive from
+   * @param stream  the index of the stream
+   * @return the seed of the stream
+   */
+  public static long splitSeed(long seed, int stream) {
+    // The finalizer of the SplitMix64 generator.
+    long z = seed + (stream + 1) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  // Returns the generator of the current thread.
+  static Random random() {
+    if (threadRandomInUse) {
+      Random generator = threadRandom.get();
+      if (generator != null) {
+        return generator;
+      }
+    }
+    return random;
+  }
+
+  // The number of random choices made so far, by any thread.
+  private static final AtomicInteger totalCallsToRandom = new AtomicInteger();
+
+  // Counts a random choice, and logs the count.
+  private static void countCall() {
+    int calls = totalCallsToRandom.incrementAndGet();
     if (Log.isLoggingOn()) {
-      Log.logLine("randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
+      Log.logLine("randoop.util.Randomness: " + calls + " calls so far.");
     }
-    return random.nextBoolean();
+  }
+
+  public static boolean nextRandomBool() {
+    countCall();
+    return random().nextBoolean();
   }
 
   /**
@@ -41,11 +101,8 @@ public final class Randomness {
    * @return a value selected from range [0, i)
    */
   public static int nextRandomInt(int i) {
-    totalCallsToRandom++;
-    if (Log.isLoggingOn()) {
-      Log.logLine("randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
-    }
-    return random.nextInt(i);
+    countCall();
+    return random().nextInt(i);
   }
 
   public static <T> T randomMember(List<T> list) {
@@ -62,10 +119,22 @@ public final class Randomness {
     return list.get(nextRandomInt(list.size()));
   }
 
-  // Warning: iterates through the entire list twice (once to compute interval
-  // length, once to select element).
+  // Warning: unless the list is a WeightedSelection whose weights are known,
+  // iterates through the entire list twice (once to compute interval length,
+  // once to select element).
+  @SuppressWarnings("unchecked")
   public static <T extends WeightedElement> T randomMemberWeighted(SimpleList<T> list) {
 
+    if (list instanceof WeightedSelection) {
+      WeightedSelection<T> selection = (WeightedSelection<T>) list;
+      double max = selection.getTotalWeight();
+      if (!Double.isNaN(max)) {
+        assert max > 0;
+        countCall();
+        return selection.getByWeight(random().nextDouble() * max);
+      }
+    }
+
     // Find interval length.
     double max = 0;
     for (int i = 0; i < list.size(); i++) {
@@ -76,11 +145,8 @@ public final class Randomness {
     assert max > 0;
 
     // Select a random point in interval and find its corresponding element.
-    totalCallsToRandom++;
-    if (Log.isLoggingOn()) {
-      Log.logLine("randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
-    }
-    double randomPoint = Randomness.random.nextDouble() * max;
+    countCall();
+    double randomPoint = random().nextDouble() * max;
     double currentPoint = 0;
     for (int i = 0; i < list.size(); i++) {
       currentPoint += list.get(i).getWeight();
@@ -101,19 +167,13 @@ public final class Randomness {
       throw new IllegalArgumentException("arg must be between 0 and 1.");
     }
     double falseProb = 1 - trueProb;
-    totalCallsToRandom++;
-    if (Log.isLoggingOn()) {
-      Log.logLine("randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
-    }
-    return (Randomness.random.nextDouble() >= falseProb);
+    countCall();
+    return (random().nextDouble() >= falseProb);
   }
 
   public static boolean randomBoolFromDistribution(double falseProb_, double trueProb_) {
     double falseProb = falseProb_ / (falseProb_ + trueProb_);
-    totalCallsToRandom++;
-    if (Log.isLoggingOn()) {
-      Log.logLine("randoop.util.Randomness: " + totalCallsToRandom + " calls so far.");
-    }
-    return (Randomness.random.nextDouble() >= falseProb);
+    countCall();
+    return (random().nextDouble() >= falseProb);
   }
 }
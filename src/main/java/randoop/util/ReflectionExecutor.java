@@ -72,8 +72,14 @@ public final class ReflectionExecutor {
       ret = executeReflectionCodeUnThreaded(code, out);
     }
     long duration = System.nanoTime() - start;
+    recordExecution(ret == null, duration);
+    return ret;
+  }
 
-    if (ret == null) {
+  // Adds the given duration to the running average for normal or exceptional
+  // execution. Sequences may be executed by several threads at once.
+  private static synchronized void recordExecution(boolean normal, long duration) {
+    if (normal) {
       // Add duration to running average for normal execution.
       normal_exec_accum += duration;
       assert normal_exec_accum > 0; // check no overflow.
@@ -84,8 +90,6 @@ public final class ReflectionExecutor {
       assert excep_exec_accum > 0; // check no overflow.
       excep_exec_count++;
     }
-
-    return ret;
   }
 
   /**
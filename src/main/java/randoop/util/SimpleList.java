@@ -42,6 +42,14 @@ import java.util.List;
  * When extending a Sequence with a new statement, we store the old sequence's
  * statements plus the new statement in a {@code OneMoreElementList}, which
  * takes up only 2 references in memory (and constant creation time).
+ * <p>
+ * The drawback of this representation is that access time grows with the
+ * nesting depth of the list (see {@link #depth()}): after many generation
+ * steps, a call to {@code get(i)} walks a long chain of wrappers. To bound this
+ * cost, {@link randoop.sequence.Sequence Sequence} compacts a list whose depth
+ * exceeds a threshold into an {@link ArraySimpleList}, a flat array with
+ * constant-time access. Extensions of the compacted list again use
+ * {@code OneMoreElementList} and {@code ListOfLists}, so they share the array.
  */
 public abstract class SimpleList<T> {
 
@@ -71,6 +79,26 @@ public abstract class SimpleList<T> {
    */
   public abstract SimpleList<T> getSublist(int index);
 
+  /**
+   * Return the nesting depth of this list: the maximum number of wrapper lists
+   * ({@link OneMoreElementList} or {@link ListOfLists}) traversed to reach an
+   * element. Flat lists have depth 0.
+   *
+   * @return the nesting depth of this list
+   */
+  public abstract int depth();
+
+  /**
+   * Copy the elements of this list into the given array, starting at the
+   * given position of the array.
+   *
+   * @param target
+   *          the array into which the elements are copied
+   * @param offset
+   *          the position in the array of the first element of this list
+   */
+  abstract void copyInto(Object[] target, int offset);
+
   /**
    * Test if this list is empty.
    *
@@ -0,0 +1,138 @@
+package randoop.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A sequence of non-negative weights kept in a Fenwick tree (binary indexed
+ * tree), so that appending or changing a weight, computing the sum of a prefix
+ * of the weights, and finding the position of a point in the cumulative
+ * weights all take time logarithmic in the number of weights.
+ * <p>
+ * Each node of the tree is computed from the current weights rather than
+ * adjusted by the change of a weight, so that rounding errors do not build up
+ * as weights are replaced: the sums depend only on the weights, not on the
+ * order in which they were set.
+ */
+class WeightTree implements Serializable {
+
+  private static final long serialVersionUID = 4108327735524118573L;
+
+  // The weights, by position.
+  private double[] weights = new double[4];
+
+  // tree[i] is the sum of the weights at positions i - (i & -i) to i - 1.
+  // Index 0 is unused.
+  private double[] tree = new double[5];
+
+  private int size = 0;
+
+  /**
+   * Returns the number of weights.
+   *
+   * @return the number of weights
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Appends the given weight.
+   *
+   * @param weight  the weight to append
+   */
+  void add(double weight) {
+    if (size == weights.length) {
+      weights = Arrays.copyOf(weights, 2 * size);
+      tree = Arrays.copyOf(tree, 2 * size + 1);
+    }
+    weights[size] = weight;
+    size++;
+    recompute(size);
+  }
+
+  /**
+   * Replaces the weight at the given position.
+   *
+   * @param position  the position of the weight
+   * @param weight  the new weight
+   */
+  void set(int position, double weight) {
+    weights[position] = weight;
+    // The nodes of a node's range are all smaller, so are recomputed first.
+    for (int node = position + 1; node <= size; node += node & -node) {
+      recompute(node);
+    }
+  }
+
+  // Sets the given node to the weight at its position plus the nodes that
+  // cover the rest of its range.
+  private void recompute(int node) {
+    double sum = weights[node - 1];
+    for (int child = 1; child < (node & -node); child <<= 1) {
+      sum += tree[node - child];
+    }
+    tree[node] = sum;
+  }
+
+  /**
+   * Returns the weight at the given position.
+   *
+   * @param position  the position of the weight
+   * @return the weight at the position
+   */
+  double get(int position) {
+    return weights[position];
+  }
+
+  /**
+   * Returns the sum of the weights before the given position.
+   *
+   * @param position  a position between 0 and {@link #size()}
+   * @return the sum of the weights at positions 0 to {@code position - 1}
+   */
+  double prefixSum(int position) {
+    double sum = 0;
+    for (int node = position; node > 0; node -= node & -node) {
+      sum += tree[node];
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the sum of all the weights.
+   *
+   * @return the sum of the weights
+   */
+  double total() {
+    return prefixSum(size);
+  }
+
+  /**
+   * Returns the position of the weight whose interval of the cumulative
+   * weights contains the given point, that is, the least {@code i} such that
+   * {@code point < prefixSum(i + 1)}. Positions with weight 0 are never
+   * returned unless all weights are 0. If rounding makes the point at least
+   * the total weight, returns the last position with a non-zero weight.
+   *
+   * @param point  a point between 0 (inclusive) and {@link #total()} (exclusive)
+   * @return the position of the weight that contains the point
+   */
+  int find(double point) {
+    int node = 0;
+    for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+      int next = node + step;
+      if (next <= size && tree[next] <= point) {
+        node = next;
+        point -= tree[next];
+      }
+    }
+    if (node == size) {
+      node--;
+      while (node > 0 && weights[node] == 0) {
+        node--;
+      }
+    }
+    return node;
+  }
+}
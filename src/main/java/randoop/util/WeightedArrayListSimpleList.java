@@ -0,0 +1,51 @@
+package randoop.util;
+
+import randoop.BugInRandoopException;
+
+/**
+ * An {@link ArrayListSimpleList} of weighted elements that keeps the weights
+ * of its elements in a {@link WeightTree}, so that an element can be selected
+ * by weight in time logarithmic in the size of the list. Elements must be
+ * added with {@link #add(WeightedElement)} or
+ * {@link #set(int, WeightedElement)}, and their weights must not change.
+ */
+public class WeightedArrayListSimpleList<T extends WeightedElement> extends ArrayListSimpleList<T>
+    implements WeightedSelection<T> {
+
+  private static final long serialVersionUID = -2791537062433816370L;
+
+  private final WeightTree weights = new WeightTree();
+
+  @Override
+  public boolean add(T element) {
+    double weight = element.getWeight();
+    if (weight <= 0) throw new BugInRandoopException("weight was " + weight);
+    weights.add(weight);
+    return super.add(element);
+  }
+
+  /**
+   * Replaces the element at the given position.
+   *
+   * @param index  the position of the element to replace
+   * @param element  the new element
+   * @return the element previously at the position
+   */
+  public T set(int index, T element) {
+    double weight = element.getWeight();
+    if (weight <= 0) throw new BugInRandoopException("weight was " + weight);
+    T previous = theList.set(index, element);
+    weights.set(index, weight);
+    return previous;
+  }
+
+  @Override
+  public double getTotalWeight() {
+    return weights.total();
+  }
+
+  @Override
+  public T getByWeight(double point) {
+    return get(weights.find(point));
+  }
+}
@@ -0,0 +1,29 @@
+package randoop.util;
+
+/**
+ * A list whose elements can be selected in proportion to their weights without
+ * iterating over the list. See
+ * {@link Randomness#randomMemberWeighted(SimpleList)}.
+ *
+ * @param <T>  the type of the elements
+ */
+public interface WeightedSelection<T> {
+
+  /**
+   * Returns the sum of the weights of the elements.
+   *
+   * @return the total weight, or {@code Double.NaN} if the weights of the
+   *         elements are not known
+   */
+  double getTotalWeight();
+
+  /**
+   * Returns the element whose interval of the cumulative weights of the
+   * elements, in list order, contains the given point.
+   *
+   * @param point  a point between 0 (inclusive) and {@link #getTotalWeight()}
+   *          (exclusive)
+   * @return the element whose weight interval contains the point
+   */
+  T getByWeight(double point);
+}
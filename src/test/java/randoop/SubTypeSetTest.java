@@ -0,0 +1,72 @@
+package randoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import randoop.types.ClassOrInterfaceType;
+import randoop.types.JavaTypes;
+import randoop.types.Type;
+
+public class SubTypeSetTest {
+
+  private static final Type NUMBER = ClassOrInterfaceType.forClass(Number.class);
+
+  private static final Type INTEGER = ClassOrInterfaceType.forClass(Integer.class);
+
+  @Test
+  public void testMatches() {
+    SubTypeSet set = new SubTypeSet(false);
+    assertTrue("no matches in empty set", set.getMatches(NUMBER).isEmpty());
+
+    set.add(INTEGER);
+    set.add(JavaTypes.STRING_TYPE);
+    set.add(INTEGER);
+    assertEquals(2, set.size());
+    assertEquals(Collections.singleton(INTEGER), set.getMatches(NUMBER));
+
+    set.add(NUMBER);
+    assertEquals(new HashSet<>(Arrays.asList(INTEGER, NUMBER)), set.getMatches(NUMBER));
+    assertEquals(
+        new HashSet<>(Arrays.asList(INTEGER, NUMBER, JavaTypes.STRING_TYPE)),
+        set.getMatches(JavaTypes.OBJECT_TYPE));
+    assertTrue("no matches for unrelated type", set.getMatches(JavaTypes.BOOLEAN_TYPE).isEmpty());
+  }
+
+  @Test
+  public void testOrderFollowsAddition() {
+    // Types registered in the index in another order do not affect the order
+    // of the matches.
+    SubTypeIndex index = new SubTypeIndex();
+    index.getId(NUMBER);
+    index.getId(INTEGER);
+    SubTypeSet set = new SubTypeSet(false, index);
+    set.add(INTEGER);
+    assertEquals(Collections.singletonList(INTEGER), new ArrayList<>(set.getMatches(NUMBER)));
+
+    // A type added after a query is added to the end of its matches.
+    set.add(JavaTypes.STRING_TYPE);
+    set.add(NUMBER);
+    assertEquals(Arrays.asList(INTEGER, NUMBER), new ArrayList<>(set.getMatches(NUMBER)));
+    assertEquals(
+        Arrays.asList(INTEGER, JavaTypes.STRING_TYPE, NUMBER),
+        new ArrayList<>(set.getMatches(JavaTypes.OBJECT_TYPE)));
+  }
+
+  @Test
+  public void testUndo() {
+    SubTypeSet set = new SubTypeSet(true);
+    set.add(INTEGER);
+    set.mark();
+    set.add(NUMBER);
+    assertEquals(2, set.getMatches(NUMBER).size());
+    set.undoLastStep();
+    assertEquals(Collections.singleton(INTEGER), set.getMatches(NUMBER));
+  }
+}
@@ -0,0 +1,143 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import randoop.main.GenInputsAbstract;
+import randoop.operation.TypedOperation;
+import randoop.sequence.Sequence;
+import randoop.types.ClassOrInterfaceType;
+import randoop.types.JavaTypes;
+import randoop.util.SimpleList;
+
+public class ComponentManagerTest {
+
+  private static Sequence intValue(int value) {
+    return new Sequence()
+        .extend(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, value));
+  }
+
+  @Test
+  public void testCandidatesWithLiterals() throws Exception {
+    TypedOperation append =
+        TypedOperation.forMethod(StringBuilder.class.getMethod("append", int.class));
+    Sequence seed = intValue(7000);
+    Sequence classLiteral = intValue(7001);
+    Sequence packageLiteral = intValue(7002);
+    Sequence generated = intValue(7003);
+
+    ComponentManager manager = new ComponentManager(Arrays.asList(seed));
+    manager.addClassLevelLiteral(ClassOrInterfaceType.forClass(StringBuilder.class), classLiteral);
+    manager.addPackageLevelLiteral(StringBuilder.class.getPackage(), packageLiteral);
+
+    SimpleList<Sequence> candidates = manager.getSequencesForType(append, 1);
+    assertEquals(Arrays.asList(seed, classLiteral, packageLiteral), candidates.toJDKList());
+    assertSame("candidates are cached", candidates, manager.getSequencesForType(append, 1));
+
+    manager.addGeneratedSequence(generated);
+    List<Sequence> expected = new ArrayList<>();
+    expected.add(seed);
+    expected.add(generated);
+    expected.add(classLiteral);
+    expected.add(packageLiteral);
+    assertEquals(expected, manager.getSequencesForType(append, 1).toJDKList());
+
+    manager.clearGeneratedSequences();
+    assertEquals(
+        Arrays.asList(seed, classLiteral, packageLiteral),
+        manager.getSequencesForType(append, 1).toJDKList());
+  }
+
+  @Test
+  public void testPrimitiveValues() throws Exception {
+    TypedOperation append =
+        TypedOperation.forMethod(StringBuilder.class.getMethod("append", int.class));
+    ComponentManager manager = new ComponentManager(Arrays.asList(intValue(7100)));
+    manager.addClassLevelLiteral(
+        ClassOrInterfaceType.forClass(StringBuilder.class), intValue(7101));
+
+    assertFalse("seed", manager.addPrimitiveValue(7100));
+    assertFalse("literal", manager.addPrimitiveValue(7101));
+    assertTrue(manager.addPrimitiveValue(7102));
+    assertFalse(manager.addPrimitiveValue(7102));
+    assertEquals(2, manager.numGeneratedSequences());
+
+    List<Sequence> expected = new ArrayList<>();
+    expected.add(intValue(7100));
+    expected.add(intValue(7102));
+    expected.add(intValue(7101));
+    assertEquals(expected, manager.getSequencesForType(append, 1).toJDKList());
+    assertEquals(
+        expected.subList(0, 2), manager.getSequencesForType(JavaTypes.INT_TYPE).toJDKList());
+
+    manager.clearGeneratedSequences();
+    assertEquals(1, manager.numGeneratedSequences());
+    assertTrue(manager.addPrimitiveValue(7102));
+  }
+
+  @Test
+  public void testConcurrentAdds() throws Exception {
+    final TypedOperation init =
+        TypedOperation.forConstructor(StringBuilder.class.getConstructor(int.class));
+    TypedOperation append =
+        TypedOperation.forMethod(StringBuilder.class.getMethod("append", int.class));
+    final ComponentManager manager =
+        new ComponentManager(Arrays.asList(intValue(7200)), true);
+    SimpleList<Sequence> before = manager.getSequencesForType(append, 0);
+
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      final int first = 7300 + 100 * t;
+      Thread thread =
+          new Thread() {
+            @Override
+            public void run() {
+              for (int value = first; value < first + 25; value++) {
+                manager.addGeneratedSequence(intValue(value).extend(init, new int[] {0}));
+              }
+            }
+          };
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    ComponentManager expected = new ComponentManager(Arrays.asList(intValue(7200)));
+    for (int t = 0; t < 4; t++) {
+      for (int value = 7300 + 100 * t; value < 7325 + 100 * t; value++) {
+        expected.addGeneratedSequence(intValue(value).extend(init, new int[] {0}));
+      }
+    }
+    assertEquals("earlier candidates are unchanged", 0, before.size());
+    assertEquals(
+        new HashSet<>(expected.getSequencesForType(append, 0).toJDKList()),
+        new HashSet<>(manager.getSequencesForType(append, 0).toJDKList()));
+    assertEquals(expected.numGeneratedSequences(), manager.numGeneratedSequences());
+  }
+
+  @Test
+  public void testConcurrentManagerIsUnbounded() {
+    int capacity = GenInputsAbstract.pool_type_capacity;
+    GenInputsAbstract.pool_type_capacity = 10;
+    try {
+      new ComponentManager(Arrays.<Sequence>asList(), true);
+      fail("a concurrent manager cannot be bounded");
+    } catch (IllegalArgumentException e) {
+      // expected
+    } finally {
+      GenInputsAbstract.pool_type_capacity = capacity;
+    }
+  }
+}
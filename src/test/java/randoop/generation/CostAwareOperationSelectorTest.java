@@ -0,0 +1,78 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import randoop.operation.TypedOperation;
+import randoop.types.JavaTypes;
+
+public class CostAwareOperationSelectorTest {
+
+  private static List<TypedOperation> createOperations(int count) {
+    List<TypedOperation> operations = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      operations.add(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, i));
+    }
+    return operations;
+  }
+
+  @Test
+  public void testFavorsCheapOperation() {
+    List<TypedOperation> operations = createOperations(2);
+    TypedOperation cheap = operations.get(0);
+    CostAwareOperationSelector selector = new CostAwareOperationSelector(operations, 1.0);
+    for (int i = 0; i < 2000; i++) {
+      TypedOperation operation = selector.selectOperation();
+      selector.recordOutcome(operation, 0, 1, operation.equals(cheap) ? 1000 : 9000);
+    }
+    assertTrue(
+        "cheap operation selected most: " + selector.getStatistics(cheap),
+        selector.getStatistics(cheap).getSelections() > 1500);
+  }
+
+  @Test
+  public void testThrottlesSlowOperation() {
+    List<TypedOperation> operations = createOperations(3);
+    TypedOperation slow = operations.get(1);
+    CostAwareOperationSelector selector = new CostAwareOperationSelector(operations, 0.1);
+    selector.selectOperation();
+    for (TypedOperation operation : operations) {
+      long nanos = operation.equals(slow) ? 5000000000L : 1000;
+      selector.recordExecution(operation, nanos);
+      selector.recordOutcome(operation, 0, 1, nanos);
+    }
+    for (int i = 0; i < 100; i++) {
+      assertNotEquals(slow, selector.selectOperation());
+    }
+  }
+
+  @Test
+  public void testThrottlesOnlyWhenOtherOperationsRemain() {
+    List<TypedOperation> operations = createOperations(1);
+    TypedOperation slow = operations.get(0);
+    CostAwareOperationSelector selector = new CostAwareOperationSelector(operations, 0.1);
+    selector.recordExecution(slow, 5000000000L);
+    selector.recordOutcome(slow, 0, 1, 5000000000L);
+    assertEquals(slow, selector.selectOperation());
+  }
+
+  @Test
+  public void testExecutionStatistics() {
+    OperationStatistics stats = new OperationStatistics();
+    assertEquals(0, stats.getTailExecutionNanos(), 0);
+    for (int i = 0; i < 99; i++) {
+      stats.recordExecution(100);
+    }
+    stats.recordExecution(10100);
+    assertEquals(100, stats.getExecutions());
+    assertEquals(200, stats.getMeanExecutionNanos(), 1e-9);
+    double tail = stats.getTailExecutionNanos();
+    assertTrue("tail above mean: " + tail, tail > 2000 && tail < 10100);
+  }
+}
@@ -0,0 +1,83 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import randoop.operation.TypedOperation;
+import randoop.sequence.Sequence;
+import randoop.types.ArrayType;
+import randoop.types.JavaTypes;
+
+public class DuplicateFilterTest {
+
+  private static final int COUNT = 20000;
+
+  // Returns COUNT distinct sequences, each extending a prefix of the sequence
+  // with an array creation.
+  private static List<Sequence> distinctSequences() {
+    TypedOperation intArray =
+        TypedOperation.createArrayCreation(ArrayType.ofElementType(JavaTypes.INT_TYPE));
+    List<Sequence> sequences = new ArrayList<>();
+    Sequence prefix = new Sequence();
+    for (int i = 0; sequences.size() < COUNT; i++) {
+      prefix =
+          prefix.extend(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, i));
+      for (int j = 0; j < prefix.size() && sequences.size() < COUNT; j++) {
+        sequences.add(prefix.extend(intArray, new int[] {j}));
+      }
+    }
+    return sequences;
+  }
+
+  private static void checkExactOrFingerprint(DuplicateFilter filter) {
+    List<Sequence> sequences = distinctSequences();
+    for (Sequence sequence : sequences) {
+      assertFalse(filter.contains(sequence));
+      assertTrue("new sequence is not a duplicate", filter.add(sequence));
+    }
+    assertEquals(COUNT, filter.size());
+    for (Sequence sequence : distinctSequences()) {
+      assertTrue(filter.contains(sequence));
+      assertFalse("equal sequence is a duplicate", filter.add(sequence));
+    }
+    assertEquals(COUNT, filter.size());
+  }
+
+  @Test
+  public void testExact() {
+    DuplicateFilter filter = new ExactDuplicateFilter();
+    checkExactOrFingerprint(filter);
+    assertEquals(COUNT, filter.getSequences().size());
+  }
+
+  @Test
+  public void testFingerprint() {
+    DuplicateFilter filter = new FingerprintDuplicateFilter();
+    checkExactOrFingerprint(filter);
+    assertTrue("sequences are not retained", filter.getSequences().isEmpty());
+  }
+
+  @Test
+  public void testBloom() {
+    double rate = 0.01;
+    DuplicateFilter filter = new BloomDuplicateFilter(rate);
+    int falsePositives = 0;
+    for (Sequence sequence : distinctSequences()) {
+      if (!filter.add(sequence)) {
+        falsePositives++;
+      }
+    }
+    assertTrue("false positives: " + falsePositives, falsePositives <= 2 * rate * COUNT);
+    assertEquals(COUNT - falsePositives, filter.size());
+    for (Sequence sequence : distinctSequences()) {
+      assertTrue("no false negatives", filter.contains(sequence));
+      assertFalse(filter.add(sequence));
+    }
+  }
+}
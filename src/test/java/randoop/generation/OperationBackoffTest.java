@@ -0,0 +1,114 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import randoop.operation.TypedOperation;
+import randoop.sequence.Sequence;
+import randoop.types.ClassOrInterfaceType;
+import randoop.types.JavaTypes;
+import randoop.types.Type;
+
+public class OperationBackoffTest {
+
+  private static List<TypedOperation> createOperations(int count) {
+    List<TypedOperation> operations = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      operations.add(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, i));
+    }
+    return operations;
+  }
+
+  @Test
+  public void testBackoffDoubles() {
+    List<TypedOperation> operations = createOperations(2);
+    TypedOperation failing = operations.get(0);
+    UniformOperationSelector selector = new UniformOperationSelector(operations);
+    OperationBackoff backoff = new OperationBackoff(selector, new ComponentManager());
+    Type builderType = ClassOrInterfaceType.forClass(StringBuilder.class);
+
+    // Withheld for 1, 2, and then 4 steps.
+    for (int steps = 1; steps <= 4; steps *= 2) {
+      backoff.step();
+      backoff.recordFailure(failing, builderType);
+      for (int i = 1; i < steps; i++) {
+        backoff.step();
+        assertFalse("withheld", operations.contains(failing));
+      }
+      backoff.step();
+      assertTrue("returned after " + steps + " steps", operations.contains(failing));
+    }
+
+    backoff.recordSuccess(failing);
+    backoff.step();
+    backoff.recordFailure(failing, builderType);
+    backoff.step();
+    assertTrue("success resets the backoff", operations.contains(failing));
+
+    backoff.recordFailure(failing, null);
+    assertTrue("chance failure is not withheld", operations.contains(failing));
+
+    assertEquals(5, selector.getStatistics(failing).getInputFailures());
+    assertEquals(1, selector.getStatistics(failing).getInputSuccesses());
+  }
+
+  @Test
+  public void testReturnsWhenTypeAppears() throws NoSuchMethodException {
+    List<TypedOperation> operations = createOperations(2);
+    TypedOperation waiting = operations.get(0);
+    TypedOperation unsatisfiable = operations.get(1);
+    UniformOperationSelector selector = new UniformOperationSelector(operations);
+    ComponentManager components = new ComponentManager();
+    OperationBackoff backoff = new OperationBackoff(selector, components);
+
+    Type builderType = ClassOrInterfaceType.forClass(StringBuilder.class);
+    Type listType = ClassOrInterfaceType.forClass(List.class);
+    for (int i = 0; i < 10; i++) {
+      backoff.recordFailure(waiting, builderType);
+      backoff.recordFailure(unsatisfiable, listType);
+      backoff.releaseEarliest();
+      backoff.releaseEarliest();
+    }
+    backoff.recordFailure(waiting, builderType);
+    backoff.step();
+    assertFalse("withheld", operations.contains(waiting));
+
+    components.addGeneratedSequence(
+        new Sequence().extend(TypedOperation.forConstructor(StringBuilder.class.getConstructor())));
+    backoff.step();
+    assertEquals(Arrays.asList(unsatisfiable, waiting), operations);
+    backoff.recordSuccess(waiting);
+
+    assertEquals(Collections.singletonList(unsatisfiable), backoff.getUnsatisfiableOperations());
+    assertFalse("no operation withheld", backoff.releaseEarliest());
+  }
+
+  @Test
+  public void testReturnsWhenPrimitiveValueAppears() {
+    List<TypedOperation> operations = createOperations(2);
+    TypedOperation waiting = operations.get(0);
+    UniformOperationSelector selector = new UniformOperationSelector(operations);
+    ComponentManager components = new ComponentManager();
+    OperationBackoff backoff = new OperationBackoff(selector, components);
+
+    for (int i = 0; i < 10; i++) {
+      backoff.recordFailure(waiting, JavaTypes.LONG_TYPE);
+      backoff.releaseEarliest();
+    }
+    backoff.recordFailure(waiting, JavaTypes.LONG_TYPE);
+    backoff.step();
+    assertFalse("withheld", operations.contains(waiting));
+
+    components.addPrimitiveValue(7L);
+    backoff.step();
+    assertTrue("returned for a primitive value", operations.contains(waiting));
+  }
+}
@@ -0,0 +1,176 @@
+package randoop.generation;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import randoop.DummyVisitor;
+import randoop.main.GenInputsAbstract;
+import randoop.main.GenTests;
+import randoop.main.OptionsCache;
+import randoop.operation.TypedOperation;
+import randoop.reflection.DefaultReflectionPredicate;
+import randoop.reflection.OperationExtractor;
+import randoop.reflection.OperationModel;
+import randoop.reflection.PublicVisibilityPredicate;
+import randoop.reflection.ReflectionManager;
+import randoop.reflection.ReflectionPredicate;
+import randoop.reflection.VisibilityPredicate;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+import randoop.test.ContractSet;
+import randoop.test.TestCheckGenerator;
+import randoop.types.ClassOrInterfaceType;
+import randoop.types.Type;
+import randoop.util.MultiMap;
+import randoop.util.Randomness;
+import randoop.util.predicate.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelGenerationTest {
+
+  private static OptionsCache optionsCache;
+
+  @BeforeClass
+  public static void setup() {
+    optionsCache = new OptionsCache();
+    optionsCache.saveState();
+  }
+
+  @AfterClass
+  public static void restore() {
+    optionsCache.restoreState();
+  }
+
+  /**
+   * Make sure that pipelined generation produces tests, and that two runs with
+   * the same random seed and depth generate the same tests.
+   */
+  @Test
+  public void reproduciblePipelineTest() {
+    GenInputsAbstract.threads = 1;
+    GenInputsAbstract.pipeline_depth = 4;
+    GenInputsAbstract.randomseed = 7;
+    GenInputsAbstract.dont_output_tests = false;
+    GenInputsAbstract.include_if_classname_appears = null;
+    GenInputsAbstract.no_regression_tests = false;
+    GenInputsAbstract.inputlimit = 300;
+    GenInputsAbstract.outputlimit = 1000;
+    GenInputsAbstract.timelimit = 100;
+
+    // The generator constructs sequences with the shared random generator.
+    Randomness.reset(GenInputsAbstract.randomseed);
+    List<String> first = generate(Flaky.class);
+    Randomness.reset(GenInputsAbstract.randomseed);
+    List<String> second = generate(Flaky.class);
+
+    assertTrue("should have some regression tests", first.size() > 0);
+    assertEquals(first, second);
+  }
+
+  /**
+   * Make sure that the sequences still in the pipeline when generation stops
+   * are not lost.
+   */
+  @Test
+  public void drainedPipelineTest() {
+    GenInputsAbstract.threads = 1;
+    GenInputsAbstract.pipeline_depth = 50;
+    GenInputsAbstract.randomseed = 7;
+    GenInputsAbstract.dont_output_tests = false;
+    GenInputsAbstract.include_if_classname_appears = null;
+    GenInputsAbstract.no_regression_tests = false;
+    GenInputsAbstract.inputlimit = 20;
+    GenInputsAbstract.outputlimit = 1000;
+    GenInputsAbstract.timelimit = 100;
+
+    // Generation stops before the pipeline is ever full.
+    assertTrue("should have some regression tests", generate(Flaky.class).size() > 0);
+  }
+
+  /**
+   * Make sure that generation with several threads produces tests, and that two
+   * runs with the same random seed and number of threads generate the same
+   * tests.
+   */
+  @Test
+  public void reproducibleOutputTest() {
+    GenInputsAbstract.threads = 3;
+    GenInputsAbstract.pipeline_depth = 0;
+    GenInputsAbstract.randomseed = 7;
+    GenInputsAbstract.dont_output_tests = false;
+    GenInputsAbstract.include_if_classname_appears = null;
+    GenInputsAbstract.no_regression_tests = false;
+    GenInputsAbstract.inputlimit = 300;
+    GenInputsAbstract.outputlimit = 1000;
+    GenInputsAbstract.timelimit = 100;
+
+    Randomness.reset(GenInputsAbstract.randomseed);
+    List<String> first = generate(Flaky.class);
+    Randomness.reset(GenInputsAbstract.randomseed);
+    List<String> second = generate(Flaky.class);
+
+    assertTrue("should have some regression tests", first.size() > 0);
+    assertEquals(first, second);
+  }
+
+  private List<String> generate(Class<?> c) {
+    ForwardGenerator gen = buildGenerator(c);
+    gen.explore();
+    List<String> tests = new ArrayList<>();
+    for (ExecutableSequence eSeq : gen.getRegressionSequences()) {
+      tests.add(eSeq.sequence.toCodeString());
+    }
+    return tests;
+  }
+
+  private ForwardGenerator buildGenerator(Class<?> c) {
+
+    Set<String> omitfields = new HashSet<>();
+    VisibilityPredicate visibility = new PublicVisibilityPredicate();
+    ReflectionPredicate predicate =
+        new DefaultReflectionPredicate(GenInputsAbstract.omitmethods, omitfields);
+    ClassOrInterfaceType classType = ClassOrInterfaceType.forClass(c);
+    final List<TypedOperation> model = new ArrayList<>();
+    ReflectionManager manager = new ReflectionManager(visibility);
+    manager.apply(new OperationExtractor(classType, model, predicate, new OperationModel()), c);
+    Collection<Sequence> components = new LinkedHashSet<>();
+    components.addAll(SeedSequences.defaultSeeds());
+    ComponentManager componentMgr =
+        new ComponentManager(components, GenInputsAbstract.threads > 1);
+    RandoopListenerManager listenerMgr = new RandoopListenerManager();
+    ForwardGenerator gen =
+        new ForwardGenerator(
+            model,
+            new LinkedHashSet<TypedOperation>(),
+            GenInputsAbstract.timelimit * 1000,
+            GenInputsAbstract.inputlimit,
+            GenInputsAbstract.outputlimit,
+            componentMgr,
+            null,
+            listenerMgr);
+    GenTests genTests = new GenTests();
+    Predicate<ExecutableSequence> isOutputTest =
+        genTests.createTestOutputPredicate(new HashSet<Sequence>(), new HashSet<Class<?>>(), null);
+    gen.addTestPredicate(isOutputTest);
+    TestCheckGenerator checkGenerator =
+        (new GenTests())
+            .createTestCheckGenerator(
+                visibility,
+                new ContractSet(),
+                new MultiMap<Type, TypedOperation>(),
+                new LinkedHashSet<TypedOperation>());
+    gen.addTestCheckGenerator(checkGenerator);
+    gen.addExecutionVisitor(new DummyVisitor());
+    return gen;
+  }
+}
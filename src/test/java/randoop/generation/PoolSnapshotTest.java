@@ -0,0 +1,91 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import randoop.operation.TypedOperation;
+import randoop.sequence.Sequence;
+import randoop.types.ArrayType;
+import randoop.types.JavaTypes;
+
+public class PoolSnapshotTest {
+
+  @Test
+  public void testKey() throws Exception {
+    TypedOperation init = TypedOperation.forConstructor(StringBuilder.class.getConstructor());
+    TypedOperation append =
+        TypedOperation.forMethod(StringBuilder.class.getMethod("append", int.class));
+    List<TypedOperation> operations = Arrays.asList(init, append);
+    List<TypedOperation> reversed = new ArrayList<>(operations);
+    Collections.reverse(reversed);
+    long key = PoolSnapshot.computeKey("a.jar", operations);
+    assertEquals("order does not matter", key, PoolSnapshot.computeKey("a.jar", reversed));
+    assertNotEquals(key, PoolSnapshot.computeKey("b.jar", operations));
+    assertNotEquals(key, PoolSnapshot.computeKey("a.jar", Arrays.asList(init)));
+  }
+
+  @Test
+  public void testSaveAndLoad() throws Exception {
+    TypedOperation append =
+        TypedOperation.forMethod(StringBuilder.class.getMethod("append", int.class));
+    List<Sequence> sequences = new ArrayList<>();
+    Sequence prefix =
+        new Sequence()
+            .extend(TypedOperation.forConstructor(StringBuilder.class.getConstructor()));
+    for (int i = 0; i < 10; i++) {
+      prefix =
+          prefix.extend(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, i));
+      sequences.add(prefix.extend(append, new int[] {0, prefix.size() - 1}));
+    }
+    File file = File.createTempFile("pool", ".snapshot");
+    try {
+      // An uninitialized array creation has no textual form, and is not saved.
+      List<Sequence> withArray = new ArrayList<>(sequences);
+      withArray.add(
+          prefix.extend(
+              TypedOperation.createArrayCreation(ArrayType.ofElementType(JavaTypes.INT_TYPE)),
+              new int[] {1}));
+      PoolSnapshot.save(file, 42, withArray);
+      assertEquals(sequences, PoolSnapshot.load(file, 42));
+      assertEquals("different key", sequences, PoolSnapshot.load(file, 43));
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testLoadedSequencesAreGenerated() throws Exception {
+    Sequence loaded =
+        new Sequence()
+            .extend(TypedOperation.forConstructor(StringBuilder.class.getConstructor()));
+    ComponentManager components = new ComponentManager();
+    ForwardGenerator gen =
+        new ForwardGenerator(
+            new ArrayList<TypedOperation>(),
+            new HashSet<TypedOperation>(),
+            1000,
+            10,
+            10,
+            components,
+            null);
+    gen.addLoadedSequences(Arrays.asList(loaded, loaded));
+    assertEquals(1, gen.num_loaded_sequences);
+    assertEquals("loaded sequences are not counted", 0, gen.numGeneratedSequences());
+    assertTrue("recorded as generated", gen.getAllSequences().contains(loaded));
+    assertTrue(components.getAllGeneratedSequences().contains(loaded));
+
+    components.clearGeneratedSequences();
+    assertFalse("not a seed", components.getAllGeneratedSequences().contains(loaded));
+  }
+}
@@ -0,0 +1,84 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import randoop.sequence.Sequence;
+import randoop.types.JavaTypes;
+import randoop.types.Type;
+import randoop.util.SimpleList;
+import randoop.util.WeightedSelection;
+
+public class PrimitiveValuePoolTest {
+
+  @Test
+  public void testDuplicates() {
+    PrimitiveValuePool pool = new PrimitiveValuePool();
+    assertTrue(pool.add(1));
+    assertFalse(pool.add(1));
+    assertTrue("same bits, different kind", pool.add(1L));
+    assertTrue(pool.add("hi"));
+    assertFalse(pool.add(new String("hi")));
+    assertTrue(pool.add(Double.NaN));
+    assertFalse("NaN values are the same", pool.add(Double.longBitsToDouble(0x7ff8000000000001L)));
+    assertTrue(pool.add(0.0));
+    assertTrue("0.0 and -0.0 differ", pool.add(-0.0));
+    assertFalse("not a primitive value", pool.add(new Object()));
+    assertEquals(6, pool.size());
+    assertTrue(pool.contains(1L));
+    assertFalse(pool.contains((short) 1));
+  }
+
+  @Test
+  public void testManyValues() {
+    PrimitiveValuePool pool = new PrimitiveValuePool();
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(pool.add(i * 31L));
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertFalse(pool.add(i * 31L));
+      assertTrue(pool.contains(i * 31L));
+    }
+    SimpleList<Sequence> longs = pool.getSequences(JavaTypes.LONG_TYPE);
+    assertEquals(1000, longs.size());
+    assertEquals(Sequence.createSequenceForPrimitive(999 * 31L), longs.get(999));
+  }
+
+  @Test
+  public void testViews() {
+    PrimitiveValuePool pool = new PrimitiveValuePool();
+    SimpleList<Sequence> ints = pool.getSequences(JavaTypes.INT_TYPE);
+    SimpleList<Sequence> objects = pool.getSequences(JavaTypes.OBJECT_TYPE);
+    assertNull(pool.getSequences(Type.forClass(List.class)));
+    assertSame(ints, pool.getSequences(JavaTypes.INT_TYPE));
+    assertTrue(ints.isEmpty());
+
+    pool.add(3);
+    pool.add((byte) 2);
+    pool.add(4.0);
+    pool.add("s");
+    List<Sequence> expected = new ArrayList<>();
+    expected.add(Sequence.createSequenceForPrimitive((byte) 2));
+    expected.add(Sequence.createSequenceForPrimitive(3));
+    assertEquals("int view includes widened byte", expected, ints.toJDKList());
+    assertEquals(4, objects.size());
+    assertEquals(
+        Arrays.asList(Sequence.createSequenceForPrimitive("s")),
+        pool.getSequences(JavaTypes.STRING_TYPE).toJDKList());
+    assertSame("sequences are kept", ints.get(1), ints.get(1));
+    assertEquals(4, pool.getAllSequences().size());
+
+    WeightedSelection<?> weighted = (WeightedSelection<?>) ints;
+    assertEquals(2.0, weighted.getTotalWeight(), 0.0);
+    assertEquals(ints.get(1), weighted.getByWeight(1.5));
+  }
+}
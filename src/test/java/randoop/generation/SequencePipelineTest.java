@@ -0,0 +1,109 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import randoop.ExecutionVisitor;
+import randoop.operation.TypedOperation;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+import randoop.test.DummyCheckGenerator;
+import randoop.test.TestCheckGenerator;
+import randoop.test.TestChecks;
+import randoop.types.JavaTypes;
+
+public class SequencePipelineTest {
+
+  private static ExecutableSequence createSequence(int value) {
+    return new ExecutableSequence(
+        new Sequence()
+            .extend(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, value)));
+  }
+
+  /** Records the executions and check generations, in order. */
+  private static final class RecordingVisitor implements ExecutionVisitor, TestCheckGenerator {
+
+    final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+
+    final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    public void initialize(ExecutableSequence eSeq) {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      events.add("execute " + eSeq.sequence.toCodeString().trim());
+    }
+
+    @Override
+    public void visitBeforeStatement(ExecutableSequence eSeq, int i) {
+      // do nothing
+    }
+
+    @Override
+    public void visitAfterStatement(ExecutableSequence eSeq, int i) {
+      // do nothing
+    }
+
+    @Override
+    public void visitAfterSequence(ExecutableSequence eSeq) {
+      // do nothing
+    }
+
+    @Override
+    public TestChecks visit(ExecutableSequence eSeq) {
+      events.add("check " + eSeq.sequence.toCodeString().trim());
+      return new DummyCheckGenerator().visit(eSeq);
+    }
+  }
+
+  @Test
+  public void testChecksBeforeNextExecution() {
+    RecordingVisitor visitor = new RecordingVisitor();
+    SequencePipeline pipeline = new SequencePipeline(2, 0, visitor, visitor);
+    ExecutableSequence first = createSequence(1);
+    ExecutableSequence second = createSequence(2);
+    pipeline.submit(first);
+    pipeline.submit(second);
+    assertTrue(pipeline.isFull());
+    visitor.release.countDown();
+
+    assertSame(first, pipeline.take());
+    assertSame(second, pipeline.take());
+    assertNull(pipeline.take());
+    pipeline.shutdown();
+
+    String a = first.sequence.toCodeString().trim();
+    String b = second.sequence.toCodeString().trim();
+    assertEquals(
+        Arrays.asList("execute " + a, "check " + a, "execute " + b, "check " + b), visitor.events);
+  }
+
+  @Test
+  public void testInterruptedTake() {
+    RecordingVisitor visitor = new RecordingVisitor();
+    SequencePipeline pipeline = new SequencePipeline(1, 0, visitor, visitor);
+    ExecutableSequence eSeq = createSequence(1);
+    pipeline.submit(eSeq);
+
+    Thread.currentThread().interrupt();
+    assertNull("no sequence while interrupted", pipeline.take());
+    assertTrue("interrupt status restored", Thread.interrupted());
+
+    visitor.release.countDown();
+    assertSame("sequence kept in the pipeline", eSeq, pipeline.take());
+    pipeline.shutdown();
+  }
+}
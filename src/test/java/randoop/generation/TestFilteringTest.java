@@ -15,6 +15,7 @@ import java.util.regex.Pattern;
 import randoop.DummyVisitor;
 import randoop.main.GenInputsAbstract;
 import randoop.main.GenInputsAbstract.BehaviorType;
+import randoop.main.GenInputsAbstract.DuplicateFilterMode;
 import randoop.main.GenTests;
 import randoop.main.OptionsCache;
 import randoop.operation.TypedOperation;
@@ -32,8 +33,10 @@ import randoop.test.TestCheckGenerator;
 import randoop.types.ClassOrInterfaceType;
 import randoop.types.Type;
 import randoop.util.MultiMap;
+import randoop.util.Randomness;
 import randoop.util.predicate.Predicate;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class TestFilteringTest {
@@ -233,6 +236,52 @@ public class TestFilteringTest {
     assertTrue("should have some error tests", eTests.size() > 0);
   }
 
+  /**
+   * Subsumed tests should be filtered the same way when only their
+   * fingerprints are kept as when the sequences themselves are kept.
+   */
+  @Test
+  public void subsumedFingerprintTest() {
+    GenInputsAbstract.dont_output_tests = false;
+    GenInputsAbstract.include_if_classname_appears = null;
+    GenInputsAbstract.no_error_revealing_tests = false;
+    GenInputsAbstract.no_regression_tests = false;
+    GenInputsAbstract.no_regression_assertions = false;
+    GenInputsAbstract.outputlimit = 1000;
+    GenInputsAbstract.inputlimit = 1000;
+    GenInputsAbstract.forbid_null = false;
+
+    ForwardGenerator exact = generateWithSubsumedFilter(DuplicateFilterMode.EXACT);
+    ForwardGenerator fingerprint = generateWithSubsumedFilter(DuplicateFilterMode.FINGERPRINT);
+
+    List<String> expected = toCode(exact.getRegressionSequences());
+    assertTrue("should have some regression tests", expected.size() > 0);
+    assertTrue("should filter some tests", expected.size() < exact.outRegressionSeqs.size());
+    assertEquals(toCode(exact.outRegressionSeqs), toCode(fingerprint.outRegressionSeqs));
+    assertEquals(expected, toCode(fingerprint.getRegressionSequences()));
+  }
+
+  private ForwardGenerator generateWithSubsumedFilter(DuplicateFilterMode mode) {
+    DuplicateFilterMode saved = GenInputsAbstract.subsumed_filter;
+    GenInputsAbstract.subsumed_filter = mode;
+    try {
+      Randomness.reset(GenInputsAbstract.randomseed);
+      ForwardGenerator gen = buildGenerator(Flaky.class);
+      gen.explore();
+      return gen;
+    } finally {
+      GenInputsAbstract.subsumed_filter = saved;
+    }
+  }
+
+  private static List<String> toCode(List<ExecutableSequence> sequences) {
+    List<String> code = new ArrayList<>();
+    for (ExecutableSequence es : sequences) {
+      code.add(es.sequence.toCodeString());
+    }
+    return code;
+  }
+
   private ForwardGenerator buildGenerator(Class<?> c) {
 
     Set<String> omitfields = new HashSet<>();
@@ -0,0 +1,124 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import randoop.operation.TypedOperation;
+import randoop.types.JavaTypes;
+import randoop.util.Randomness;
+
+public class UcbOperationSelectorTest {
+
+  private static List<TypedOperation> createOperations() {
+    List<TypedOperation> operations = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      operations.add(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, i));
+    }
+    return operations;
+  }
+
+  @Test
+  public void testEachOperationTriedFirst() {
+    List<TypedOperation> operations = createOperations();
+    UcbOperationSelector selector = new UcbOperationSelector(operations);
+    Set<TypedOperation> selected = new HashSet<>();
+    for (int i = 0; i < operations.size(); i++) {
+      selected.add(selector.selectOperation());
+    }
+    assertEquals(new HashSet<>(operations), selected);
+  }
+
+  @Test
+  public void testFavorsProductiveOperation() {
+    List<TypedOperation> operations = createOperations();
+    TypedOperation productive = operations.get(1);
+    UcbOperationSelector selector = new UcbOperationSelector(operations);
+    for (int i = 0; i < 1000; i++) {
+      TypedOperation operation = selector.selectOperation();
+      selector.recordOutcome(operation, operation.equals(productive) ? 1 : 0, 1, 1000);
+    }
+    assertTrue(
+        "productive operation selected most: " + selector.getStatistics(productive),
+        selector.getStatistics(productive).getSelections() > 900);
+    for (TypedOperation operation : operations) {
+      assertTrue(
+          "every operation is still tried",
+          selector.getStatistics(operation).getSelections() > 1);
+    }
+  }
+
+  @Test
+  public void testFavorsCheapOperation() {
+    List<TypedOperation> operations = createOperations();
+    TypedOperation cheap = operations.get(2);
+    UcbOperationSelector selector = new UcbOperationSelector(operations);
+    for (int i = 0; i < 1000; i++) {
+      TypedOperation operation = selector.selectOperation();
+      selector.recordOutcome(operation, 0.5, operation.equals(cheap) ? 1 : 10, 1000);
+    }
+    assertTrue(
+        "cheap operation selected most: " + selector.getStatistics(cheap),
+        selector.getStatistics(cheap).getSelections() > 500);
+  }
+
+  @Test
+  public void testRemoveOperation() {
+    List<TypedOperation> operations = createOperations();
+    UcbOperationSelector selector = new UcbOperationSelector(operations);
+    for (TypedOperation operation : new ArrayList<>(operations)) {
+      selector.removeOperation(operation);
+    }
+    assertNull(selector.selectOperation());
+  }
+
+  @Test
+  public void testStatisticsFollowReorderedOperations() {
+    List<TypedOperation> operations = createOperations();
+    TypedOperation moved = operations.get(0);
+    UcbOperationSelector selector = new UcbOperationSelector(operations);
+    selector.removeOperation(moved);
+    selector.addOperation(moved);
+    int movedSelections = 0;
+    for (int i = 0; i < 100; i++) {
+      TypedOperation operation = selector.selectOperation();
+      if (operation.equals(moved)) {
+        movedSelections++;
+      }
+      selector.recordOutcome(operation, 0.5, 1, 1000);
+    }
+    assertEquals(movedSelections, selector.getStatistics(moved).getSelections());
+  }
+
+  @Test
+  public void testIgnoresStepTimes() {
+    List<Integer> first = selectWithTimes(1000);
+    List<Integer> second = selectWithTimes(7000);
+    assertEquals(first, second);
+  }
+
+  // Returns the positions of the operations selected with the same seed when
+  // the steps of the first operation take the given time.
+  private static List<Integer> selectWithTimes(long nanos) {
+    Randomness.reset(0);
+    List<TypedOperation> operations = createOperations();
+    List<TypedOperation> original = new ArrayList<>(operations);
+    UcbOperationSelector selector = new UcbOperationSelector(operations);
+    List<Integer> selections = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      TypedOperation operation = selector.selectOperation();
+      int position = original.indexOf(operation);
+      selections.add(position);
+      long time = (position == 0) ? nanos : 1000;
+      selector.recordOutcome(operation, (i % 3 == 0) ? 1 : 0, 1 + position, time);
+    }
+    return selections;
+  }
+}
@@ -0,0 +1,111 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import randoop.operation.TypedOperation;
+import randoop.types.JavaTypes;
+import randoop.util.SimpleList;
+
+/**
+ * Tests for {@link ConcurrentSequenceCollection}.
+ */
+public class ConcurrentSequenceCollectionTest {
+
+  private static Sequence intValue(int value) {
+    return new Sequence()
+        .extend(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, value));
+  }
+
+  private static Sequence stringValue(String value) {
+    return new Sequence()
+        .extend(TypedOperation.createPrimitiveInitialization(JavaTypes.STRING_TYPE, value));
+  }
+
+  @Test
+  public void testSameSequencesAsSequenceCollection() {
+    List<Sequence> sequences = new ArrayList<>();
+    List<Sequence> ints = new ArrayList<>();
+    List<Sequence> strings = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      Sequence sequence = (i % 3 == 0) ? stringValue("s" + i) : intValue(5000 + i);
+      sequences.add(sequence);
+      ((i % 3 == 0) ? strings : ints).add(sequence);
+    }
+    SequenceCollection expected = new SequenceCollection(sequences);
+    ConcurrentSequenceCollection actual = new ConcurrentSequenceCollection();
+    SimpleList<Sequence> before = actual.getSequencesForType(JavaTypes.OBJECT_TYPE, false);
+    actual.addAll(sequences);
+
+    assertEquals(expected.size(), actual.size());
+    assertEquals(expected.numTypes(), actual.numTypes());
+    assertEquals(0, before.size());
+    assertEquals(expected.getAllSequences(), actual.getAllSequences());
+    assertEquals(
+        new HashSet<>(expected.getSequencesForType(JavaTypes.OBJECT_TYPE, false).toJDKList()),
+        new HashSet<>(actual.getSequencesForType(JavaTypes.OBJECT_TYPE, false).toJDKList()));
+    assertEquals(
+        expected.getSequencesForType(JavaTypes.INT_TYPE, true).toJDKList(),
+        actual.getSequencesForType(JavaTypes.INT_TYPE, true).toJDKList());
+    assertEquals(0, actual.getSequencesForType(JavaTypes.BOOLEAN_TYPE, true).size());
+
+    // Types in the order of their first sequence, and sequences in the order
+    // in which they were added.
+    List<Sequence> inOrder = new ArrayList<>(strings);
+    inOrder.addAll(ints);
+    assertEquals(inOrder, actual.getSequencesForType(JavaTypes.OBJECT_TYPE, false).toJDKList());
+
+    actual.clear();
+    assertEquals(0, actual.size());
+    assertEquals(0, actual.numTypes());
+    assertEquals(0, actual.getSequencesForType(JavaTypes.OBJECT_TYPE, false).size());
+  }
+
+  @Test
+  public void testConcurrentAdds() throws InterruptedException {
+    final ConcurrentSequenceCollection collection = new ConcurrentSequenceCollection();
+    final int threadCount = 4;
+    final int perThread = 500;
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < threadCount; t++) {
+      // Sequences are created by this thread: only the collection is shared.
+      final List<Sequence> sequences = new ArrayList<>();
+      for (int i = 0; i < perThread; i++) {
+        sequences.add(intValue(6000 + t * perThread + i));
+        sequences.add(stringValue("t" + t + "-" + i));
+      }
+      Thread thread =
+          new Thread() {
+            @Override
+            public void run() {
+              for (Sequence sequence : sequences) {
+                collection.add(sequence);
+                SimpleList<Sequence> l =
+                    collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false);
+                for (int j = 0; j < l.size(); j++) {
+                  l.get(j);
+                }
+              }
+            }
+          };
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(2 * threadCount * perThread, collection.size());
+    assertEquals(
+        threadCount * perThread, collection.getSequencesForType(JavaTypes.INT_TYPE, true).size());
+    assertEquals(
+        2 * threadCount * perThread,
+        collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false).size());
+  }
+}
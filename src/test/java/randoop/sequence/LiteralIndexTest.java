@@ -0,0 +1,51 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import randoop.types.ClassOrInterfaceType;
+import randoop.types.JavaTypes;
+import randoop.util.SimpleList;
+
+public class LiteralIndexTest {
+
+  private static final ClassOrInterfaceType ARRAY_LIST =
+      ClassOrInterfaceType.forClass(ArrayList.class);
+
+  @Test
+  public void testSuperclassAndPackageLiterals() {
+    Sequence own = Sequence.createSequenceForPrimitive(1);
+    Sequence inherited = Sequence.createSequenceForPrimitive(2);
+    Sequence fromPackage = Sequence.createSequenceForPrimitive(3);
+    Sequence text = Sequence.createSequenceForPrimitive("text");
+    Sequence unrelated = Sequence.createSequenceForPrimitive(4);
+
+    LiteralIndex index = new LiteralIndex();
+    index.addPackageLiteral(ArrayList.class.getPackage(), fromPackage);
+    index.addClassLiteral(ClassOrInterfaceType.forClass(AbstractCollection.class), inherited);
+    index.addClassLiteral(ARRAY_LIST, own);
+    index.addClassLiteral(ARRAY_LIST, text);
+    index.addClassLiteral(ClassOrInterfaceType.forClass(String.class), unrelated);
+
+    SimpleList<Sequence> ints = index.getLiterals(ARRAY_LIST, JavaTypes.INT_TYPE);
+    assertEquals(Arrays.asList(own, inherited, fromPackage), ints.toJDKList());
+    assertSame(
+        "literals are gathered once", ints, index.getLiterals(ARRAY_LIST, JavaTypes.INT_TYPE));
+    assertEquals(
+        Arrays.asList(text), index.getLiterals(ARRAY_LIST, JavaTypes.STRING_TYPE).toJDKList());
+    assertTrue("exact type", index.getLiterals(ARRAY_LIST, JavaTypes.LONG_TYPE).isEmpty());
+
+    Sequence added = Sequence.createSequenceForPrimitive(5);
+    index.addClassLiteral(ARRAY_LIST, added);
+    assertEquals(
+        Arrays.asList(own, added, inherited, fromPackage),
+        index.getLiterals(ARRAY_LIST, JavaTypes.INT_TYPE).toJDKList());
+  }
+}
@@ -0,0 +1,114 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import randoop.operation.TypedOperation;
+import randoop.types.JavaTypes;
+
+/**
+ * Tests for a {@link SequenceCollection} with a capacity per type.
+ */
+public class SequenceCollectionTest {
+
+  private static Sequence intValue(int value) {
+    return new Sequence()
+        .extend(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, value));
+  }
+
+  private static Sequence stringValue(String value) {
+    return new Sequence()
+        .extend(TypedOperation.createPrimitiveInitialization(JavaTypes.STRING_TYPE, value));
+  }
+
+  @Test
+  public void testCapacityPerType() {
+    SequenceCollection collection =
+        new SequenceCollection(new ArrayList<Sequence>(), 3, new LruEvictionPolicy());
+    for (int i = 0; i < 10; i++) {
+      collection.add(intValue(1000 + i));
+    }
+    collection.add(stringValue("capacity"));
+    assertEquals(3, collection.getSequencesForType(JavaTypes.INT_TYPE, true).size());
+    assertEquals(1, collection.getSequencesForType(JavaTypes.STRING_TYPE, true).size());
+    assertEquals(4, collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false).size());
+    assertEquals(4, collection.size());
+  }
+
+  @Test
+  public void testSeedsArePinned() {
+    Sequence seed = intValue(2000);
+    SequenceCollection collection =
+        new SequenceCollection(Collections.singleton(seed), 1, new LruEvictionPolicy());
+    for (int i = 1; i < 10; i++) {
+      collection.add(intValue(2000 + i));
+    }
+    Set<Sequence> all = collection.getAllSequences();
+    assertEquals("seed and one generated sequence", 2, all.size());
+    assertTrue("seed is kept", all.contains(seed));
+  }
+
+  @Test
+  public void testLruEvictsLeastRecentlyUsed() {
+    SequenceCollection collection =
+        new SequenceCollection(new ArrayList<Sequence>(), 2, new LruEvictionPolicy());
+    Sequence old = intValue(3000);
+    Sequence recent = intValue(3001);
+    collection.add(recent);
+    collection.add(old);
+    collection.recordUse(Collections.singletonList(recent));
+    Sequence incoming = intValue(3002);
+    collection.add(incoming);
+    Set<Sequence> all = collection.getAllSequences();
+    assertFalse("least recently used sequence is evicted", all.contains(old));
+    assertTrue(all.contains(recent));
+    assertTrue(all.contains(incoming));
+  }
+
+  @Test
+  public void testPolicies() {
+    Sequence small = intValue(4000);
+    Sequence large =
+        small.extend(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, 4001));
+    SequenceUsage usage = new SequenceUsage();
+    usage.added(small);
+    usage.added(large);
+    List<Sequence> candidates = new ArrayList<>();
+    candidates.add(small);
+    candidates.add(large);
+    assertEquals(0, new LfuEvictionPolicy().chooseVictim(candidates, usage, small, 3, 2));
+    usage.recordUse(Collections.singletonList(small));
+    assertEquals(1, new LfuEvictionPolicy().chooseVictim(candidates, usage, small, 3, 2));
+    assertEquals(1, new LargestEvictionPolicy().chooseVictim(candidates, usage, small, 3, 2));
+  }
+
+  @Test
+  public void testUsageIsPerCollection() {
+    // Value sequences are interned, so both collections hold the same object.
+    Sequence shared = Sequence.createSequenceForPrimitive(5000);
+    SequenceCollection used =
+        new SequenceCollection(new ArrayList<Sequence>(), 2, new LfuEvictionPolicy());
+    SequenceCollection unused =
+        new SequenceCollection(new ArrayList<Sequence>(), 2, new LfuEvictionPolicy());
+    Sequence other = intValue(5001);
+    used.add(shared);
+    used.add(other);
+    unused.add(shared);
+    unused.add(other);
+    used.recordUse(Collections.singletonList(shared));
+
+    used.add(intValue(5002));
+    unused.add(intValue(5002));
+    assertTrue("used sequence is kept", used.getAllSequences().contains(shared));
+    assertFalse(
+        "use in another collection is not counted", unused.getAllSequences().contains(shared));
+  }
+}
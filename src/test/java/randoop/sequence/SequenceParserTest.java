@@ -0,0 +1,73 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SequenceParserTest {
+
+  private static final List<String> STATEMENTS =
+      Arrays.asList(
+          "sb0 = cons : java.lang.StringBuilder.<init>() :",
+          "str1 = prim : java.lang.String:\"a : b\" :",
+          "sb2 = method : java.lang.StringBuilder.append(java.lang.String) : sb0 str1",
+          "i3 =  prim : int:-17 :",
+          "sb4 = method : java.lang.StringBuilder.append(int) : sb2 i3",
+          "str5 = method : java.lang.StringBuilder.toString() : sb0");
+
+  @Test
+  public void testStream() throws Exception {
+    Sequence expected = Sequence.parse(STATEMENTS);
+    String text = "\n" + join(STATEMENTS, "\r\n") + "\r\n\r\n \n" + join(STATEMENTS, "\n");
+    SequenceParser parser = new SequenceParser(new StringReader(text));
+    Sequence first = parser.next();
+    Sequence second = parser.next();
+    assertNull(parser.next());
+    assertEquals(expected, first);
+    assertEquals(expected, second);
+    assertSame(
+        "operations are cached",
+        first.getStatement(2).getOperation(),
+        second.getStatement(2).getOperation());
+
+    parser.reset(CharBuffer.wrap(expected.toParsableString()));
+    List<Sequence> sequences = parser.readAll();
+    assertEquals(Arrays.asList(expected), sequences);
+    assertSame(
+        "cache survives reset",
+        first.getStatement(0).getOperation(),
+        sequences.get(0).getStatement(0).getOperation());
+  }
+
+  @Test
+  public void testErrorPosition() throws Exception {
+    String text =
+        STATEMENTS.get(0)
+            + "\n"
+            + "sb1 = method : java.lang.StringBuilder.append(java.lang.String) : sb0 str9\n";
+    try {
+      new SequenceParser(new StringReader(text)).next();
+      fail("undeclared variable should be detected");
+    } catch (SequenceParseException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("line 2, column 71"));
+      assertTrue(e.getMessage(), e.getMessage().contains("str9"));
+    }
+  }
+
+  private static String join(List<String> lines, String separator) {
+    StringBuilder b = new StringBuilder();
+    for (String line : lines) {
+      b.append(line).append(separator);
+    }
+    return b.toString();
+  }
+}
@@ -0,0 +1,168 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import randoop.operation.TypedOperation;
+import randoop.types.JavaTypes;
+import randoop.types.Type;
+
+public class SequenceReaderWriterTest {
+
+  private static Sequence literal(Type type, Object value) {
+    return new Sequence().extend(TypedOperation.createPrimitiveInitialization(type, value));
+  }
+
+  private static List<Sequence> sampleSequences() throws SequenceParseException {
+    List<Sequence> sequences = new ArrayList<>();
+    sequences.add(
+        Sequence.parse(
+            Arrays.asList(
+                "sb0 = cons : java.lang.StringBuilder.<init>() :",
+                "str1 = prim : java.lang.String:\"hi!\" :",
+                "sb2 = method : java.lang.StringBuilder.append(java.lang.String) : sb0 str1",
+                "i3 = prim : int:-17 :",
+                "sb4 = method : java.lang.StringBuilder.append(int) : sb2 i3",
+                "str5 = method : java.lang.StringBuilder.toString() : sb0")));
+    sequences.add(literal(JavaTypes.BOOLEAN_TYPE, true));
+    sequences.add(literal(JavaTypes.BYTE_TYPE, Byte.MIN_VALUE));
+    sequences.add(literal(JavaTypes.SHORT_TYPE, (short) -300));
+    sequences.add(literal(JavaTypes.CHAR_TYPE, '\uffff'));
+    sequences.add(literal(JavaTypes.INT_TYPE, Integer.MIN_VALUE));
+    sequences.add(literal(JavaTypes.LONG_TYPE, Long.MAX_VALUE));
+    sequences.add(literal(JavaTypes.FLOAT_TYPE, Float.NaN));
+    sequences.add(literal(JavaTypes.DOUBLE_TYPE, -0.0d));
+    sequences.add(literal(JavaTypes.STRING_TYPE, "\ud800 unpaired"));
+    sequences.add(Sequence.zero(JavaTypes.STRING_TYPE));
+    sequences.add(
+        Sequence.concatenate(Arrays.asList(sequences.get(0), sequences.get(5), sequences.get(0))));
+    return sequences;
+  }
+
+  private static byte[] write(List<Sequence> sequences) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (SequenceWriter writer = new SequenceWriter(Channels.newChannel(out))) {
+      for (Sequence sequence : sequences) {
+        writer.write(sequence);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static SequenceReader reader(byte[] bytes) throws IOException {
+    return new SequenceReader(Channels.newChannel(new ByteArrayInputStream(bytes)));
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    List<Sequence> sequences = sampleSequences();
+    byte[] bytes = write(sequences);
+    try (SequenceReader reader = reader(bytes)) {
+      for (Sequence expected : sequences) {
+        Sequence actual = reader.read();
+        assertEquals(expected, actual);
+        assertEquals(expected.toParsableString(), actual.toParsableString());
+      }
+      assertNull("end of stream", reader.read());
+    }
+  }
+
+  @Test
+  public void testCompactness() throws Exception {
+    Sequence sequence = sampleSequences().get(0);
+    int once = write(Arrays.asList(sequence)).length;
+    int twice = write(Arrays.asList(sequence, sequence)).length;
+    assertTrue(
+        "operations are written once, and statements take a few bytes",
+        twice - once < sequence.toParsableString().length() / 10);
+  }
+
+  @Test
+  public void testSkipUnresolved() throws Exception {
+    List<Sequence> sequences = sampleSequences();
+    byte[] bytes = write(sequences);
+    // Rename the StringBuilder constructor, used by the first and last sequences.
+    byte[] name = "StringBuilder.<init>".getBytes(StandardCharsets.US_ASCII);
+    int position = indexOf(bytes, name);
+    assertTrue("constructor is in the stream", position >= 0);
+    bytes[position + "StringBuilder".length() - 1] = 'X';
+
+    try (SequenceReader reader = reader(bytes)) {
+      reader.read();
+      fail("unresolved operation should be detected");
+    } catch (IOException e) {
+      // expected
+    }
+
+    try (SequenceReader reader =
+        new SequenceReader(Channels.newChannel(new ByteArrayInputStream(bytes)), true)) {
+      for (Sequence expected : sequences.subList(1, sequences.size() - 1)) {
+        assertEquals(expected, reader.read());
+      }
+      assertNull("end of stream", reader.read());
+      assertEquals(2, reader.getSkippedCount());
+    }
+  }
+
+  private static int indexOf(byte[] bytes, byte[] target) {
+    for (int i = 0; i + target.length <= bytes.length; i++) {
+      if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + target.length), target)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Test
+  public void testMalformedStreams() throws Exception {
+    byte[] bytes = write(sampleSequences());
+    try (SequenceReader reader = reader(Arrays.copyOf(bytes, bytes.length - 1))) {
+      while (reader.read() != null) {
+        // Keep reading until the truncated record.
+      }
+      fail("truncated stream should be detected");
+    } catch (EOFException e) {
+      // expected
+    }
+
+    bytes[0] = 'X';
+    try {
+      reader(bytes);
+      fail("bad header should be detected");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testCorruptStringLength() throws Exception {
+    byte[] bytes = write(Arrays.asList(literal(JavaTypes.STRING_TYPE, "@@")));
+    int at = indexOf(bytes, new byte[] {2, '@', '@'});
+    assertTrue("string literal found", at >= 0);
+    // A length of almost 2^31 characters, followed by the two real ones.
+    ByteArrayOutputStream corrupt = new ByteArrayOutputStream();
+    corrupt.write(bytes, 0, at);
+    corrupt.write(new byte[] {(byte) 0xF0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+    corrupt.write(bytes, at + 1, bytes.length - at - 1);
+    try (SequenceReader reader = reader(corrupt.toByteArray())) {
+      reader.read();
+      fail("truncated string should be detected");
+    } catch (EOFException e) {
+      // expected
+    }
+  }
+}
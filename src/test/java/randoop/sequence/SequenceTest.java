@@ -0,0 +1,145 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import randoop.operation.TypedOperation;
+import randoop.types.ArrayType;
+import randoop.types.JavaTypes;
+
+/**
+ * Tests for the representation of {@link Sequence} and {@link Statement}.
+ */
+public class SequenceTest {
+
+  private static TypedOperation intValue(int value) {
+    return TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, value);
+  }
+
+  private static TypedOperation intArray() {
+    return TypedOperation.createArrayCreation(ArrayType.ofElementType(JavaTypes.INT_TYPE));
+  }
+
+  @Test
+  public void testExtendWithIndices() {
+    Sequence base = new Sequence().extend(intValue(1)).extend(intValue(2));
+
+    Sequence byVariable = base.extend(intArray(), base.getVariable(0));
+    Sequence byIndex = base.extend(intArray(), new int[] {0});
+    assertEquals("extension by index equals extension by variable", byVariable, byIndex);
+    assertEquals("equal hash codes", byVariable.hashCode(), byIndex.hashCode());
+
+    Sequence other = base.extend(intArray(), new int[] {1});
+    assertFalse("different inputs give different sequences", byIndex.equals(other));
+
+    assertEquals(1, byIndex.getInputCount(2));
+    assertEquals(0, byIndex.getInputIndex(2, 0));
+    assertEquals(1, other.getInputIndex(2, 0));
+    assertEquals(Arrays.asList(1), other.getInputsAsAbsoluteIndices(2));
+  }
+
+  @Test
+  public void testStatementEquality() {
+    Sequence s1 = new Sequence().extend(intValue(1));
+    s1 = s1.extend(intArray(), new int[] {0});
+    Sequence s2 = new Sequence().extend(intValue(1));
+    s2 = s2.extend(intArray(), s2.getLastVariable());
+
+    Statement st1 = s1.getStatement(1);
+    Statement st2 = s2.getStatement(1);
+    assertTrue("statements with same operation and inputs are equal", st1.equals(st2));
+    assertEquals(st1.hashCode(), st2.hashCode());
+    assertFalse(st1.equals(s1.getStatement(0)));
+  }
+
+  @Test
+  public void testLongExtension() {
+    Sequence sequence = new Sequence();
+    List<Sequence> prefixes = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      if (i % 2 == 0) {
+        sequence = sequence.extend(intValue(i));
+      } else {
+        sequence = sequence.extend(intArray(), new int[] {i - 1});
+      }
+      prefixes.add(sequence);
+    }
+    sequence = Sequence.concatenate(prefixes.subList(0, 3));
+    sequence = Sequence.concatenate(Arrays.asList(sequence, prefixes.get(499)));
+
+    assertEquals(1 + 2 + 3 + 500, sequence.size());
+    int offset = 1 + 2 + 3;
+    for (int i = 0; i < 500; i++) {
+      Statement statement = sequence.getStatement(offset + i);
+      if (i % 2 == 0) {
+        assertEquals(i, statement.getValue());
+      } else {
+        assertEquals(offset + i - 1, sequence.getInputIndex(offset + i, 0));
+      }
+    }
+  }
+
+  @Test
+  public void testInterning() {
+    Sequence s1 = Sequence.createSequenceForPrimitive(42);
+    Sequence s2 = Sequence.createSequenceForPrimitive(42);
+    assertSame("value sequences are canonical", s1, s2);
+    assertSame(
+        "null sequences are canonical",
+        Sequence.zero(JavaTypes.STRING_TYPE),
+        Sequence.zero(JavaTypes.STRING_TYPE));
+
+    Sequence e1 = new Sequence().extend(intValue(3)).extend(intArray(), new int[] {0});
+    Sequence e2 = new Sequence().extend(intValue(3)).extend(intArray(), new int[] {0});
+    assertSame("equal statements are canonical", e1.getStatement(1), e2.getStatement(1));
+    assertEquals(e1, e2);
+  }
+
+  @Test
+  public void testOrderSensitiveHash() {
+    Sequence a = new Sequence().extend(intValue(1));
+    Sequence b = new Sequence().extend(intValue(2));
+    Sequence ab = Sequence.concatenate(Arrays.asList(a, b));
+    Sequence ba = Sequence.concatenate(Arrays.asList(b, a));
+    assertFalse("permutations differ", ab.equals(ba));
+    assertFalse("permutations hash differently", ab.longHashCode() == ba.longHashCode());
+
+    Sequence extended = a.extend(intValue(2)).extend(intArray(), new int[] {0});
+    Sequence concatenated =
+        Sequence.concatenate(Arrays.asList(a, b)).extend(intArray(), new int[] {0});
+    assertEquals(extended, concatenated);
+    assertEquals(extended.longHashCode(), concatenated.longHashCode());
+    assertEquals(extended.hashCode(), concatenated.hashCode());
+    assertEquals(
+        "hash does not depend on how the statement list is built",
+        extended.longHashCode(),
+        new Sequence(concatenated.statements).longHashCode());
+  }
+
+  @Test
+  public void testLastStatementIndices() {
+    Sequence base = new Sequence().extend(intValue(1)).extend(intValue(2));
+    Sequence s = base.extend(intArray(), new int[] {1});
+
+    assertEquals(JavaTypes.INT_TYPE, s.getOutputType(1));
+    assertEquals(s.getVariable(2).getType(), s.getOutputType(2));
+
+    assertEquals("output and one input", 2, s.getLastStatementVariableCount());
+    assertEquals(2, s.getLastStatementVariableIndex(0));
+    assertEquals(1, s.getLastStatementVariableIndex(1));
+
+    assertEquals(1, s.randomIndexForTypeLastStatement(JavaTypes.INT_TYPE));
+    assertEquals(1, s.randomVariableForTypeLastStatement(JavaTypes.INT_TYPE).getDeclIndex());
+    assertEquals(-1, s.randomIndexForTypeLastStatement(JavaTypes.STRING_TYPE));
+    assertNull(s.randomVariableForTypeLastStatement(JavaTypes.STRING_TYPE));
+  }
+}
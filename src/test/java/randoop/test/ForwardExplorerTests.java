@@ -150,6 +150,35 @@ public class ForwardExplorerTests {
     assertTrue(random);
   }
 
+  @Test
+  public void testMaxSize() {
+    List<Class<?>> classes = new ArrayList<>();
+    classes.add(randoop.test.BiSortVal.class);
+    classes.add(BiSort.class);
+    ComponentManager mgr = new ComponentManager(SeedSequences.defaultSeeds());
+    final List<TypedOperation> model = getConcreteOperations(classes);
+    int oldMaxsize = GenInputsAbstract.maxsize;
+    boolean oldRepeatHeuristic = GenInputsAbstract.repeat_heuristic;
+    GenInputsAbstract.maxsize = 4;
+    GenInputsAbstract.repeat_heuristic = true;
+    GenInputsAbstract.ignore_flaky_tests = true;
+    ForwardGenerator exp =
+        new ForwardGenerator(
+            model, new LinkedHashSet<TypedOperation>(), Long.MAX_VALUE, 200, 200, mgr, null, null);
+    exp.addTestCheckGenerator(createChecker(new ContractSet()));
+    exp.addTestPredicate(createOutputTest());
+    try {
+      exp.explore();
+      for (Sequence s : exp.getAllSequences()) {
+        assertTrue("sequence within size limit: " + s, s.size() <= GenInputsAbstract.maxsize);
+      }
+    } finally {
+      GenInputsAbstract.maxsize = oldMaxsize;
+      GenInputsAbstract.repeat_heuristic = oldRepeatHeuristic;
+    }
+    assertTrue("oversize sequences are rejected early", exp.num_oversize_selections > 0);
+  }
+
   @Test
   public void test4() throws Exception {
 
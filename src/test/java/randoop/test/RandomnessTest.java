@@ -4,8 +4,14 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 import junit.framework.TestCase;
+import randoop.operation.TypedOperation;
+import randoop.sequence.Sequence;
+import randoop.types.JavaTypes;
 import randoop.util.ArrayListSimpleList;
+import randoop.util.ListOfLists;
 import randoop.util.Randomness;
+import randoop.util.SimpleList;
+import randoop.util.WeightedArrayListSimpleList;
 import randoop.util.WeightedElement;
 
 public class RandomnessTest extends TestCase {
@@ -63,4 +69,31 @@ public class RandomnessTest extends TestCase {
       assertTrue(Math.abs(actualRatio - expectedRatio) < epsilon);
     }
   }
+
+  /**
+   * Checks that randomMemberWeighted selects elements in proportion to their
+   * weights when the list keeps its weights in a tree, and when such a list
+   * is combined with an unweighted list.
+   */
+  public void testRandomMemberWeightedSelection() {
+    WeightedArrayListSimpleList<Sequence> weighted = new WeightedArrayListSimpleList<>();
+    ArrayListSimpleList<Sequence> unweighted = new ArrayListSimpleList<>();
+    Sequence small = Sequence.createSequenceForPrimitive(1);
+    Sequence large =
+        small.extend(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, 2));
+    weighted.add(small);
+    weighted.add(large);
+    unweighted.add(large);
+    SimpleList<Sequence> list = new ListOfLists<>(weighted, unweighted);
+
+    int smallSelected = 0;
+    int selections = 100000;
+    for (int i = 0; i < selections; i++) {
+      if (Randomness.randomMemberWeighted(list) == small) {
+        smallSelected++;
+      }
+    }
+    // small has weight 1, and large has weight 1/2 in each list.
+    assertTrue(Math.abs(smallSelected / (double) selections - 0.5) < epsilon);
+  }
 }
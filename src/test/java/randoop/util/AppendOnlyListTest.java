@@ -0,0 +1,75 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class AppendOnlyListTest {
+
+  @Test
+  public void testAcrossSegments() {
+    AppendOnlyList<Integer> l = new AppendOnlyList<>();
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      l.add(i);
+      expected.add(i);
+    }
+    assertEquals(1000, l.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(Integer.valueOf(i), l.get(i));
+    }
+    assertEquals(expected, l.toJDKList());
+    assertEquals(expected, new ArraySimpleList<>(l).toJDKList());
+  }
+
+  @Test
+  public void testSnapshot() {
+    AppendOnlyList<Integer> l = new AppendOnlyList<>();
+    l.add(1);
+    l.add(2);
+    SimpleList<Integer> snapshot = l.snapshot();
+    l.add(3);
+    assertEquals(2, snapshot.size());
+    assertEquals(3, l.size());
+    assertEquals(2, new ArraySimpleList<>(snapshot).size());
+    try {
+      snapshot.get(2);
+      fail("index beyond the snapshot");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testConcurrentReaders() throws InterruptedException {
+    final AppendOnlyList<Integer> l = new AppendOnlyList<>();
+    final int count = 100000;
+    final List<String> errors = new ArrayList<>();
+    Thread reader =
+        new Thread() {
+          @Override
+          public void run() {
+            while (l.size() < count) {
+              int size = l.size();
+              for (int i = Math.max(0, size - 10); i < size; i++) {
+                if (l.get(i) != i) {
+                  synchronized (errors) {
+                    errors.add("element " + i + " was " + l.get(i));
+                  }
+                }
+              }
+            }
+          }
+        };
+    reader.start();
+    for (int i = 0; i < count; i++) {
+      l.add(i);
+    }
+    reader.join();
+    assertEquals(new ArrayList<String>(), errors);
+  }
+}
@@ -0,0 +1,135 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class GrowingListOfListsTest {
+
+  @Test
+  public void testEmpty() {
+    GrowingListOfLists<Integer> l = new GrowingListOfLists<>();
+    assertEquals(0, l.size());
+    l.addList(new ArrayListSimpleList<Integer>());
+    assertEquals(0, l.size());
+    try {
+      l.get(0);
+      fail("index out of range");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testAgainstFlatList() {
+    Random random = new Random(0);
+    GrowingListOfLists<Integer> l = new GrowingListOfLists<>();
+    List<ArrayListSimpleList<Integer>> lists = new ArrayList<>();
+    int next = 0;
+    for (int step = 0; step < 500; step++) {
+      if (lists.isEmpty() || random.nextInt(10) == 0) {
+        ArrayListSimpleList<Integer> list = new ArrayListSimpleList<>();
+        if (random.nextBoolean()) {
+          list.add(next++);
+        }
+        lists.add(list);
+        l.addList(list);
+      } else {
+        ArrayListSimpleList<Integer> list = lists.get(random.nextInt(lists.size()));
+        list.add(next++);
+        l.update(list);
+      }
+
+      List<Integer> expected = new ArrayList<>();
+      for (ArrayListSimpleList<Integer> list : lists) {
+        expected.addAll(list.theList);
+      }
+      assertEquals(expected.size(), l.size());
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals(expected.get(i), l.get(i));
+      }
+      assertEquals(expected, l.toJDKList());
+    }
+  }
+
+  @Test
+  public void testSizesAsOfLastUpdate() {
+    GrowingListOfLists<Integer> l = new GrowingListOfLists<>();
+    ArrayListSimpleList<Integer> first = new ArrayListSimpleList<>();
+    ArrayListSimpleList<Integer> second = new ArrayListSimpleList<>();
+    first.add(1);
+    second.add(2);
+    l.addList(first);
+    l.addList(second);
+    first.add(3);
+    assertEquals(2, l.size());
+    assertEquals(Integer.valueOf(2), l.get(1));
+    l.update(first);
+    assertEquals(3, l.size());
+    assertEquals(Integer.valueOf(3), l.get(1));
+    assertEquals(Integer.valueOf(2), l.get(2));
+  }
+
+  private static class Weighted implements WeightedElement {
+    private final double weight;
+
+    Weighted(double weight) {
+      this.weight = weight;
+    }
+
+    @Override
+    public double getWeight() {
+      return weight;
+    }
+  }
+
+  @Test
+  public void testGetByWeight() {
+    Random random = new Random(0);
+    GrowingListOfLists<Weighted> l = new GrowingListOfLists<>();
+    List<WeightedArrayListSimpleList<Weighted>> lists = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      WeightedArrayListSimpleList<Weighted> list = new WeightedArrayListSimpleList<>();
+      lists.add(list);
+      l.addList(list);
+    }
+    for (int i = 0; i < 200; i++) {
+      WeightedArrayListSimpleList<Weighted> list = lists.get(random.nextInt(lists.size()));
+      list.add(new Weighted(1.0 / (1 + random.nextInt(10))));
+      l.update(list);
+    }
+
+    List<Weighted> elements = l.toJDKList();
+    double total = 0;
+    for (Weighted w : elements) {
+      total += w.getWeight();
+    }
+    assertEquals(total, l.getTotalWeight(), 1e-9);
+
+    // Compare with a linear search, away from the interval boundaries.
+    double start = 0;
+    for (Weighted w : elements) {
+      assertSame(w, l.getByWeight(start + w.getWeight() / 2));
+      start += w.getWeight();
+    }
+
+    ListOfLists<Weighted> withUnweighted =
+        new ListOfLists<>(l, new ArrayListSimpleList<>(new ArrayList<>(elements)));
+    assertEquals(2 * total, withUnweighted.getTotalWeight(), 1e-9);
+    start = 0;
+    for (Weighted w : elements) {
+      assertSame(w, withUnweighted.getByWeight(total + start + w.getWeight() / 2));
+      start += w.getWeight();
+    }
+
+    l.addList(new ArrayListSimpleList<Weighted>());
+    assertTrue("unknown weights", Double.isNaN(l.getTotalWeight()));
+  }
+}
@@ -0,0 +1,48 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import randoop.Globals;
+
+public class IndentingAppendableTest {
+
+  // The indentation that JunitFileWriter used to compute by splitting lines.
+  private static String splitAndIndent(String text) {
+    StringBuilder b = new StringBuilder();
+    for (String line : text.split(Globals.lineSep)) {
+      b.append("  ").append(line).append(Globals.lineSep);
+    }
+    return b.toString();
+  }
+
+  private static String indent(String text, int pieceLength) throws Exception {
+    StringBuilder b = new StringBuilder();
+    IndentingAppendable appendable = new IndentingAppendable(b, "  ");
+    // Write the text in pieces, so that separators may be split across calls.
+    for (int i = 0; i < text.length(); i += pieceLength) {
+      appendable.append(text, i, Math.min(i + pieceLength, text.length()));
+    }
+    appendable.finish();
+    return b.toString();
+  }
+
+  @Test
+  public void testSameAsSplit() throws Exception {
+    String sep = Globals.lineSep;
+    String[] texts = {
+      "",
+      "a",
+      "a" + sep,
+      "int i = 0;" + sep + "foo(i);" + sep,
+      sep + "a" + sep + sep + sep + "b" + sep + sep,
+      sep + sep,
+      "x\ry" + sep + "\r" + sep
+    };
+    for (String text : texts) {
+      assertEquals(text, splitAndIndent(text), indent(text, 2));
+      assertEquals(text, splitAndIndent(text), indent(text, Math.max(text.length(), 1)));
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package randoop.util;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -115,4 +116,41 @@ public class SimpleListTest {
 
     assertTrue("should be no elements", sl.isEmpty());
   }
+
+  @Test
+  public void arrayOfMixed() {
+    ArrayList<String> al = new ArrayList<>();
+    SimpleList<String> base = new ArrayListSimpleList<>(new ArrayList<String>());
+    for (int i = 0; i < 20; i++) {
+      String v = "str" + i;
+      base = new OneMoreElementList<>(base, v);
+      al.add(v);
+    }
+    ArrayListSimpleList<String> middle = new ArrayListSimpleList<>();
+    for (int i = 20; i < 30; i++) {
+      String v = "str" + i;
+      middle.add(v);
+      al.add(v);
+    }
+    base = new ListOfLists<>(base, new ArrayListSimpleList<String>(), middle);
+    for (int i = 30; i < 40; i++) {
+      String v = "str" + i;
+      base = new OneMoreElementList<>(base, v);
+      al.add(v);
+    }
+    assertEquals("depth of nested list", 31, base.depth());
+
+    SimpleList<String> flat = new ArraySimpleList<>(base);
+    assertEquals("flat list has depth 0", 0, flat.depth());
+    assertEquals("flat list has same size", al.size(), flat.size());
+    for (int i = 0; i < flat.size(); i++) {
+      assertEquals("element should be at same position", al.get(i), flat.get(i));
+      assertEquals("element should be at same position", al.get(i), base.get(i));
+    }
+    assertEquals(al, flat.toJDKList());
+
+    SimpleList<String> extended = new OneMoreElementList<>(flat, "str" + 40);
+    assertEquals("extension of flat list", 1, extended.depth());
+    assertEquals("str" + 40, extended.get(40));
+  }
 }
@@ -0,0 +1,34 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class WeightTreeTest {
+
+  @Test
+  public void testSumsDependOnlyOnWeights() {
+    Random random = new Random(0);
+    WeightTree tree = new WeightTree();
+    for (int i = 0; i < 100; i++) {
+      tree.add(random.nextDouble());
+    }
+    for (int i = 0; i < 100000; i++) {
+      tree.set(random.nextInt(tree.size()), random.nextDouble() * 1e6);
+    }
+
+    WeightTree rebuilt = new WeightTree();
+    double sum = 0;
+    for (int i = 0; i < tree.size(); i++) {
+      rebuilt.add(tree.get(i));
+      sum += tree.get(i);
+    }
+    for (int i = 0; i <= tree.size(); i++) {
+      assertEquals("prefix " + i, rebuilt.prefixSum(i), tree.prefixSum(i), 0);
+    }
+    assertEquals(sum, tree.total(), sum * 1e-12);
+    assertEquals(tree.size() - 1, tree.find(tree.total() - tree.get(tree.size() - 1) / 2));
+  }
+}